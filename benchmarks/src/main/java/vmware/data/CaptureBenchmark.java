@@ -0,0 +1,42 @@
+package vmware.data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a whole capture of the {@link SyntheticCache}, as the sections handed to the sink and as the
+ * rendered HTML report. Run with {@code -prof gc} for the allocation rate.
+ * <p>
+ * The runtime sections sample their counters over a window that would otherwise dominate the time measured, so the
+ * forked JVM runs with {@code -Dcapture.runtime.sample-millis=0} and the sections are measured without the wait.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsPrepend = "-Dcapture.runtime.sample-millis=0")
+public class CaptureBenchmark {
+
+    private final Capture capture = new Capture();
+
+    @Benchmark
+    public void capture(SyntheticCache cache, Blackhole blackhole) {
+        capture.capture(blackhole::consume);
+    }
+
+    @Benchmark
+    public String html(SyntheticCache cache) {
+        return capture.capture();
+    }
+}
@@ -0,0 +1,417 @@
+package vmware.data;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.client.ClientCacheFactory;
+import org.apache.geode.cache.client.ClientRegionShortcut;
+import org.apache.geode.cache.client.Pool;
+import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.execute.Function;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.distributed.ServerLauncher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the capture paths end to end on a real cluster without a network: a locator and a number of cache
+ * servers are started as separate JVMs on the loopback interface, from the same class path as the harness, with the
+ * capture functions registered on start. The harness is the client. For every cluster size and path it
+ * records the end-to-end latency of a capture, the bytes received by the client, the bytes exchanged between the
+ * servers, and the peak heap of the client and of every server, and writes a JSON summary so that runs can be
+ * compared as the number of servers grows.
+ * <p>
+ * On the relay path the client only connects to the first server, so the relay member is always that server.
+ * The servers run without the snapshot cache unless a {@code --server-opt} enables it, so every run captures.
+ */
+public class ClusterHarness {
+
+    private static final String USAGE = "optional arguments [--servers 2,4] [--modes relay,direct,stream] [--runs 5] [--warmup 2] "
+            + "[--regions 10] [--entries 1000] [--heap 512m] [--server-opt jvm-option]... [--work-dir harness-work] [--output harness-summary.json]";
+
+    private static final List<String> JVM_OPTIONS = Arrays.asList(
+            "--add-exports=java.base/sun.nio.ch=ALL-UNNAMED",
+            "--add-exports=java.management/com.sun.jmx.remote.security=ALL-UNNAMED",
+            "--add-opens=java.base/java.lang=ALL-UNNAMED",
+            "--add-opens=java.base/java.nio=ALL-UNNAMED",
+            "--add-opens=java.base/java.util=ALL-UNNAMED",
+            "--add-opens=java.base/java.util.concurrent=ALL-UNNAMED",
+            "-Dgemfire.jmx-manager=false",
+            "-Dgemfire.enable-cluster-configuration=false",
+            "-Dgemfire.http-service-port=0",
+            "-Dgemfire.bind-address=127.0.0.1",
+            "-Dgemfire.log-level=warn");
+
+    private static final String SERVER = "server";
+
+    private static final long STARTUP_MILLIS = 120_000L;
+
+    enum Mode { RELAY, DIRECT, STREAM }
+
+    private List<Integer> serverCounts = Arrays.asList(2, 4);
+    private List<Mode> modes = Arrays.asList(Mode.values());
+    private int runs = 5;
+    private int warmup = 2;
+    private int regions = 10;
+    private int entries = 1000;
+    private String heap = "512m";
+    private final List<String> serverOptions = new ArrayList<>(Collections.singletonList("-Dcapture.cache.ttl-millis=0"));
+    private File workDir = new File("harness-work");
+    private File output = new File("harness-summary.json");
+
+    private final List<Process> processes = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && SERVER.equals(args[0])) {
+            startServer(args[1], Integer.parseInt(args[2]));
+            return;
+        }
+        final ClusterHarness harness = new ClusterHarness();
+        try {
+            harness.parse(args);
+        } catch (RuntimeException ex) {
+            System.out.println(USAGE);
+            return;
+        }
+        final List<Map<String, Object>> results = new ArrayList<>();
+        for (int servers : harness.serverCounts) {
+            results.addAll(harness.measure(servers));
+        }
+        final Map<String, Object> summary = new HashMap<>();
+        summary.put("runs", harness.runs);
+        summary.put("warmup", harness.warmup);
+        summary.put("regions", harness.regions);
+        summary.put("entries", harness.entries);
+        summary.put("results", results);
+        try (PrintWriter writer = new PrintWriter(harness.output, StandardCharsets.UTF_8.name())) {
+            writer.println(json(summary, new StringBuilder()));
+        }
+        System.out.println("Summary written to " + harness.output.getAbsolutePath());
+        System.exit(0);
+    }
+
+    /**
+     * Runs in a forked server JVM. The functions do not implement {@code Declarable}, so they are registered here
+     * rather than in the cache XML, as a deployment would register them.
+     */
+    private static void startServer(String name, int port) {
+        final ServerLauncher launcher = new ServerLauncher.Builder().setMemberName(name).setServerBindAddress("127.0.0.1")
+                .setServerPort(port).setHostNameForClients("127.0.0.1").build();
+        launcher.start();
+        for (Function<?> function : Arrays.<Function<?>>asList(new Capture(), new Analysis(), new FetchSections(), new HarnessProbe())) {
+            FunctionService.registerFunction(function);
+        }
+        System.out.println("Server " + name + " is currently online.");
+        launcher.waitOnServer();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            final String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--servers":
+                    serverCounts = new ArrayList<>();
+                    for (String count : value.split(",")) {
+                        serverCounts.add(Integer.parseInt(count.trim()));
+                    }
+                    break;
+                case "--modes":
+                    modes = new ArrayList<>();
+                    for (String mode : value.split(",")) {
+                        modes.add(Mode.valueOf(mode.trim().toUpperCase()));
+                    }
+                    break;
+                case "--runs":
+                    runs = Integer.parseInt(value);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--regions":
+                    regions = Integer.parseInt(value);
+                    break;
+                case "--entries":
+                    entries = Integer.parseInt(value);
+                    break;
+                case "--heap":
+                    heap = value;
+                    break;
+                case "--server-opt":
+                    serverOptions.add(value);
+                    break;
+                case "--work-dir":
+                    workDir = new File(value);
+                    break;
+                case "--output":
+                    output = new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException(args[i]);
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Starts a cluster of the given size, measures every mode on it and stops it again.
+     */
+    private List<Map<String, Object>> measure(int servers) throws Exception {
+        final File dir = new File(workDir, servers + "-servers");
+        final int locatorPort = freePort();
+        final int[] serverPorts = new int[servers];
+        final List<Map<String, Object>> results = new ArrayList<>();
+        try {
+            Files.createDirectories(dir.toPath());
+            final File cacheXml = writeCacheXml(dir);
+            start(new File(dir, "locator"), Arrays.asList("org.apache.geode.distributed.LocatorLauncher", "start", "locator",
+                    "--port=" + locatorPort, "--bind-address=127.0.0.1", "--hostname-for-clients=127.0.0.1"), Collections.emptyList());
+            for (int i = 0; i < servers; i++) {
+                serverPorts[i] = freePort();
+                final List<String> options = new ArrayList<>(serverOptions);
+                options.add("-Dgemfire.locators=127.0.0.1[" + locatorPort + "]");
+                options.add("-Dgemfire.cache-xml-file=" + cacheXml.getAbsolutePath());
+                start(new File(dir, "server" + (i + 1)), Arrays.asList(ClusterHarness.class.getName(), SERVER, "server" + (i + 1),
+                        String.valueOf(serverPorts[i])), options);
+            }
+            System.out.println("Started a locator and " + servers + " servers in " + dir.getAbsolutePath());
+            load(locatorPort);
+            for (Mode mode : modes) {
+                results.add(measure(mode, servers, locatorPort, serverPorts[0]));
+            }
+        } finally {
+            stop();
+        }
+        return results;
+    }
+
+    private Map<String, Object> measure(Mode mode, int servers, int locatorPort, int relayPort) {
+        final ClientCacheFactory factory = new ClientCacheFactory().set("log-level", "warn").setPoolMinConnections(0).setPoolRetryAttempts(0)
+                .setPoolReadTimeout((int) (CaptureRequest.DEFAULT_TIMEOUT_MILLIS + 2 * CaptureRequest.MARGIN_MILLIS));
+        if (mode == Mode.RELAY) {
+            factory.addPoolServer("127.0.0.1", relayPort);
+        } else {
+            factory.addPoolLocator("127.0.0.1", locatorPort);
+        }
+        final ClientCache cache = factory.create();
+        try {
+            // every server is probed through the locator, whichever server the capture goes through
+            final Pool probePool = PoolManager.createFactory().addLocator("127.0.0.1", locatorPort).create("probe");
+            final List<Long> latencies = new ArrayList<>();
+            long clientReceived = 0;
+            long clientPeakHeap = 0;
+            final Map<String, Long> serverPeakHeap = new HashMap<>();
+            final Map<String, Long> peerReceived = new HashMap<>();
+            final Map<String, Integer> statuses = new HashMap<>();
+            for (int run = 0; run < warmup + runs; run++) {
+                final Map<String, Map<String, Long>> before = probe(probePool, true);
+                HarnessProbe.resetPeakHeap();
+                final long received = HarnessProbe.sum(cache.getDistributedSystem(), "ClientStats", "receivedBytes");
+                final long start = System.nanoTime();
+                final List<MemberResult> results = CaptureClient.capture(cache, new CaptureRequest(), mode == Mode.RELAY, mode == Mode.DIRECT, null,
+                        (int) (CaptureRequest.DEFAULT_TIMEOUT_MILLIS + 2 * CaptureRequest.MARGIN_MILLIS));
+                final long elapsed = System.nanoTime() - start;
+                if (run < warmup) {
+                    continue;
+                }
+                latencies.add(elapsed);
+                clientReceived += HarnessProbe.sum(cache.getDistributedSystem(), "ClientStats", "receivedBytes") - received;
+                clientPeakHeap = Math.max(clientPeakHeap, HarnessProbe.peakHeap());
+                probe(probePool, false).forEach((member, figures) -> {
+                    serverPeakHeap.merge(member, figures.get(HarnessProbe.PEAK_HEAP), Math::max);
+                    final Map<String, Long> base = before.get(member);
+                    peerReceived.merge(member, figures.get(HarnessProbe.PEER_RECEIVED) - (base == null ? 0 : base.get(HarnessProbe.PEER_RECEIVED)), Long::sum);
+                });
+                results.forEach(result -> statuses.merge(result.getStatus().name(), 1, Integer::sum));
+            }
+            Collections.sort(latencies);
+            final Map<String, Object> result = new HashMap<>();
+            result.put("servers", servers);
+            result.put("mode", mode.name().toLowerCase());
+            result.put("latencyMillis", latencySummary(latencies));
+            result.put("clientReceivedBytesPerRun", runs == 0 ? 0 : clientReceived / runs);
+            result.put("clientPeakHeapBytes", clientPeakHeap);
+            result.put("serverPeakHeapBytes", serverPeakHeap);
+            result.put("serverPeerReceivedBytesPerRun", perRun(peerReceived));
+            if (mode == Mode.RELAY) {
+                result.put("relayMember", "server1");
+                result.put("relayPeakHeapBytes", serverPeakHeap.getOrDefault("server1", 0L));
+            }
+            result.put("memberStatuses", statuses);
+            System.out.println(servers + " servers, " + mode.name().toLowerCase() + ": median " + ((Map<?, ?>) result.get("latencyMillis")).get("median")
+                    + " ms, " + result.get("clientReceivedBytesPerRun") + " bytes received by the client per run");
+            return result;
+        } finally {
+            cache.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Long>> probe(Pool pool, boolean reset) {
+        final Map<String, Map<String, Long>> figures = new HashMap<>();
+        final List<Object> results = (List<Object>) FunctionService.onServers(pool).setArguments(reset ? HarnessProbe.RESET : "read")
+                .execute(HarnessProbe.class.getSimpleName()).getResult();
+        for (Object result : results) {
+            if (result instanceof Map) {
+                figures.putAll((Map<String, Map<String, Long>>) result);
+            }
+        }
+        return figures;
+    }
+
+    private Map<String, Long> perRun(Map<String, Long> totals) {
+        final Map<String, Long> perRun = new HashMap<>();
+        totals.forEach((member, total) -> perRun.put(member, runs == 0 ? 0 : total / runs));
+        return perRun;
+    }
+
+    private static Map<String, Object> latencySummary(List<Long> sorted) {
+        final Map<String, Object> summary = new HashMap<>();
+        if (sorted.isEmpty()) {
+            return summary;
+        }
+        summary.put("min", millis(sorted.get(0)));
+        summary.put("median", millis(sorted.get(sorted.size() / 2)));
+        summary.put("max", millis(sorted.get(sorted.size() - 1)));
+        long total = 0;
+        for (long nanos : sorted) {
+            total += nanos;
+        }
+        summary.put("mean", millis(total / sorted.size()));
+        return summary;
+    }
+
+    /**
+     * Writes maps, collections, numbers and strings as JSON, with the keys of every map in order.
+     */
+    private static StringBuilder json(Object value, StringBuilder json) {
+        if (value instanceof Map) {
+            json.append('{');
+            String separator = "";
+            for (Map.Entry<?, ?> entry : new TreeMap<>((Map<?, ?>) value).entrySet()) {
+                json(String.valueOf(entry.getKey()), json.append(separator)).append(':');
+                json(entry.getValue(), json);
+                separator = ",";
+            }
+            return json.append('}');
+        }
+        if (value instanceof Collection) {
+            json.append('[');
+            String separator = "";
+            for (Object element : (Collection<?>) value) {
+                json(element, json.append(separator));
+                separator = ",";
+            }
+            return json.append(']');
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return json.append(value);
+        }
+        json.append('"');
+        for (char c : String.valueOf(value).toCharArray()) {
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < ' ') {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    /**
+     * Creates the regions of the cache XML through a client and fills them with entries.
+     */
+    private void load(int locatorPort) {
+        final ClientCache cache = new ClientCacheFactory().set("log-level", "warn").addPoolLocator("127.0.0.1", locatorPort).create();
+        try {
+            for (int i = 0; i < regions; i++) {
+                for (String name : Arrays.asList("partitioned-" + i, "replicate-" + i)) {
+                    final Region<Integer, String> region = cache.<Integer, String>createClientRegionFactory(ClientRegionShortcut.PROXY).create(name);
+                    final Map<Integer, String> batch = new HashMap<>();
+                    for (int key = 0; key < entries; key++) {
+                        batch.put(key, "value-" + key);
+                    }
+                    region.putAll(batch);
+                }
+            }
+        } finally {
+            cache.close();
+        }
+    }
+
+    private File writeCacheXml(File dir) throws IOException {
+        final StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<cache xmlns=\"http://geode.apache.org/schema/cache\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n");
+        xml.append("       xsi:schemaLocation=\"http://geode.apache.org/schema/cache http://geode.apache.org/schema/cache/cache-1.0.xsd\" version=\"1.0\">\n");
+        for (int i = 0; i < regions; i++) {
+            xml.append("  <region name=\"partitioned-").append(i).append("\" refid=\"PARTITION_REDUNDANT\"/>\n");
+            xml.append("  <region name=\"replicate-").append(i).append("\" refid=\"REPLICATE\"/>\n");
+        }
+        xml.append("  <region name=\"PdxTypes\" refid=\"REPLICATE\"/>\n");
+        xml.append("</cache>\n");
+        final File file = new File(dir, "cache.xml");
+        Files.write(file.toPath(), xml.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * Starts a member JVM in its own directory and waits until it reports that it is online.
+     */
+    private void start(File dir, List<String> arguments, List<String> options) throws IOException, InterruptedException {
+        Files.createDirectories(dir.toPath());
+        final File log = new File(dir, "out.log");
+        final List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getAbsolutePath());
+        command.add("-Xmx" + heap);
+        command.addAll(JVM_OPTIONS);
+        command.addAll(options);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.addAll(arguments);
+        final Process process = new ProcessBuilder(command).directory(dir).redirectErrorStream(true).redirectOutput(log).start();
+        processes.add(process);
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STARTUP_MILLIS);
+        while (!log.exists() || !new String(Files.readAllBytes(log.toPath()), StandardCharsets.UTF_8).contains("is currently online")) {
+            if (!process.isAlive() || System.nanoTime() > deadline) {
+                throw new IllegalStateException("Member in " + dir.getAbsolutePath() + " did not start, see " + log.getAbsolutePath());
+            }
+            Thread.sleep(250);
+        }
+    }
+
+    private void stop() throws InterruptedException {
+        // servers first, a cluster that loses its locator first keeps trying to reach it
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            processes.get(i).destroy();
+            if (!processes.get(i).waitFor(30, TimeUnit.SECONDS)) {
+                processes.get(i).destroyForcibly();
+            }
+        }
+        processes.clear();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package vmware.data;
+
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.execute.Function;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.distributed.DistributedSystem;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the figures the {@link ClusterHarness} records on every server: the peak heap since the last reset and the
+ * bytes the member exchanged with its peers and sent to clients. Called with the argument {@code reset} it first
+ * collects garbage and resets the peak, so that the peak of the next run starts from the live heap. The figures are
+ * returned keyed by the member name.
+ */
+public class HarnessProbe implements Function {
+
+    static final String RESET = "reset";
+
+    static final String PEAK_HEAP = "peakHeapBytes";
+    static final String PEER_RECEIVED = "peerReceivedBytes";
+    static final String PEER_SENT = "peerSentBytes";
+    static final String CLIENT_SENT = "clientSentBytes";
+
+    @Override
+    public void execute(FunctionContext context) {
+        if (RESET.equals(context.getArguments())) {
+            resetPeakHeap();
+        }
+        final DistributedSystem system = CacheFactory.getAnyInstance().getDistributedSystem();
+        final Map<String, Long> figures = new HashMap<>();
+        figures.put(PEAK_HEAP, peakHeap());
+        figures.put(PEER_RECEIVED, sum(system, "DistributionStats", "receivedBytes"));
+        figures.put(PEER_SENT, sum(system, "DistributionStats", "sentBytes"));
+        figures.put(CLIENT_SENT, sum(system, "CacheServerStats", "sentBytes"));
+        context.getResultSender().lastResult(Collections.singletonMap(system.getName(), figures));
+    }
+
+    static void resetPeakHeap() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    /**
+     * Sum of the peaks of the heap pools, which may peak at different times, so an upper bound of the peak heap.
+     */
+    static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools()) {
+            peak += pool.getPeakUsage() == null ? 0 : pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        final List<MemoryPoolMXBean> pools = new ArrayList<>();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(pool -> {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pools.add(pool);
+            }
+        });
+        return pools;
+    }
+
+    /**
+     * Sum of one statistic over every instance of a statistics type, zero when the type is not in use.
+     */
+    static long sum(DistributedSystem system, String typeName, String statName) {
+        final StatisticsType type = system.findType(typeName);
+        if (type == null) {
+            return 0;
+        }
+        long sum = 0;
+        for (Statistics statistics : system.findStatisticsByType(type)) {
+            sum += statistics.get(statName).longValue();
+        }
+        return sum;
+    }
+
+    @Override
+    public String getId() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public boolean optimizeForWrite() {
+        return false;
+    }
+
+    @Override
+    public boolean isHA() {
+        return false;
+    }
+}
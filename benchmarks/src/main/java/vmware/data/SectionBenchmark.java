@@ -0,0 +1,53 @@
+package vmware.data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Throughput of every report section of a capture of the {@link SyntheticCache} on its own, the work of all other
+ * sections skipped. Pick sections with for example {@code -p section=Regions,Properties} and run with
+ * {@code -prof gc} for the allocation rate.
+ * <p>
+ * The runtime sections sample their counters over a window that would otherwise dominate the time measured, so the
+ * forked JVM runs with {@code -Dcapture.runtime.sample-millis=0} and the sections are measured without the wait.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsPrepend = "-Dcapture.runtime.sample-millis=0")
+public class SectionBenchmark {
+
+    @Param({"Locators", "Servers", "Cache Server", "Groups", "JVM", "JVM Runtime", "PDX", "Cache Services", "Resource Manager", "Security",
+            "Transaction Manager", "Async Event Queues", "Gateway Senders", "Gateway Receivers", "Queue Backlog", "Regions",
+            "Bucket Balance", "Disk Store Runtime", "Backup", "Cache XML", "Spring XML", "Meters", "Properties", "Capture Cost"})
+    public String section;
+
+    private final Capture capture = new Capture();
+    private final CaptureRequest request = new CaptureRequest(0);
+
+    @Setup
+    public void select() {
+        request.setSections(Collections.singleton(section));
+    }
+
+    @Benchmark
+    public void section(SyntheticCache cache, Blackhole blackhole) throws TimeoutException {
+        capture.capture(request, blackhole::consume);
+    }
+}
@@ -0,0 +1,161 @@
+package vmware.data;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.PartitionAttributesFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionFactory;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.asyncqueue.AsyncEvent;
+import org.apache.geode.cache.asyncqueue.AsyncEventListener;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.distributed.ServerLauncher;
+import org.apache.geode.internal.cache.InternalCache;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * An in-process server with synthetic content for the capture benchmarks. Every amount is a JMH parameter, so a
+ * run can be sized with for example {@code -p regions=100 -p partitionedRegions=50}. The server runs without a
+ * locator or a cache server port, and its gateway senders are never started.
+ * <p>
+ * The {@code gemfire.} and {@code p2p.} system properties that the Properties section reads are set to their
+ * default values for the run, so the section reports them as set without changing how the server behaves.
+ */
+@State(Scope.Benchmark)
+public class SyntheticCache {
+
+    private static final String[] INDEXED_FIELDS = {"id", "name", "time", "amount"};
+    private static final String[][] SYSTEM_PROPERTIES = {
+            {"gemfire.Cache.EVENT_THREAD_LIMIT", "16"},
+            {"gemfire.Cache.EVENT_QUEUE_LIMIT", "4096"},
+            {"gemfire.ALLOW_PERSISTENT_TRANSACTIONS", "false"},
+            {"gemfire.SHUTDOWN_ALL_POOL_SIZE", "-1"},
+            {"gemfire.bridge.suppressIOExceptionLogging", "false"},
+            {"gemfire.Query.VERBOSE", "false"},
+            {"p2p.backlog", "1280"},
+            {"p2p.listenerCloseTimeout", "60000"}};
+
+    @Param("20")
+    public int regions;
+
+    @Param("10")
+    public int partitionedRegions;
+
+    @Param("113")
+    public int buckets;
+
+    @Param("1000")
+    public int entries;
+
+    /**
+     * Indexes on every region, at most four.
+     */
+    @Param("2")
+    public int indexes;
+
+    @Param("4")
+    public int asyncQueues;
+
+    @Param("4")
+    public int gatewaySenders;
+
+    @Param("200")
+    public int meters;
+
+    private ServerLauncher launcher;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        for (String[] property : SYSTEM_PROPERTIES) {
+            System.setProperty(property[0], property[1]);
+        }
+        launcher = new ServerLauncher.Builder()
+                .setMemberName("benchmark")
+                .setDisableDefaultServer(true)
+                .set("mcast-port", "0")
+                .set("locators", "")
+                .set("log-level", "warn")
+                .set("jmx-manager", "false")
+                .set("http-service-port", "0")
+                .set("distributed-system-id", "1")
+                .build();
+        launcher.start();
+
+        final Cache cache = CacheFactory.getAnyInstance();
+        ((CompositeMeterRegistry) ((InternalCache) cache).getMeterRegistry()).add(new SimpleMeterRegistry());
+        for (int i = 0; i < meters; i++) {
+            Counter.builder("benchmark.counter." + i).tag("benchmark", "synthetic").register(((InternalCache) cache).getMeterRegistry()).increment(i);
+        }
+        for (int i = 0; i < asyncQueues; i++) {
+            cache.createAsyncEventQueueFactory().setBatchSize(100).create("benchmark-queue-" + i, new DiscardingListener());
+        }
+        for (int i = 0; i < gatewaySenders; i++) {
+            cache.createGatewaySenderFactory().setManualStart(true).create("benchmark-sender-" + i, 2);
+        }
+
+        final QueryService queryService = cache.getQueryService();
+        for (int i = 0; i < regions + partitionedRegions; i++) {
+            final boolean partitioned = i >= regions;
+            final RegionFactory<Integer, Value> factory = cache.createRegionFactory(partitioned ? RegionShortcut.PARTITION : RegionShortcut.REPLICATE);
+            if (partitioned) {
+                factory.setPartitionAttributes(new PartitionAttributesFactory<Integer, Value>().setTotalNumBuckets(buckets).create());
+            }
+            if (asyncQueues > 0) {
+                factory.addAsyncEventQueueId("benchmark-queue-" + i % asyncQueues);
+            }
+            if (gatewaySenders > 0) {
+                factory.addGatewaySenderId("benchmark-sender-" + i % gatewaySenders);
+            }
+            final Region<Integer, Value> region = factory.create((partitioned ? "partitioned-" : "replicate-") + i);
+            for (int j = 0; j < Math.min(indexes, INDEXED_FIELDS.length); j++) {
+                queryService.createIndex(region.getName() + "-" + INDEXED_FIELDS[j], INDEXED_FIELDS[j], region.getFullPath());
+            }
+            for (int key = 0; key < entries; key++) {
+                region.put(key, new Value(key));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        launcher.stop();
+        for (String[] property : SYSTEM_PROPERTIES) {
+            System.clearProperty(property[0]);
+        }
+    }
+
+    /**
+     * The value of every synthetic entry.
+     */
+    public static class Value implements Serializable {
+        public final int id;
+        public final String name;
+        public final long time;
+        public final double amount;
+
+        Value(int id) {
+            this.id = id;
+            this.name = "name-" + id;
+            this.time = System.currentTimeMillis();
+            this.amount = id * 1.5;
+        }
+    }
+
+    private static class DiscardingListener implements AsyncEventListener {
+        @Override
+        public boolean processEvents(List<AsyncEvent> events) {
+            return true;
+        }
+    }
+}
@@ -2,22 +2,25 @@ package vmware.data;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.execute.Execution;
 import org.apache.geode.cache.execute.Function;
 import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.FunctionException;
 import org.apache.geode.cache.execute.FunctionService;
 import org.apache.geode.cache.execute.ResultCollector;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.InternalCache;
-import org.apache.geode.internal.cache.execute.DefaultResultCollector;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Slf4j
-public class Analysis implements Function {
+public class Analysis implements Function<Object> {
 
     @Override
     public boolean hasResult() {
@@ -25,7 +28,7 @@ public class Analysis implements Function {
     }
 
     @Override
-    public void execute(FunctionContext functionContext) {
+    public void execute(FunctionContext<Object> functionContext) {
         InternalCache cache = (InternalCache) CacheFactory.getAnyInstance();
         Set<DistributedMember> members = cache.getInternalDistributedSystem().getAllOtherMembers();
         members.add(cache.getInternalDistributedSystem().getDistributedMember());
@@ -35,9 +38,40 @@ public class Analysis implements Function {
                 members.remove((DistributedMember) member);
             }
         });
-        ResultCollector collector = FunctionService.onMembers(members).withCollector(new DefaultResultCollector()).execute("Capture");
-        ArrayList<String> results = (ArrayList<String>) collector.getResult();
-        functionContext.getResultSender().lastResult(results);
+        // a targeted capture only goes to the members it names or whose groups it names
+        final CaptureRequest request = CaptureRequest.of(functionContext.getArguments());
+        final List<String> skippedNames = members.stream().filter(member -> !request.selects(member)).map(DistributedMember::getName)
+                .collect(Collectors.toList());
+        members.removeIf(member -> !request.selects(member));
+        // the members get what is left of the deadline minus the time needed to report the ones that miss it
+        final long timeoutMillis = request.getTimeoutMillis();
+        final long memberTimeoutMillis = timeoutMillis > 0 ? Math.max(1, timeoutMillis - CaptureRequest.MARGIN_MILLIS) : 0;
+        final List<String> memberNames = members.stream().map(DistributedMember::getName).collect(Collectors.toList());
+
+        // member chunks are relayed to the caller as they arrive; the last result is the number of chunks relayed
+        final RelayResultCollector relay = new RelayResultCollector(functionContext.getResultSender());
+        if (members.isEmpty()) {
+            functionContext.getResultSender().lastResult(relay.close(memberNames, skippedNames, memberTimeoutMillis));
+            return;
+        }
+        try {
+            // Geode hands out executions as raw types
+            @SuppressWarnings("unchecked")
+            final Execution<CaptureRequest, Object, Integer> execution = FunctionService.onMembers(members);
+            final ResultCollector<Object, Integer> collector = execution.setArguments(request.withTimeoutMillis(memberTimeoutMillis))
+                    .withCollector(relay).execute("Capture");
+            if (memberTimeoutMillis > 0) {
+                collector.getResult(memberTimeoutMillis + CaptureRequest.MARGIN_MILLIS / 2, TimeUnit.MILLISECONDS);
+            } else {
+                collector.getResult();
+            }
+        } catch (FunctionException ex) {
+            log.warn("Capture did not complete on every member: {}", ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted waiting for capture results");
+        }
+        functionContext.getResultSender().lastResult(relay.close(memberNames, skippedNames, memberTimeoutMillis));
     }
 
     @Override
@@ -52,6 +86,7 @@ public class Analysis implements Function {
 
     @Override
     public boolean isHA() {
-        return true;
+        // chunks are streamed to the caller as they arrive, so a retry would deliver duplicate reports
+        return false;
     }
 }
@@ -0,0 +1,383 @@
+package vmware.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.partition.PartitionMemberInfo;
+import org.apache.geode.cache.partition.PartitionRegionHelper;
+import org.apache.geode.cache.partition.PartitionRegionInfo;
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.ColocationHelper;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.partitioned.SizeMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Where the buckets of the partitioned regions live across the cluster, one table per colocation group since
+ * colocated regions keep their buckets together and are rebalanced together. Every data store of a group is listed
+ * with its buckets, primaries, bytes and entries, followed by the skew of each measure as the maximum over the mean
+ * and the coefficient of variation. A measure whose maximum exceeds the mean by more than
+ * {@code -Dcapture.balance.skew-percent} (default 20) is flagged for a rebalance; bucket and primary counts only
+ * when they are above the best balance their totals allow.
+ * <p>
+ * Bucket, primary and byte counts come from {@link PartitionRegionHelper}, which asks every data store for the
+ * details of a region and waits for all of them without a bound. Entries come from the data store of every member
+ * asked for the sizes of the buckets it hosts, one message per region and data store, all sent before the first
+ * answer is awaited. The figures are the same on every member, so each group is only computed by the data store
+ * with the lowest member id among the members captured, and the other members point to it. The deadline of the capture is checked before every
+ * region, the answers are awaited no longer than the deadline, and neither once the section is cancelled.
+ */
+@Slf4j
+class BucketBalanceSection implements CaptureSection {
+
+    static final int SKEW_PERCENT = Math.max(0, Integer.getInteger("capture.balance.skew-percent", 20));
+
+    private final Predicate<String> regions;
+    private final Predicate<DistributedMember> captured;
+    private final long deadline;
+
+    /**
+     * @param captured the members the capture selects, of which the reporting data store is chosen
+     * @param deadline the deadline of the capture in {@link System#nanoTime()}, or 0 for none
+     */
+    BucketBalanceSection(Predicate<String> regions, Predicate<DistributedMember> captured, long deadline) {
+        this.regions = regions;
+        this.captured = captured;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public String getName() {
+        return "Bucket Balance";
+    }
+
+    /**
+     * Mostly spent waiting for the other data stores to answer.
+     */
+    @Override
+    public Cost getCost() {
+        return Cost.IO;
+    }
+
+    @Override
+    public void capture(Cache cache, SectionWriter out) {
+        out.heading(3, "Bucket Balance");
+        final Map<String, List<PartitionedRegion>> groups = new TreeMap<>();
+        ((InternalCache) cache).getPartitionedRegions().forEach(region ->
+                groups.computeIfAbsent(ColocationHelper.getLeaderRegion(region).getFullPath(), path -> new ArrayList<>()).add(region));
+        groups.values().removeIf(group -> group.stream().noneMatch(region -> regions.test(region.getName()) || regions.test(region.getFullPath())));
+        if (groups.isEmpty()) {
+            out.text("No Partitioned Regions Defined");
+            return;
+        }
+        out.text("A measure is flagged when its maximum exceeds the mean by more than " + SKEW_PERCENT + "%");
+        groups.forEach((leader, group) -> {
+            group.sort(Comparator.comparing(PartitionedRegion::getFullPath));
+            final InternalDistributedMember reporter = reporter(ColocationHelper.getLeaderRegion(group.get(0)));
+            if (reporter.equals(((InternalCache) cache).getMyId())) {
+                processGroup(leader, group, out);
+            } else {
+                out.heading(4, "Colocation Group: " + leader);
+                out.text("Reported by " + reporter.getName() + ", the captured data store of the group with the lowest member id");
+            }
+        });
+    }
+
+    private void processGroup(String leader, List<PartitionedRegion> group, SectionWriter out) {
+        out.heading(4, "Colocation Group: " + leader);
+        final Map<String, long[]> members = new TreeMap<>();
+        final List<EntryCount> counts = new ArrayList<>();
+        PartitionRegionInfo leaderInfo = null;
+        String unmeasured = null;
+        // the leader first, since its buckets and primaries stand for the group
+        final List<PartitionedRegion> measured = new ArrayList<>(group);
+        measured.sort(Comparator.comparing(region -> !region.getFullPath().equals(leader)));
+        for (PartitionedRegion region : measured) {
+            if (isExpired()) {
+                unmeasured = region.getFullPath();
+                break;
+            }
+            // Geode fetches the details from every data store and waits for all of them, a wait that cannot be bounded
+            final PartitionRegionInfo info = PartitionRegionHelper.getPartitionRegionInfo(region);
+            if (info == null) {
+                continue;
+            }
+            final boolean isLeader = region.getFullPath().equals(leader);
+            if (isLeader) {
+                leaderInfo = info;
+            }
+            for (PartitionMemberInfo member : info.getPartitionMemberInfo()) {
+                final long[] load = members.computeIfAbsent(member.getDistributedMember().getName(), name -> new long[Measure.values().length]);
+                // colocated buckets move together, so the buckets and primaries of the leader stand for the group
+                if (isLeader) {
+                    load[Measure.BUCKETS.ordinal()] = member.getBucketCount();
+                    load[Measure.PRIMARIES.ordinal()] = member.getPrimaryCount();
+                }
+                load[Measure.BYTES.ordinal()] += member.getSize();
+                counts.add(count(region, member.getDistributedMember(), load));
+            }
+        }
+        if (!counts.isEmpty()) {
+            await(counts, group.get(0).getDistributionManager().getExecutors().getWaitingThreadPool());
+            counts.forEach(EntryCount::addTo);
+        }
+        out.table("Property", "Value");
+        out.row("Regions", group.stream().map(PartitionedRegion::getFullPath).collect(Collectors.joining(", ")));
+        if (leaderInfo != null) {
+            out.row("Configured Buckets", leaderInfo.getConfiguredBucketCount());
+            out.row("Created Buckets", leaderInfo.getCreatedBucketCount());
+            out.row("Configured Redundant Copies", leaderInfo.getConfiguredRedundantCopies());
+            out.row("Actual Redundant Copies", leaderInfo.getActualRedundantCopies());
+            out.row("Low Redundancy Buckets", leaderInfo.getLowRedundancyBucketCount());
+        }
+        out.endTable();
+        if (unmeasured != null) {
+            // the bytes and entries of the regions left out are unknown, so the totals of the group are as well
+            out.text("Capture Deadline Reached: " + unmeasured + " and the regions after it were not measured");
+            members.values().forEach(load -> {
+                load[Measure.BYTES.ordinal()] = -1;
+                load[Measure.ENTRIES.ordinal()] = -1;
+            });
+        }
+        if (members.isEmpty()) {
+            if (unmeasured == null) {
+                out.text("No Data Stores Hosting Buckets");
+            }
+            return;
+        }
+
+        out.table("Member", "Buckets", "Primaries", "Bytes", "Entries");
+        members.forEach((name, load) -> out.row(name, load[Measure.BUCKETS.ordinal()], load[Measure.PRIMARIES.ordinal()],
+                known(load[Measure.BYTES.ordinal()]), known(load[Measure.ENTRIES.ordinal()])));
+        out.endTable();
+
+        final List<String> flagged = new ArrayList<>();
+        out.table("Measure", "Total", "Mean", "Max", "Max / Mean", "Coefficient of Variation", "Balance");
+        for (Measure measure : Measure.values()) {
+            final long[] values = members.values().stream().mapToLong(load -> load[measure.ordinal()]).toArray();
+            if (Arrays.stream(values).anyMatch(value -> value < 0)) {
+                out.row(measure.label, "-", "-", "-", "-", "-", "Unknown");
+                continue;
+            }
+            final Skew skew = new Skew(values);
+            final boolean skewed = skew.isSkewed(measure.counted);
+            if (skewed) {
+                flagged.add(measure.label + " on " + busiest(members, measure));
+            }
+            out.row(measure.label, skew.total, SampleWindow.round(skew.mean), skew.max, skew.mean > 0 ? SampleWindow.round(skew.max / skew.mean) : "-",
+                    skew.mean > 0 ? SampleWindow.round(skew.deviation / skew.mean) : "-", skewed ? "Skewed" : "Balanced");
+        }
+        out.endTable();
+        if (leaderInfo != null && leaderInfo.getLowRedundancyBucketCount() > 0) {
+            out.text("Redundancy Not Met: " + leaderInfo.getLowRedundancyBucketCount() + " buckets have fewer copies than configured");
+        }
+        out.text(flagged.isEmpty() ? "Balanced" : "Rebalance Recommended: " + String.join(", ", flagged));
+    }
+
+    /**
+     * The data store of the group with the lowest member id among the members captured, this member when it hosts
+     * the group and none of the others does.
+     */
+    private InternalDistributedMember reporter(PartitionedRegion leader) {
+        final Set<InternalDistributedMember> stores = new HashSet<>(leader.getRegionAdvisor().adviseDataStore());
+        stores.removeIf(store -> !captured.test(store));
+        if (leader.getDataStore() != null || stores.isEmpty()) {
+            stores.add(leader.getDistributionManager().getId());
+        }
+        return Collections.min(stores);
+    }
+
+    /**
+     * The entries held by the member in the buckets it hosts, primary and redundant copies alike: counted at once
+     * on this member, or asked for and awaited later together with the other data stores.
+     */
+    private EntryCount count(PartitionedRegion region, DistributedMember member, long[] load) {
+        final ArrayList<Integer> buckets = new ArrayList<>();
+        for (Integer bucket : region.getRegionAdvisor().getBucketSet()) {
+            if (region.getRegionAdvisor().getBucketOwners(bucket).contains(member)) {
+                buckets.add(bucket);
+            }
+        }
+        if (buckets.isEmpty()) {
+            return new EntryCount(region, member, load, 0);
+        }
+        try {
+            if (member.equals(region.getDistributionManager().getId()) && region.getDataStore() != null) {
+                return new EntryCount(region, member, load, EntryCount.sum(region.getDataStore().getSizeLocallyForBuckets(buckets)));
+            }
+            if (isExpired()) {
+                return new EntryCount(region, member, load, -1);
+            }
+            return new EntryCount(region, member, load, SizeMessage.send(Collections.singleton(member), region, buckets, false));
+        } catch (RuntimeException ex) {
+            log.warn("Unable to count the entries of {} on {}", region.getFullPath(), member.getName(), ex);
+            return new EntryCount(region, member, load, -1);
+        }
+    }
+
+    /**
+     * Waits for the answers of the data stores, which are all asked before the first one is awaited, on the waiting
+     * pool of Geode since a reply processor does not stop for the deadline itself. The answers missing when the
+     * deadline passes or the section is cancelled stay unknown and the wait on the pool is given up.
+     */
+    private void await(List<EntryCount> counts, ExecutorService pool) {
+        final List<EntryCount> sent = counts.stream().filter(EntryCount::isSent).collect(Collectors.toList());
+        if (sent.isEmpty()) {
+            return;
+        }
+        final Future<?> answers = pool.submit(() -> {
+            for (EntryCount count : sent) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                count.await();
+            }
+        });
+        try {
+            if (deadline == 0) {
+                answers.get();
+            } else {
+                answers.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            answers.cancel(true);
+        } catch (TimeoutException ex) {
+            answers.cancel(true);
+        } catch (ExecutionException ex) {
+            log.warn("Unable to count the entries of the data stores", ex.getCause());
+        }
+    }
+
+    private boolean isExpired() {
+        return Thread.currentThread().isInterrupted() || deadline != 0 && deadline - System.nanoTime() <= 0;
+    }
+
+    private static Object known(long value) {
+        return value < 0 ? "-" : value;
+    }
+
+    private static String busiest(Map<String, long[]> members, Measure measure) {
+        return members.entrySet().stream().max(Comparator.comparingLong(entry -> entry.getValue()[measure.ordinal()]))
+                .map(Map.Entry::getKey).orElse("-");
+    }
+
+    private enum Measure {
+        BUCKETS("Buckets", true),
+        PRIMARIES("Primaries", true),
+        BYTES("Bytes", false),
+        ENTRIES("Entries", false);
+
+        private final String label;
+        private final boolean counted;
+
+        Measure(String label, boolean counted) {
+            this.label = label;
+            this.counted = counted;
+        }
+    }
+
+    /**
+     * The entries of one region on one data store, added to the load of the member once known; -1 while unknown.
+     */
+    private static final class EntryCount {
+
+        private final String regionPath;
+        private final DistributedMember member;
+        private final long[] load;
+        private final SizeMessage.SizeResponse response;
+        private volatile long entries;
+
+        EntryCount(PartitionedRegion region, DistributedMember member, long[] load, long entries) {
+            this(region, member, load, null, entries);
+        }
+
+        EntryCount(PartitionedRegion region, DistributedMember member, long[] load, SizeMessage.SizeResponse response) {
+            this(region, member, load, response, -1);
+        }
+
+        private EntryCount(PartitionedRegion region, DistributedMember member, long[] load, SizeMessage.SizeResponse response, long entries) {
+            this.regionPath = region.getFullPath();
+            this.member = member;
+            this.load = load;
+            this.response = response;
+            this.entries = entries;
+        }
+
+        boolean isSent() {
+            return response != null;
+        }
+
+        void await() {
+            try {
+                entries = sum(response.waitBucketSizes());
+            } catch (RuntimeException ex) {
+                log.warn("Unable to count the entries of {} on {}", regionPath, member.getName(), ex);
+            }
+        }
+
+        void addTo() {
+            final long current = load[Measure.ENTRIES.ordinal()];
+            load[Measure.ENTRIES.ordinal()] = entries < 0 || current < 0 ? -1 : current + entries;
+        }
+
+        static long sum(Map<Integer, PartitionedRegion.SizeEntry> sizes) {
+            return sizes.values().stream().mapToLong(PartitionedRegion.SizeEntry::getSize).sum();
+        }
+    }
+
+    /**
+     * The spread of one measure over the data stores of a group.
+     */
+    private static class Skew {
+
+        private final long total;
+        private final long max;
+        private final double mean;
+        private final double deviation;
+
+        Skew(long[] values) {
+            long sum = 0;
+            long largest = 0;
+            for (long value : values) {
+                sum += value;
+                largest = Math.max(largest, value);
+            }
+            total = sum;
+            max = largest;
+            mean = (double) sum / values.length;
+            double squares = 0;
+            for (long value : values) {
+                squares += (value - mean) * (value - mean);
+            }
+            deviation = Math.sqrt(squares / values.length);
+        }
+
+        /**
+         * Buckets and primaries are whole, so a maximum of the mean rounded up is as even as they can be.
+         */
+        boolean isSkewed(boolean counted) {
+            if (mean <= 0 || counted && max <= Math.ceil(mean)) {
+                return false;
+            }
+            return max > mean * (100 + SKEW_PERCENT) / 100.0;
+        }
+    }
+}
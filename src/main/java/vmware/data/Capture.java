@@ -6,20 +6,18 @@ import org.apache.geode.cache.*;
 import org.apache.geode.cache.control.ResourceManager;
 import org.apache.geode.cache.execute.Function;
 import org.apache.geode.cache.execute.FunctionContext;
-import org.apache.geode.cache.lucene.LuceneIndex;
-import org.apache.geode.cache.lucene.LuceneServiceProvider;
-import org.apache.geode.cache.lucene.internal.LuceneIndexImpl;
-import org.apache.geode.cache.lucene.internal.LuceneServiceImpl;
 import org.apache.geode.cache.lucene.internal.cli.LuceneIndexDetails;
-import org.apache.geode.cache.lucene.internal.cli.LuceneIndexStatus;
 import org.apache.geode.cache.partition.PartitionListener;
+import org.apache.geode.cache.query.Index;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.server.CacheServer;
+import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.ServerLauncher;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.OperationExecutors;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.*;
+import org.apache.geode.internal.classloader.ClassPathLoader;
 import org.apache.geode.management.internal.util.HostUtils;
 
 import java.io.File;
@@ -29,22 +27,60 @@ import java.lang.management.RuntimeMXBean;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Slf4j
-public class Capture implements Function {
+public class Capture implements Function<Object> {
 
+    static final String NOT_SELECTED = "Not selected by the capture";
+
+    private final ExpirySampler expirySampler = new ExpirySampler();
+
+    /**
+     * Captures this member and renders the snapshot as an HTML report.
+     */
     public String capture() {
+        StringBuilder report = new StringBuilder(HtmlRenderer.PREAMBLE);
+        capture(section -> HtmlRenderer.render(section, report));
+        return report.append(HtmlRenderer.CLOSING).toString();
+    }
+
+    /**
+     * Builds the snapshot sections concurrently and hands each section to the sink in report order as soon as it is
+     * complete.
+     */
+    public void capture(Consumer<SnapshotSection> sink) {
+        try {
+            capture(new CaptureRequest(0), sink);
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Builds the report as requested: within the timeout of the request, in low impact mode on a single throttled
+     * thread of minimum priority rather than on the capture pool, and only the selected sections and regions, the
+     * work of every other section skipped. When the deadline passes the sections already complete have been handed
+     * to the sink and the remaining ones are abandoned; a timeout of zero or less waits for every section.
+     */
+    void capture(CaptureRequest request, Consumer<SnapshotSection> sink) throws TimeoutException {
+        final long timeoutMillis = request.getTimeoutMillis();
+        final long deadline = timeoutMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+        final Predicate<String> sections = request.sectionFilter();
+        final Predicate<String> regions = request.regionFilter();
         final InternalCache cache = (InternalCache) CacheFactory.getAnyInstance();
         final ServerLauncher serverLauncher = ServerLauncher.getInstance();
         final InternalDistributedMember currentMember = cache.getDistributionManager().getId();
-        StringBuilder sb = new StringBuilder();
 
-        // Get other members and add this member to other members set
+        // Get other members and add this member to a copy of the other members set, which a loner has as an
+        // immutable empty set
         Set<InternalDistributedMember> otherMembers = cache.getDistributionManager().getAllOtherMembers();
-        if (otherMembers == null) {
-            otherMembers = new HashSet<>();
-        }
+        otherMembers = otherMembers == null ? new HashSet<>() : new HashSet<>(otherMembers);
         otherMembers.add(currentMember);
         final Set<InternalDistributedMember> members = otherMembers;
 
@@ -62,390 +98,439 @@ public class Capture implements Function {
         sysConfig.put("hugetlb_shm_group","/proc/sys/vm/hugetlb_shm_group");
         sysConfig.put("transparent_hugepage","/sys/kernel/mm/transparent_hugepage/enabled");
 
-        sb.append(currentMember.getName());
-        sb.append("<html>").append("<heading>").append("</heading>").append("<title>").append("Cache Server Analysis").append("</title>").append("<body>")
-                .append("<br>");
+        // cluster locators are needed by both the locator and the server sections
+        final Map<InternalDistributedMember, Collection<String>> locators = cache.getDistributionManager().getAllHostedLocators();
 
-        sb.append("<h2><b>").append("Cluster Configuration").append("</b></h2>");
+        CaptureEngine engine = new CaptureEngine(request.isLowImpact(), sections);
+
+        engine.add("Header", out -> {
+            out.heading(2, "Cluster Configuration");
+        });
 
         // cluster locators
-        Map<InternalDistributedMember, Collection<String>> locators = processLocators(cache, sb, members);
+        engine.add("Locators", out -> processLocators(out, locators, members));
 
         // cluster servers
-        processServers(cache, sb, locators, members);
+        engine.add("Servers", out -> processServers(cache, out, locators, members));
 
         // cache server
-        processCacheServer(cache, sb, serverLauncher, currentMember);
+        engine.add("Cache Server", out -> processCacheServer(cache, out, serverLauncher, currentMember));
 
         // cluster groups
-        processGroups(cache,sb, currentMember);
+        engine.add("Groups", out -> processGroups(cache, out, currentMember));
 
         // JVM details
-        processJVM(cache, sb, sysConfig);
+        engine.add("JVM", CaptureSection.Cost.IO, out -> processJVM(cache, out, sysConfig));
+
+        // JVM runtime behaviour, sampled over a short window from now
+        if (engine.isSelected("JVM Runtime")) {
+            engine.add(cache, Collections.singletonList(new JvmRuntimeSection()));
+        }
 
         // pdx
-        processPdx(cache, sb);
+        engine.add("PDX", out -> processPdx(cache, out));
 
         // defined cache services
-        processCacheServices(cache, sb);
+        engine.add("Cache Services", out -> processCacheServices(cache, out));
 
         // resource manager
-        processResourceManager(cache, sb);
+        engine.add("Resource Manager", out -> processResourceManager(cache, out));
 
         // security
-        processSecurity(cache, sb);
+        engine.add("Security", out -> processSecurity(cache, out));
 
         // transaction manager
-        processTxMgr(cache, sb);
+        engine.add("Transaction Manager", out -> processTxMgr(cache, out));
 
         // async queues
-        processAsync(cache, sb);
+        engine.add("Async Event Queues", out -> processAsync(cache, out));
 
         // gateway senders
-        processGatewaySenders(cache, sb);
+        engine.add("Gateway Senders", out -> processGatewaySenders(cache, out));
 
         // gateway receivers
-        processGatewayReceivers(cache, sb);
+        engine.add("Gateway Receivers", out -> processGatewayReceivers(cache, out));
+
+        // backlog and throughput of the senders and queues, sampled over a short window from now
+        if (engine.isSelected("Queue Backlog")) {
+            engine.add(cache, Collections.singletonList(new QueueBacklogSection(cache)));
+        }
 
         // regions
-        Set<InternalRegion> regions = cache.getApplicationRegions();
-        processRegions(cache, regions, sb, serverLauncher.getMemberName());
+        processRegions(cache, cache.getApplicationRegions(), regions, engine, serverLauncher.getMemberName());
+
+        // where the buckets of the partitioned regions live across the cluster
+        engine.add(cache, Collections.singletonList(new BucketBalanceSection(regions, request::selects, deadline)));
+
+        // disk store io, oplogs and free space, sampled over a short window from now
+        if (engine.isSelected("Disk Store Runtime")) {
+            engine.add(cache, Collections.singletonList(new DiskStoreRuntimeSection(cache)));
+        }
 
         // cluster backup
-        processBackup(cache, sb);
+        engine.add("Backup", out -> processBackup(cache, out));
 
         // cache xml
-        processCacheXml(cache, sb);
+        engine.add("Cache XML", CaptureSection.Cost.IO, out -> processCacheXml(cache, out));
 
         // spring xml
-        processSpringXml(cache, sb, serverLauncher);
+        engine.add("Spring XML", CaptureSection.Cost.IO, out -> processSpringXml(cache, out, serverLauncher));
 
         // meters
-        processMeters(cache, sb);
+        engine.add("Meters", CaptureSection.Cost.HEAVY, out -> processMeters(cache, out));
 
         // gemfire and system properties
-        processProperties(cache, sb);
+        engine.add("Properties", out -> processProperties(cache, out));
+
+        // sections added by the site, including those of deployed jars
+        engine.add(cache, siteSections());
 
-        sb.append("</body></html>");
+        engine.run(sink, timeoutMillis);
 
-        return sb.toString();
+        // the meters are recorded for every capture, whether or not the report shows the costs
+        CaptureCost.record(cache.getMeterRegistry(), engine.getCosts());
+        SectionWriter out = new SectionWriter();
+        if (sections.test("Capture Cost")) {
+            processCost(engine.getCosts(), engine.getThrottle(), out);
+            sink.accept(out.toSection("Capture Cost"));
+        }
     }
 
-    private Map<InternalDistributedMember, Collection<String>> processLocators(InternalCache cache, StringBuilder sb, Set<InternalDistributedMember> members) {
-        // cluster locators
-        Map<InternalDistributedMember, Collection<String>> locators = cache.getDistributionManager().getAllHostedLocators();
-        sb.append("<h3><b>").append("Cluster Locators").append("</b></h3>");
-        sb.append("<table><tr><td><b>").append("Name").append("</b></td><td><b>").append("Host Name").append("</b></td><td><b>")
-                .append("IP Address").append("</b></td><td><b>").append("Port").append("</b></td></tr>");
+    /**
+     * The sections listed as {@link CaptureSection} services; a provider that cannot be loaded is left out.
+     */
+    private static List<CaptureSection> siteSections() {
+        final List<CaptureSection> sections = new ArrayList<>();
+        final Iterator<CaptureSection> providers = ServiceLoader.load(CaptureSection.class, ClassPathLoader.getLatestAsClassLoader()).iterator();
+        while (true) {
+            try {
+                if (!providers.hasNext()) {
+                    return sections;
+                }
+                sections.add(providers.next());
+            } catch (ServiceConfigurationError ex) {
+                log.warn("Unable to load capture section", ex);
+            }
+        }
+    }
+
+    private void processCost(Map<String, CaptureCost> costs, CaptureThrottle throttle, SectionWriter out) {
+        out.heading(3, "Capture Cost");
+        if (throttle != null) {
+            out.text("Low impact capture at " + CaptureThrottle.CPU_PERCENT + "% CPU: " + throttle.getCpuNanos() / 1_000_000.0
+                    + " ms CPU, " + throttle.getPausedNanos() / 1_000_000.0 + " ms paused");
+        }
+        out.table("Section", "Wall Time (ms)", "CPU Time (ms)", "Allocated (KB)", "Output (bytes)");
+        costs.forEach((name, cost) -> {
+            out.row(name, cost.getWallNanos() / 1_000_000.0, cost.getCpuNanos() < 0 ? "-" : cost.getCpuNanos() / 1_000_000.0,
+                    cost.getAllocatedBytes() < 0 ? "-" : cost.getAllocatedBytes() / 1024, cost.getOutputBytes());
+        });
+        out.endTable();
+    }
+
+    private void processLocators(SectionWriter out, Map<InternalDistributedMember, Collection<String>> locators, Set<InternalDistributedMember> members) {
+        out.heading(3, "Cluster Locators");
+        out.table("Name", "Host Name", "IP Address", "Port");
         locators.forEach((member, locator) -> locator.forEach(a -> {
             if (members.contains(member)) {
                 final String locatorPort = a.substring(a.indexOf("[") + 1, a.indexOf("]"));
-                sb.append("<tr><td>").append(member.getName()).append("</td>");
-                sb.append("<td>").append(member.getInetAddress().getHostName()).append("</td>");
-                sb.append("<td>").append(member.getInetAddress().getHostAddress()).append("<td>").append(locatorPort).append("</td></tr>");
+                out.row(member.getName(), member.getInetAddress().getHostName(), member.getInetAddress().getHostAddress(), locatorPort);
             }
         }));
-        sb.append("</table>");
-        return locators;
+        out.endTable();
     }
 
-    private void processServers(InternalCache cache, StringBuilder sb,  Map<InternalDistributedMember, Collection<String>> locators, Set<InternalDistributedMember> members) {
-        sb.append("<h3><b>").append("Cluster Servers").append("</b></h3>");
-        sb.append("<table><tr><td><b>").append("Name").append("</b></td><td><b>").append("Host Name").append("</b></td><td><b>")
-                .append("IP Address").append("</b></td><td><b>").append("Port").append("</b></td></tr>");
+    private void processServers(InternalCache cache, SectionWriter out,  Map<InternalDistributedMember, Collection<String>> locators, Set<InternalDistributedMember> members) {
+        out.heading(3, "Cluster Servers");
+        out.table("Name", "Host Name", "IP Address", "Port");
         members.forEach(member -> {
             if (locators.get(member) == null) {
                 final String serverPort = member.getId().substring(member.getId().lastIndexOf(":") + 1);
-                sb.append("<tr><td>").append(member.getName()).append("</td>");
-                sb.append("<td>").append(member.getInetAddress().getHostName()).append("</td>");
                 if (member.equals(cache.getDistributionManager().getId())) {
-                    sb.append("<td>").append(member.getInetAddress().getHostAddress()).append(" ** ").append("</td><td>")
-                            .append(serverPort).append("</td></tr>");
+                    out.row(member.getName(), member.getInetAddress().getHostName(), member.getInetAddress().getHostAddress() + " ** ", serverPort);
                 } else {
-                    sb.append("<td>").append(member.getInetAddress().getHostAddress()).append("    ").append("</td><td>")
-                            .append(serverPort).append("</td></tr>");
+                    out.row(member.getName(), member.getInetAddress().getHostName(), member.getInetAddress().getHostAddress() + "    ", serverPort);
                 }
             }
         });
-        sb.append("</table>");
+        out.endTable();
     }
 
-    private void processCacheServer(InternalCache cache, StringBuilder sb, ServerLauncher serverLauncher, InternalDistributedMember currentMember) {
-        sb.append("<h3><b>").append("Cache Server Details").append("</b></h3>");
-        sb.append("<h4><b>").append("Server Name - ").append(serverLauncher.getMemberName()).append("</b></h4>");
-        sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-        sb.append("<tr><td>").append("Host Name").append("</td><td>").append(HostUtils.getLocalHost()).append("</td></tr>");
-        sb.append("<tr><td>").append("Bind Address").append("</td><td>").append(cache.getDistributionManager().getConfig().getBindAddress() == null || cache.getDistributionManager().getConfig().getBindAddress().length() == 0 ? "Not Defined" : cache.getDistributionManager().getConfig().getBindAddress()).append("</td></tr>");
-        sb.append("<tr><td>").append("Server Bind Address").append("</td><td>").append(serverLauncher.getServerBindAddressAsString() == null ? "Not Defined" : serverLauncher.getServerBindAddressAsString()).append("</td></tr>");
-        sb.append("<tr><td>").append("Host Name For Clients").append("</td><td>").append(serverLauncher.getHostNameForClients() == null ? "Not Defined" : serverLauncher.getHostNameForClients()).append("</td></tr>");
-        sb.append("<tr><td>").append("Socket Buffer Size").append("</td><td>").append(cache.getDistributionManager().getConfig().getSocketBufferSize()).append("</td></tr>");
-        sb.append("<tr><td>").append("Socket Lease Time").append("</td><td>").append(cache.getDistributionManager().getConfig().getSocketLeaseTime()).append("</td></tr>");
-        sb.append("</table>");
-
-        sb.append("<h4><b>").append("Cache Server Membership Details").append("</b></h4>");
-        sb.append("<table><tr><td>").append("Maximum Connections").append("</td><td>").append(serverLauncher.getMaxConnections() == null ? CacheServer.DEFAULT_MAX_CONNECTIONS : serverLauncher.getMaxConnections()).append("</td></tr>");
-        sb.append("<tr><td>").append("Maximum Threads").append("</td><td>").append(serverLauncher.getMaxThreads() == null ? CacheServer.DEFAULT_MAX_THREADS : serverLauncher.getMaxThreads()).append("</td></tr>");
-        sb.append("<tr><td>").append("Maximum Message Count").append("</td><td>").append(serverLauncher.getMaxMessageCount() == null ? CacheServer.DEFAULT_MAXIMUM_MESSAGE_COUNT : serverLauncher.getMaxMessageCount()).append("</td></tr>");
-        sb.append("<tr><td>").append("Message Time To Live").append("</td><td>").append(serverLauncher.getMessageTimeToLive() == null ? CacheServer.DEFAULT_MESSAGE_TIME_TO_LIVE : serverLauncher.getMessageTimeToLive()).append("</td></tr>");
-        sb.append("<tr><td>").append("Working Directory").append("</td><td>").append(serverLauncher.getWorkingDirectory() == null ? "Not Defined" : serverLauncher.getWorkingDirectory()).append("</td></tr>");
-        sb.append("<tr><td>").append("Disable Default Server").append("</td><td>").append(serverLauncher.isDisableDefaultServer()).append("</td></tr>");
-        sb.append("<tr><td>").append("Membership Weight").append("</td><td>").append(currentMember.getMemberWeight()).append("</td></tr>");
-        sb.append("<tr><td>").append("Membership Port").append("</td><td>").append(currentMember.getMembershipPort()).append("</td></tr>");
-        sb.append("</table>");
-
-        sb.append("<h4><b>").append("Cache Server Log Details").append("</b></h4>");
-        sb.append("<table><tr><td>").append("Log File").append("</td><td>").append(cache.getDistributionManager().getConfig().getLogFile() == null ? "No Log File Defined" : cache.getDistributionManager().getConfig().getLogFile()).append("</td></tr>");
-        sb.append("<tr><td>").append("Log Level").append("</td><td>").append(cache.getDistributionManager().getConfig().getLogLevel()).append("</td></tr>");
-        sb.append("<tr><td>").append("Log File Size Limit").append("</td><td>").append(cache.getDistributionManager().getConfig().getLogFileSizeLimit() == 0 ? DistributionConfig.DEFAULT_LOG_FILE_SIZE_LIMIT : cache.getDistributionManager().getConfig().getLogFileSizeLimit()).append("</td></tr>");
-        sb.append("<tr><td>").append("Log Disk Space Limit").append("</td><td>").append(cache.getDistributionManager().getConfig().getLogDiskSpaceLimit() == 0 ? DistributionConfig.DEFAULT_LOG_DISK_SPACE_LIMIT : cache.getDistributionManager().getConfig().getLogDiskSpaceLimit()).append("</td></tr>");
-        sb.append("</table>");
-
-        sb.append("<h4><b>").append("Cache Server Statistics Details").append("</b></h4>");
-        sb.append("<table><tr><td>").append("Statistics Sampling Enabled").append("</td><td>").append(cache.getDistributionManager().getConfig().getStatisticSamplingEnabled()).append("</td></tr>");
-        sb.append("<tr><td>").append("Statistics Sample Rate").append("</td><td>").append(cache.getDistributionManager().getConfig().getStatisticSampleRate()).append("</td></tr>");
-        sb.append("<tr><td>").append("Time Statistics Enabled").append("</td><td>").append(cache.getDistributionManager().getConfig().getEnableTimeStatistics()).append("</td></tr>");
-        sb.append("<tr><td>").append("Statistics File").append("</td><td>").append(cache.getDistributionManager().getConfig().getStatisticArchiveFile() == null || cache.getDistributionManager().getConfig().getStatisticArchiveFile().length() == 0 ? "No Statistics File Defined" : cache.getDistributionManager().getConfig().getStatisticArchiveFile()).append("</td></tr>");
-        sb.append("<tr><td>").append("Statistics File Size Limit").append("</td><td>").append(cache.getDistributionManager().getConfig().getArchiveFileSizeLimit() == 0 ? DistributionConfig.DEFAULT_ARCHIVE_FILE_SIZE_LIMIT : cache.getDistributionManager().getConfig().getArchiveFileSizeLimit()).append("</td></tr>");
-        sb.append("<tr><td>").append("Statistics Disk Space Limit").append("</td><td>").append(cache.getDistributionManager().getConfig().getArchiveDiskSpaceLimit() == 0 ? DistributionConfig.DEFAULT_ARCHIVE_DISK_SPACE_LIMIT : cache.getDistributionManager().getConfig().getArchiveDiskSpaceLimit()).append("</td></tr>");
-        sb.append("</table>");
-
-        sb.append("<h4><b>").append("Cache Server JMX Details").append("</b></h4>");
-        sb.append("<table><tr><td>").append("JMX Manager Bind Address").append("</td><td>").append(cache.getDistributionManager().getConfig().getJmxManagerBindAddress() == null || cache.getDistributionManager().getConfig().getJmxManagerBindAddress().length() == 0 ? "No JMX Manager Bind Address Defined" : cache.getDistributionManager().getConfig().getJmxManagerBindAddress()).append("</td></tr>");
-        sb.append("<tr><td>").append("JMX Manager Update rate").append("</td><td>").append(cache.getDistributionManager().getConfig().getJmxManagerUpdateRate()).append("</td></tr>");
-        sb.append("<tr><td>").append("JMX Manager Port").append("</td><td>").append(cache.getDistributionManager().getConfig().getJmxManagerPort()).append("</td></tr>");
-        sb.append("<tr><td>").append("JMX Manager Access File").append("</td><td>").append(cache.getDistributionManager().getConfig().getJmxManagerAccessFile() == null || cache.getDistributionManager().getConfig().getJmxManagerAccessFile().length() == 0 ? "No JMX Manager Access File Defined" : cache.getDistributionManager().getConfig().getJmxManagerAccessFile()).append("</td></tr>");
-        sb.append("<tr><td>").append("JMX Manager Password File").append("</td><td>").append(cache.getDistributionManager().getConfig().getJmxManagerPasswordFile() == null || cache.getDistributionManager().getConfig().getJmxManagerPasswordFile().length() == 0 ? "No JMX Manager Password File Defined" : cache.getDistributionManager().getConfig().getJmxManagerPasswordFile()).append("</td></tr>");
-        sb.append("<tr><td>").append("JMX SSL Alias").append("</td><td>").append(cache.getDistributionManager().getConfig().getJMXSSLAlias() == null || cache.getDistributionManager().getConfig().getJMXSSLAlias().length() == 0 ? "No JMX Manager SSL Alias Defined" : cache.getDistributionManager().getConfig().getJMXSSLAlias()).append("</td></tr>");
-        sb.append("</table>");
-
-        sb.append("<h4><b>").append("Cache Server Asynchronous Details").append("</b></h4>");
-        sb.append("<table><tr><td>").append("Async Queue Timeout").append("</td><td>").append(cache.getDistributionManager().getConfig().getAsyncQueueTimeout()).append("</td></tr>");
-        sb.append("<tr><td>").append("Async Distribution Timeout").append("</td><td>").append(cache.getDistributionManager().getConfig().getAsyncDistributionTimeout()).append("</td></tr>");
-        sb.append("<tr><td>").append("Async Max Queue Size").append("</td><td>").append(cache.getDistributionManager().getConfig().getAsyncMaxQueueSize()).append("</td></tr>");
-        sb.append("</table>");
-
-        sb.append("<h4><b>").append("Cache Server Security Details").append("</b></h4>");
-        sb.append("<table><tr><td>").append("Security Log Level").append("</td><td>").append(cache.getDistributionManager().getConfig().getSecurityLogLevel()).append("</td></tr>");
-        sb.append("<tr><td>").append("Security Log File").append("</td><td>").append(cache.getDistributionManager().getConfig().getSecurityLogFile() == null || cache.getDistributionManager().getConfig().getSecurityLogFile().length() == 0 ? "No Security Log File Defined" : cache.getDistributionManager().getConfig().getSecurityLogFile()).append("</td></tr>");
+    private void processCacheServer(InternalCache cache, SectionWriter out, ServerLauncher serverLauncher, InternalDistributedMember currentMember) {
+        out.heading(3, "Cache Server Details");
+        out.heading(4, "Server Name - " + serverLauncher.getMemberName());
+        out.table("Property", "Value");
+        out.row("Host Name", HostUtils.getLocalHost());
+        out.row("Bind Address", cache.getDistributionManager().getConfig().getBindAddress() == null || cache.getDistributionManager().getConfig().getBindAddress().length() == 0 ? "Not Defined" : cache.getDistributionManager().getConfig().getBindAddress());
+        out.row("Server Bind Address", serverLauncher.getServerBindAddressAsString() == null ? "Not Defined" : serverLauncher.getServerBindAddressAsString());
+        out.row("Host Name For Clients", serverLauncher.getHostNameForClients() == null ? "Not Defined" : serverLauncher.getHostNameForClients());
+        out.row("Socket Buffer Size", cache.getDistributionManager().getConfig().getSocketBufferSize());
+        out.row("Socket Lease Time", cache.getDistributionManager().getConfig().getSocketLeaseTime());
+        out.endTable();
+
+        out.heading(4, "Cache Server Membership Details");
+        out.table().row("Maximum Connections", serverLauncher.getMaxConnections() == null ? CacheServer.DEFAULT_MAX_CONNECTIONS : serverLauncher.getMaxConnections());
+        out.row("Maximum Threads", serverLauncher.getMaxThreads() == null ? CacheServer.DEFAULT_MAX_THREADS : serverLauncher.getMaxThreads());
+        out.row("Maximum Message Count", serverLauncher.getMaxMessageCount() == null ? CacheServer.DEFAULT_MAXIMUM_MESSAGE_COUNT : serverLauncher.getMaxMessageCount());
+        out.row("Message Time To Live", serverLauncher.getMessageTimeToLive() == null ? CacheServer.DEFAULT_MESSAGE_TIME_TO_LIVE : serverLauncher.getMessageTimeToLive());
+        out.row("Working Directory", serverLauncher.getWorkingDirectory() == null ? "Not Defined" : serverLauncher.getWorkingDirectory());
+        out.row("Disable Default Server", serverLauncher.isDisableDefaultServer());
+        out.row("Membership Weight", currentMember.getMemberWeight());
+        out.row("Membership Port", currentMember.getMembershipPort());
+        out.endTable();
+
+        out.heading(4, "Cache Server Log Details");
+        out.table().row("Log File", cache.getDistributionManager().getConfig().getLogFile() == null ? "No Log File Defined" : cache.getDistributionManager().getConfig().getLogFile());
+        out.row("Log Level", cache.getDistributionManager().getConfig().getLogLevel());
+        out.row("Log File Size Limit", cache.getDistributionManager().getConfig().getLogFileSizeLimit() == 0 ? DistributionConfig.DEFAULT_LOG_FILE_SIZE_LIMIT : cache.getDistributionManager().getConfig().getLogFileSizeLimit());
+        out.row("Log Disk Space Limit", cache.getDistributionManager().getConfig().getLogDiskSpaceLimit() == 0 ? DistributionConfig.DEFAULT_LOG_DISK_SPACE_LIMIT : cache.getDistributionManager().getConfig().getLogDiskSpaceLimit());
+        out.endTable();
+
+        out.heading(4, "Cache Server Statistics Details");
+        out.table().row("Statistics Sampling Enabled", cache.getDistributionManager().getConfig().getStatisticSamplingEnabled());
+        out.row("Statistics Sample Rate", cache.getDistributionManager().getConfig().getStatisticSampleRate());
+        out.row("Time Statistics Enabled", cache.getDistributionManager().getConfig().getEnableTimeStatistics());
+        out.row("Statistics File", cache.getDistributionManager().getConfig().getStatisticArchiveFile() == null || cache.getDistributionManager().getConfig().getStatisticArchiveFile().length() == 0 ? "No Statistics File Defined" : cache.getDistributionManager().getConfig().getStatisticArchiveFile());
+        out.row("Statistics File Size Limit", cache.getDistributionManager().getConfig().getArchiveFileSizeLimit() == 0 ? DistributionConfig.DEFAULT_ARCHIVE_FILE_SIZE_LIMIT : cache.getDistributionManager().getConfig().getArchiveFileSizeLimit());
+        out.row("Statistics Disk Space Limit", cache.getDistributionManager().getConfig().getArchiveDiskSpaceLimit() == 0 ? DistributionConfig.DEFAULT_ARCHIVE_DISK_SPACE_LIMIT : cache.getDistributionManager().getConfig().getArchiveDiskSpaceLimit());
+        out.endTable();
+
+        out.heading(4, "Cache Server JMX Details");
+        out.table().row("JMX Manager Bind Address", cache.getDistributionManager().getConfig().getJmxManagerBindAddress() == null || cache.getDistributionManager().getConfig().getJmxManagerBindAddress().length() == 0 ? "No JMX Manager Bind Address Defined" : cache.getDistributionManager().getConfig().getJmxManagerBindAddress());
+        out.row("JMX Manager Update rate", cache.getDistributionManager().getConfig().getJmxManagerUpdateRate());
+        out.row("JMX Manager Port", cache.getDistributionManager().getConfig().getJmxManagerPort());
+        out.row("JMX Manager Access File", cache.getDistributionManager().getConfig().getJmxManagerAccessFile() == null || cache.getDistributionManager().getConfig().getJmxManagerAccessFile().length() == 0 ? "No JMX Manager Access File Defined" : cache.getDistributionManager().getConfig().getJmxManagerAccessFile());
+        out.row("JMX Manager Password File", cache.getDistributionManager().getConfig().getJmxManagerPasswordFile() == null || cache.getDistributionManager().getConfig().getJmxManagerPasswordFile().length() == 0 ? "No JMX Manager Password File Defined" : cache.getDistributionManager().getConfig().getJmxManagerPasswordFile());
+        out.row("JMX SSL Alias", cache.getDistributionManager().getConfig().getJMXSSLAlias() == null || cache.getDistributionManager().getConfig().getJMXSSLAlias().length() == 0 ? "No JMX Manager SSL Alias Defined" : cache.getDistributionManager().getConfig().getJMXSSLAlias());
+        out.endTable();
+
+        out.heading(4, "Cache Server Asynchronous Details");
+        out.table().row("Async Queue Timeout", cache.getDistributionManager().getConfig().getAsyncQueueTimeout());
+        out.row("Async Distribution Timeout", cache.getDistributionManager().getConfig().getAsyncDistributionTimeout());
+        out.row("Async Max Queue Size", cache.getDistributionManager().getConfig().getAsyncMaxQueueSize());
+        out.endTable();
+
+        out.heading(4, "Cache Server Security Details");
+        out.table().row("Security Log Level", cache.getDistributionManager().getConfig().getSecurityLogLevel());
+        out.row("Security Log File", cache.getDistributionManager().getConfig().getSecurityLogFile() == null || cache.getDistributionManager().getConfig().getSecurityLogFile().length() == 0 ? "No Security Log File Defined" : cache.getDistributionManager().getConfig().getSecurityLogFile());
         String[] components = cache.getDistributionManager().getConfig().getSecurityAuthTokenEnabledComponents();
         for (int i = 0; i < components.length; i++) {
             if (i == 0) {
-                sb.append("<tr><td>").append("Security Auth Token Enabled Components").append("</td><td>").append(components[i]).append("</td></tr>");
+                out.row("Security Auth Token Enabled Components", components[i]);
             } else {
-                sb.append("<tr><td>").append("").append("</td><td>").append(components[i]).append("</td></tr>");
+                out.row("", components[i]);
             }
         }
-        sb.append("<tr><td>").append("Security Peer Authenticator").append("</td><td>").append(cache.getDistributionManager().getConfig().getSecurityPeerAuthenticator() == null || cache.getDistributionManager().getConfig().getSecurityPeerAuthenticator().length() == 0 ? "No Security Peer Authenticator Defined" : cache.getDistributionManager().getConfig().getSecurityPeerAuthenticator()).append("</td></tr>");
-        sb.append("<tr><td>").append("Security Peer Auth Init").append("</td><td>").append(cache.getDistributionManager().getConfig().getSecurityPeerAuthInit() == null || cache.getDistributionManager().getConfig().getSecurityPeerAuthInit().length() == 0 ? "No Security Peer Auth Init Defined" : cache.getDistributionManager().getConfig().getSecurityPeerAuthInit()).append("</td></tr>");
-        sb.append("<tr><td>").append("Security Client Accessor").append("</td><td>").append(cache.getDistributionManager().getConfig().getSecurityClientAccessor() == null || cache.getDistributionManager().getConfig().getSecurityClientAccessor().length() == 0 ? "No Security Client Accessor Defined" : cache.getDistributionManager().getConfig().getSecurityClientAccessor()).append("</td></tr>");
-        sb.append("<tr><td>").append("Security Client Accessor PP").append("</td><td>").append(cache.getDistributionManager().getConfig().getSecurityClientAccessorPP() == null || cache.getDistributionManager().getConfig().getSecurityClientAccessorPP().length() == 0 ? "No Security Client  Accessor PP Defined" : cache.getDistributionManager().getConfig().getSecurityClientAccessorPP()).append("</td></tr>");
-        sb.append("<tr><td>").append("Security Client Authenticator").append("</td><td>").append(cache.getDistributionManager().getConfig().getSecurityClientAuthenticator() == null || cache.getDistributionManager().getConfig().getSecurityClientAuthenticator().length() == 0 ? "No Security Client Authenticator Defined" : cache.getDistributionManager().getConfig().getSecurityClientAuthenticator()).append("</td></tr>");
-        sb.append("<tr><td>").append("Security Client Auth Init").append("</td><td>").append(cache.getDistributionManager().getConfig().getSecurityClientAuthInit() == null || cache.getDistributionManager().getConfig().getSecurityClientAuthInit().length() == 0 ? "No Security Client Auth Init Defined" : cache.getDistributionManager().getConfig().getSecurityClientAuthInit()).append("</td></tr>");
-        sb.append("<tr><td>").append("Security Client DHAlgo").append("</td><td>").append(cache.getDistributionManager().getConfig().getSecurityClientDHAlgo() == null || cache.getDistributionManager().getConfig().getSecurityClientDHAlgo().length() == 0 ? "No Security Client DHAlogo Defined" : cache.getDistributionManager().getConfig().getSecurityClientDHAlgo()).append("</td></tr>");
-        sb.append("</table>");
-
-        sb.append("<h4><b>").append("Cache Server SSL Details").append("</b></h4>");
-        sb.append("<table><tr><td>").append("SSL Server Alias").append("</td><td>").append(cache.getDistributionManager().getConfig().getServerSSLAlias() == null || cache.getDistributionManager().getConfig().getServerSSLAlias().length() == 0 ? "No Server SSL Alias Defined" : cache.getDistributionManager().getConfig().getServerSSLAlias()).append("</td></tr>");
-        sb.append("<tr><td>").append("SSL Server Protocols").append("</td><td>").append(cache.getDistributionManager().getConfig().getSSLServerProtocols() == null || cache.getDistributionManager().getConfig().getSSLServerProtocols().length() == 0 ? "No Server SSL Protocols Defined" : cache.getDistributionManager().getConfig().getSSLProtocols()).append("</td></tr>");
-        sb.append("<tr><td>").append("SSL Default Alias").append("</td><td>").append(cache.getDistributionManager().getConfig().getSSLDefaultAlias() == null || cache.getDistributionManager().getConfig().getSSLDefaultAlias().length() == 0 ? "No SSL Default Alias Defined" : cache.getDistributionManager().getConfig().getSSLDefaultAlias()).append("</td></tr>");
-        sb.append("<tr><td>").append("SSL Ciphers").append("</td><td>").append(cache.getDistributionManager().getConfig().getSSLCiphers() == null || cache.getDistributionManager().getConfig().getSSLCiphers().length() == 0 ? "No SSL Ciphers Defined" : cache.getDistributionManager().getConfig().getSSLCiphers()).append("</td></tr>");
-        sb.append("<tr><td>").append("SSL Protocols").append("</td><td>").append(cache.getDistributionManager().getConfig().getSSLProtocols() == null || cache.getDistributionManager().getConfig().getSSLProtocols().length() == 0 ? "No SSL Protocols Defined" : cache.getDistributionManager().getConfig().getSSLProtocols()).append("</td></tr>");
-        sb.append("<tr><td>").append("SSL Parameter Extension").append("</td><td>").append(cache.getDistributionManager().getConfig().getSSLParameterExtension() == null || cache.getDistributionManager().getConfig().getSSLParameterExtension().length() == 0 ? "No SSL Parameter Extension Defined" : cache.getDistributionManager().getConfig().getSSLParameterExtension()).append("</td></tr>");
-        sb.append("<tr><td>").append("SSL Trust Store Type").append("</td><td>").append(cache.getDistributionManager().getConfig().getSSLTrustStoreType() == null || cache.getDistributionManager().getConfig().getSSLTrustStoreType().length() == 0 ? "No SSL Trust Store Tpye Defined" : cache.getDistributionManager().getConfig().getSSLTrustStoreType()).append("</td></tr>");
-        sb.append("<tr><td>").append("SSL Trust Store").append("</td><td>").append(cache.getDistributionManager().getConfig().getSSLTrustStore() == null || cache.getDistributionManager().getConfig().getSSLTrustStore().length() == 0 ? "No SSL Trust Store Defined" : cache.getDistributionManager().getConfig().getSSLTrustStore()).append("</td></tr>");
-        sb.append("<tr><td>").append("SSL Key Store Type").append("</td><td>").append(cache.getDistributionManager().getConfig().getSSLKeyStoreType() == null || cache.getDistributionManager().getConfig().getSSLKeyStoreType().length() == 0 ? "No SSL Key Store Type Defined" : cache.getDistributionManager().getConfig().getSSLKeyStoreType()).append("</td></tr>");
-        sb.append("<tr><td>").append("SSL Key Store").append("</td><td>").append(cache.getDistributionManager().getConfig().getSSLKeyStore() == null || cache.getDistributionManager().getConfig().getSSLKeyStore().length() == 0 ? "No SSL Key Store Defined" : cache.getDistributionManager().getConfig().getSSLKeyStore()).append("</td></tr>");
-        sb.append("<tr><td>").append("SSL Require Authentication").append("</td><td>").append(cache.getDistributionManager().getConfig().getSSLRequireAuthentication()).append("</td></tr>");
-        sb.append("<tr><td>").append("SSL Endpoint ID Enabled").append("</td><td>").append(cache.getDistributionManager().getConfig().getSSLEndPointIdentificationEnabled()).append("</td></tr>");
-        sb.append("</table>");
-
-        sb.append("<h4><b>").append("Cache Server HTTP Details").append("</b></h4>");
-        sb.append("<table><tr><td>").append("HTTP Service Port").append("</td><td>").append(cache.getDistributionManager().getConfig().getHttpServicePort()).append("</td></tr>");
-        sb.append("<tr><td>").append("HTTP Service Bind Address").append("</td><td>").append(cache.getDistributionManager().getConfig().getHttpServiceBindAddress() == null || cache.getDistributionManager().getConfig().getHttpServiceBindAddress().length() == 0 ? "No Http Service Bind Address Defined" : cache.getDistributionManager().getConfig().getHttpServiceBindAddress()).append("</td></tr>");
-        sb.append("</table>");
-
-        sb.append("<h4><b>").append("Cache Server Thread Details").append("</b></h4>");
-        sb.append("<table><tr><td>").append("Thread Monitor Enabled").append("</td><td>").append(cache.getDistributionManager().getConfig().getThreadMonitorEnabled()).append("</td></tr>");
-        sb.append("<tr><td>").append("Thread Monitor Time Limit").append("</td><td>").append(cache.getDistributionManager().getConfig().getThreadMonitorTimeLimit()).append("</td></tr>");
-        sb.append("<tr><td>").append("Thread Monitor Interval").append("</td><td>").append(cache.getDistributionManager().getConfig().getThreadMonitorInterval()).append("</td></tr>");
-        sb.append("</table>");
-
-        sb.append("<h4><b>").append("Cache Server Other Properties").append("</b></h4>");
-        sb.append("<table><tr><td>").append("Lock Memory Enabled").append("</td><td>").append(cache.getDistributionManager().getConfig().getLockMemory()).append("</td></tr>");
-        sb.append("<tr><td>").append("TCP Port").append("</td><td>").append(cache.getDistributionManager().getConfig().getTcpPort()).append("</td></tr>");
-        sb.append("<tr><td>").append("Disable TCP").append("</td><td>").append(cache.getDistributionManager().getConfig().getDisableTcp()).append("</td></tr>");
-        sb.append("<tr><td>").append("Remote Locators").append("</td><td>").append(cache.getDistributionManager().getConfig().getRemoteLocators() == null || cache.getDistributionManager().getConfig().getRemoteLocators().length() == 0 ? "No Remote Locatord Defined" : cache.getDistributionManager().getConfig().getRemoteLocators()).append("</td></tr>");
-        sb.append("<tr><td>").append("Redundancy Zone").append("</td><td>").append(cache.getDistributionManager().getConfig().getRedundancyZone() == null || cache.getDistributionManager().getConfig().getRedundancyZone().length() == 0 ? "No Redundancy Zone Defined" : cache.getDistributionManager().getConfig().getRedundancyZone()).append("</td></tr>");
-        sb.append("<tr><td>").append("Off Heap Memory Size").append("</td><td>").append(cache.getDistributionManager().getConfig().getOffHeapMemorySize() == null || cache.getDistributionManager().getConfig().getOffHeapMemorySize().length() == 0 ? "No Off Heap Memory Defined" : cache.getDistributionManager().getConfig().getOffHeapMemorySize()).append("</td></tr>");
-        sb.append("<tr><td>").append("Member Timeout").append("</td><td>").append(cache.getDistributionManager().getConfig().getMemberTimeout()).append("</td></tr>");
-        sb.append("<tr><td>").append("Max Reconnect Wait Time ").append("</td><td>").append(cache.getDistributionManager().getConfig().getMaxWaitTimeForReconnect()).append("</td></tr>");
-        sb.append("<tr><td>").append("Max Reconnect Number Retries").append("</td><td>").append(cache.getDistributionManager().getConfig().getMaxNumReconnectTries()).append("</td></tr>");
-        sb.append("<tr><td>").append("Locator Wait Time").append("</td><td>").append(cache.getDistributionManager().getConfig().getLocatorWaitTime()).append("</td></tr>");
-        sb.append("<tr><td>").append("Enforce Unique Host").append("</td><td>").append(cache.getDistributionManager().getConfig().getEnforceUniqueHost()).append("</td></tr>");
-        sb.append("<tr><td>").append("Network Partition Detection").append("</td><td>").append(cache.getDistributionManager().getConfig().getEnableNetworkPartitionDetection()).append("</td></tr>");
-        sb.append("<tr><td>").append("Disable Auto Reconnect").append("</td><td>").append(cache.getDistributionManager().getConfig().getDisableAutoReconnect()).append("</td></tr>");
-        sb.append("<tr><td>").append("Conserve Sockets").append("</td><td>").append(cache.getDistributionManager().getConfig().getConserveSockets()).append("</td></tr>");
-        sb.append("<tr><td>").append("Ack Wait Threshold").append("</td><td>").append(cache.getDistributionManager().getConfig().getAckWaitThreshold()).append("</td></tr>");
-        sb.append("<tr><td>").append("Ack Severe Alert Threshold").append("</td><td>").append(cache.getDistributionManager().getConfig().getAckSevereAlertThreshold()).append("</td></tr>");
-        sb.append("<tr><td>").append("Enable Cluster Configuration").append("</td><td>").append(cache.getDistributionManager().getConfig().getEnableClusterConfiguration()).append("</td></tr>");
-        sb.append("<tr><td>").append("Enable Management REST Service").append("</td><td>").append(cache.getDistributionManager().getConfig().getEnableManagementRestService()).append("</td></tr>");
+        out.row("Security Peer Authenticator", cache.getDistributionManager().getConfig().getSecurityPeerAuthenticator() == null || cache.getDistributionManager().getConfig().getSecurityPeerAuthenticator().length() == 0 ? "No Security Peer Authenticator Defined" : cache.getDistributionManager().getConfig().getSecurityPeerAuthenticator());
+        out.row("Security Peer Auth Init", cache.getDistributionManager().getConfig().getSecurityPeerAuthInit() == null || cache.getDistributionManager().getConfig().getSecurityPeerAuthInit().length() == 0 ? "No Security Peer Auth Init Defined" : cache.getDistributionManager().getConfig().getSecurityPeerAuthInit());
+        out.row("Security Client Accessor", cache.getDistributionManager().getConfig().getSecurityClientAccessor() == null || cache.getDistributionManager().getConfig().getSecurityClientAccessor().length() == 0 ? "No Security Client Accessor Defined" : cache.getDistributionManager().getConfig().getSecurityClientAccessor());
+        out.row("Security Client Accessor PP", cache.getDistributionManager().getConfig().getSecurityClientAccessorPP() == null || cache.getDistributionManager().getConfig().getSecurityClientAccessorPP().length() == 0 ? "No Security Client  Accessor PP Defined" : cache.getDistributionManager().getConfig().getSecurityClientAccessorPP());
+        out.row("Security Client Authenticator", cache.getDistributionManager().getConfig().getSecurityClientAuthenticator() == null || cache.getDistributionManager().getConfig().getSecurityClientAuthenticator().length() == 0 ? "No Security Client Authenticator Defined" : cache.getDistributionManager().getConfig().getSecurityClientAuthenticator());
+        out.row("Security Client Auth Init", cache.getDistributionManager().getConfig().getSecurityClientAuthInit() == null || cache.getDistributionManager().getConfig().getSecurityClientAuthInit().length() == 0 ? "No Security Client Auth Init Defined" : cache.getDistributionManager().getConfig().getSecurityClientAuthInit());
+        out.row("Security Client DHAlgo", cache.getDistributionManager().getConfig().getSecurityClientDHAlgo() == null || cache.getDistributionManager().getConfig().getSecurityClientDHAlgo().length() == 0 ? "No Security Client DHAlogo Defined" : cache.getDistributionManager().getConfig().getSecurityClientDHAlgo());
+        out.endTable();
+
+        out.heading(4, "Cache Server SSL Details");
+        out.table().row("SSL Server Alias", cache.getDistributionManager().getConfig().getServerSSLAlias() == null || cache.getDistributionManager().getConfig().getServerSSLAlias().length() == 0 ? "No Server SSL Alias Defined" : cache.getDistributionManager().getConfig().getServerSSLAlias());
+        out.row("SSL Server Protocols", cache.getDistributionManager().getConfig().getSSLServerProtocols() == null || cache.getDistributionManager().getConfig().getSSLServerProtocols().length() == 0 ? "No Server SSL Protocols Defined" : cache.getDistributionManager().getConfig().getSSLProtocols());
+        out.row("SSL Default Alias", cache.getDistributionManager().getConfig().getSSLDefaultAlias() == null || cache.getDistributionManager().getConfig().getSSLDefaultAlias().length() == 0 ? "No SSL Default Alias Defined" : cache.getDistributionManager().getConfig().getSSLDefaultAlias());
+        out.row("SSL Ciphers", cache.getDistributionManager().getConfig().getSSLCiphers() == null || cache.getDistributionManager().getConfig().getSSLCiphers().length() == 0 ? "No SSL Ciphers Defined" : cache.getDistributionManager().getConfig().getSSLCiphers());
+        out.row("SSL Protocols", cache.getDistributionManager().getConfig().getSSLProtocols() == null || cache.getDistributionManager().getConfig().getSSLProtocols().length() == 0 ? "No SSL Protocols Defined" : cache.getDistributionManager().getConfig().getSSLProtocols());
+        out.row("SSL Parameter Extension", cache.getDistributionManager().getConfig().getSSLParameterExtension() == null || cache.getDistributionManager().getConfig().getSSLParameterExtension().length() == 0 ? "No SSL Parameter Extension Defined" : cache.getDistributionManager().getConfig().getSSLParameterExtension());
+        out.row("SSL Trust Store Type", cache.getDistributionManager().getConfig().getSSLTrustStoreType() == null || cache.getDistributionManager().getConfig().getSSLTrustStoreType().length() == 0 ? "No SSL Trust Store Tpye Defined" : cache.getDistributionManager().getConfig().getSSLTrustStoreType());
+        out.row("SSL Trust Store", cache.getDistributionManager().getConfig().getSSLTrustStore() == null || cache.getDistributionManager().getConfig().getSSLTrustStore().length() == 0 ? "No SSL Trust Store Defined" : cache.getDistributionManager().getConfig().getSSLTrustStore());
+        out.row("SSL Key Store Type", cache.getDistributionManager().getConfig().getSSLKeyStoreType() == null || cache.getDistributionManager().getConfig().getSSLKeyStoreType().length() == 0 ? "No SSL Key Store Type Defined" : cache.getDistributionManager().getConfig().getSSLKeyStoreType());
+        out.row("SSL Key Store", cache.getDistributionManager().getConfig().getSSLKeyStore() == null || cache.getDistributionManager().getConfig().getSSLKeyStore().length() == 0 ? "No SSL Key Store Defined" : cache.getDistributionManager().getConfig().getSSLKeyStore());
+        out.row("SSL Require Authentication", cache.getDistributionManager().getConfig().getSSLRequireAuthentication());
+        out.row("SSL Endpoint ID Enabled", cache.getDistributionManager().getConfig().getSSLEndPointIdentificationEnabled());
+        out.endTable();
+
+        out.heading(4, "Cache Server HTTP Details");
+        out.table().row("HTTP Service Port", cache.getDistributionManager().getConfig().getHttpServicePort());
+        out.row("HTTP Service Bind Address", cache.getDistributionManager().getConfig().getHttpServiceBindAddress() == null || cache.getDistributionManager().getConfig().getHttpServiceBindAddress().length() == 0 ? "No Http Service Bind Address Defined" : cache.getDistributionManager().getConfig().getHttpServiceBindAddress());
+        out.endTable();
+
+        out.heading(4, "Cache Server Thread Details");
+        out.table().row("Thread Monitor Enabled", cache.getDistributionManager().getConfig().getThreadMonitorEnabled());
+        out.row("Thread Monitor Time Limit", cache.getDistributionManager().getConfig().getThreadMonitorTimeLimit());
+        out.row("Thread Monitor Interval", cache.getDistributionManager().getConfig().getThreadMonitorInterval());
+        out.endTable();
+
+        out.heading(4, "Cache Server Other Properties");
+        out.table().row("Lock Memory Enabled", cache.getDistributionManager().getConfig().getLockMemory());
+        out.row("TCP Port", cache.getDistributionManager().getConfig().getTcpPort());
+        out.row("Disable TCP", cache.getDistributionManager().getConfig().getDisableTcp());
+        out.row("Remote Locators", cache.getDistributionManager().getConfig().getRemoteLocators() == null || cache.getDistributionManager().getConfig().getRemoteLocators().length() == 0 ? "No Remote Locatord Defined" : cache.getDistributionManager().getConfig().getRemoteLocators());
+        out.row("Redundancy Zone", cache.getDistributionManager().getConfig().getRedundancyZone() == null || cache.getDistributionManager().getConfig().getRedundancyZone().length() == 0 ? "No Redundancy Zone Defined" : cache.getDistributionManager().getConfig().getRedundancyZone());
+        out.row("Off Heap Memory Size", cache.getDistributionManager().getConfig().getOffHeapMemorySize() == null || cache.getDistributionManager().getConfig().getOffHeapMemorySize().length() == 0 ? "No Off Heap Memory Defined" : cache.getDistributionManager().getConfig().getOffHeapMemorySize());
+        out.row("Member Timeout", cache.getDistributionManager().getConfig().getMemberTimeout());
+        out.row("Max Reconnect Wait Time ", cache.getDistributionManager().getConfig().getMaxWaitTimeForReconnect());
+        out.row("Max Reconnect Number Retries", cache.getDistributionManager().getConfig().getMaxNumReconnectTries());
+        out.row("Locator Wait Time", cache.getDistributionManager().getConfig().getLocatorWaitTime());
+        out.row("Enforce Unique Host", cache.getDistributionManager().getConfig().getEnforceUniqueHost());
+        out.row("Network Partition Detection", cache.getDistributionManager().getConfig().getEnableNetworkPartitionDetection());
+        out.row("Disable Auto Reconnect", cache.getDistributionManager().getConfig().getDisableAutoReconnect());
+        out.row("Conserve Sockets", cache.getDistributionManager().getConfig().getConserveSockets());
+        out.row("Ack Wait Threshold", cache.getDistributionManager().getConfig().getAckWaitThreshold());
+        out.row("Ack Severe Alert Threshold", cache.getDistributionManager().getConfig().getAckSevereAlertThreshold());
+        out.row("Enable Cluster Configuration", cache.getDistributionManager().getConfig().getEnableClusterConfiguration());
+        out.row("Enable Management REST Service", cache.getDistributionManager().getConfig().getEnableManagementRestService());
         int[] ports = cache.getDistributionManager().getConfig().getMembershipPortRange();
-        sb.append("<tr><td>").append("Membership Port Range").append("</td><td>").append(ports[0]).append("-").append(ports[1]).append("</td></tr>");
-        sb.append("<tr><td>").append("Post Processor").append("</td><td>").append(cache.getDistributionManager().getConfig().getPostProcessor() == null || cache.getDistributionManager().getConfig().getPostProcessor().length() == 0 ? "No Post processor Defined" : cache.getDistributionManager().getConfig().getPostProcessor()).append("</td></tr>");
-        sb.append("<tr><td>").append("Lock Memory Enabled").append("</td><td>").append(cache.getDistributionManager().getConfig().getLockMemory()).append("</td></tr>");
-        sb.append("<tr><td>").append("TCP Port").append("</td><td>").append(cache.getDistributionManager().getConfig().getTcpPort()).append("</td></tr>");
-        sb.append("<tr><td>").append("Disable TCP").append("</td><td>").append(cache.getDistributionManager().getConfig().getDisableTcp()).append("</td></tr>");
-        sb.append("<tr><td>").append("Cache XML File Location").append("</td><td>").append(cache.getInternalDistributedSystem().getConfig().getCacheXmlFile() == null ? "No Cache XML File Defined" : cache.getInternalDistributedSystem().getConfig().getCacheXmlFile().getAbsolutePath()).append("</td></tr>");
-        sb.append("<tr><td>").append("Spring XML File Location").append("</td><td>").append(serverLauncher.getSpringXmlLocation() == null ? "No Spring XML File Defined" : serverLauncher.getSpringXmlLocation()).append("</td></tr>");
-        sb.append("<tr><td>").append("Initializer").append("</td><td>").append(cache.getInitializer() == null ? "No Initializer Defined" : cache.getInitializer().getClass().getName()).append("</td></tr>");
-        sb.append("</table>");
-
-        sb.append("<h4><b>").append("Cache Server Mcast Details").append("</b></h4>");
-        sb.append("<table><tr><td>").append("Mcast Port").append("</td><td>").append(cache.getDistributionManager().getConfig().getMcastPort()).append("</td></tr>");
-        sb.append("<tr><td>").append("Mcast Address").append("</td><td>").append(cache.getDistributionManager().getConfig().getMcastAddress()).append("</td></tr>");
-        sb.append("<tr><td>").append("Mcast Flow Control").append("</td><td>").append(cache.getDistributionManager().getConfig().getMcastFlowControl()).append("</td></tr>");
-        sb.append("<tr><td>").append("Mcast Receive Buffer Size").append("</td><td>").append(cache.getDistributionManager().getConfig().getMcastRecvBufferSize()).append("</td></tr>");
-        sb.append("<tr><td>").append("Mcast Send Buffer Size").append("</td><td>").append(cache.getDistributionManager().getConfig().getMcastSendBufferSize()).append("</td></tr>");
-        sb.append("<tr><td>").append("Mcast TTL").append("</td><td>").append(cache.getDistributionManager().getConfig().getMcastTtl()).append("</td></tr>");
-        sb.append("</table>");
-
-        sb.append("<h4><b>").append("Cache Server Memcached Details").append("</b></h4>");
-        sb.append("<table><tr><td>").append("Memcached Bind Address").append("</td><td>").append(cache.getDistributionManager().getConfig().getMemcachedBindAddress() == null || cache.getDistributionManager().getConfig().getMemcachedBindAddress().length() == 0 ? "No Memcached Bind Address Defined" : cache.getDistributionManager().getConfig().getMemcachedBindAddress()).append("</td></tr>");
-        sb.append("<tr><td>").append("Memcached Port").append("</td><td>").append(cache.getDistributionManager().getConfig().getMemcachedPort()).append("</td></tr>");
-        sb.append("<tr><td>").append("Memcached Protocol").append("</td><td>").append(cache.getDistributionManager().getConfig().getMemcachedProtocol()).append("</td></tr>");
-        sb.append("</table>");
+        out.row("Membership Port Range", String.valueOf(ports[0]) + "-" + ports[1]);
+        out.row("Post Processor", cache.getDistributionManager().getConfig().getPostProcessor() == null || cache.getDistributionManager().getConfig().getPostProcessor().length() == 0 ? "No Post processor Defined" : cache.getDistributionManager().getConfig().getPostProcessor());
+        out.row("Lock Memory Enabled", cache.getDistributionManager().getConfig().getLockMemory());
+        out.row("TCP Port", cache.getDistributionManager().getConfig().getTcpPort());
+        out.row("Disable TCP", cache.getDistributionManager().getConfig().getDisableTcp());
+        out.row("Cache XML File Location", cache.getInternalDistributedSystem().getConfig().getCacheXmlFile() == null ? "No Cache XML File Defined" : cache.getInternalDistributedSystem().getConfig().getCacheXmlFile().getAbsolutePath());
+        out.row("Spring XML File Location", serverLauncher.getSpringXmlLocation() == null ? "No Spring XML File Defined" : serverLauncher.getSpringXmlLocation());
+        out.row("Initializer", cache.getInitializer() == null ? "No Initializer Defined" : cache.getInitializer().getClass().getName());
+        out.endTable();
+
+        out.heading(4, "Cache Server Mcast Details");
+        out.table().row("Mcast Port", cache.getDistributionManager().getConfig().getMcastPort());
+        out.row("Mcast Address", cache.getDistributionManager().getConfig().getMcastAddress());
+        out.row("Mcast Flow Control", cache.getDistributionManager().getConfig().getMcastFlowControl());
+        out.row("Mcast Receive Buffer Size", cache.getDistributionManager().getConfig().getMcastRecvBufferSize());
+        out.row("Mcast Send Buffer Size", cache.getDistributionManager().getConfig().getMcastSendBufferSize());
+        out.row("Mcast TTL", cache.getDistributionManager().getConfig().getMcastTtl());
+        out.endTable();
+
+        out.heading(4, "Cache Server Memcached Details");
+        out.table().row("Memcached Bind Address", cache.getDistributionManager().getConfig().getMemcachedBindAddress() == null || cache.getDistributionManager().getConfig().getMemcachedBindAddress().length() == 0 ? "No Memcached Bind Address Defined" : cache.getDistributionManager().getConfig().getMemcachedBindAddress());
+        out.row("Memcached Port", cache.getDistributionManager().getConfig().getMemcachedPort());
+        out.row("Memcached Protocol", cache.getDistributionManager().getConfig().getMemcachedProtocol());
+        out.endTable();
     }
 
-    private void processGroups(InternalCache cache, StringBuilder sb, InternalDistributedMember currentMember) {
-        sb.append("<h3><b>").append("Groups").append("</b></h3>");
+    private void processGroups(InternalCache cache, SectionWriter out, InternalDistributedMember currentMember) {
+        out.heading(3, "Groups");
         if (currentMember.getGroups() == null || currentMember.getGroups().size() == 0) {
-            sb.append("<ui>").append("No Groups Defined").append("</ui><br>");
+            out.text("No Groups Defined");
         } else {
-            sb.append("<table><tr><td><b>").append("Group").append("</b></td></tr>");
+            out.table("Group");
             currentMember.getGroups().forEach(grp -> {
-                sb.append("<tr><td>").append(grp).append("</td></tr>");
+                out.row(grp);
             });
-            sb.append("</table>");
+            out.endTable();
         }
     }
 
-    private void processJVM(InternalCache cache, StringBuilder sb, HashMap<String, String> sysctl) {
+    private void processJVM(InternalCache cache, SectionWriter out, HashMap<String, String> sysctl) {
         RuntimeMXBean runtimeMxBean = ManagementFactory.getRuntimeMXBean();
-        sb.append("<h3><b>").append("JVM Class Path").append("</b></h3>");
+        out.heading(3, "JVM Class Path");
 
         String[] classPaths = runtimeMxBean.getClassPath().split(":");
-        Arrays.stream(classPaths).sequential().forEach(classPath -> sb.append("<ui>").append(classPath).append("</ui><br>"));
+        Arrays.stream(classPaths).sequential().forEach(classPath -> out.text(classPath));
 
-        sb.append("<h3><b>").append("JVM Properties").append("</b></h3>");
+        out.heading(3, "JVM Properties");
         List<String> arguments = runtimeMxBean.getInputArguments();
-        arguments.forEach(arg -> sb.append("<ui>").append(arg).append("</ui>").append("<br>"));
+        arguments.forEach(arg -> out.text(arg));
 
-        sb.append("<h3><b>").append("System/User Limits").append("</b></h3>");
+        out.heading(3, "System/User Limits");
         try {
             List<String> lines = Files.readAllLines(Paths.get("/etc/security/limits.conf"));
             lines.forEach(line -> {
                 if (!line.startsWith("#")) {
-                    sb.append("<ui>").append(line).append("</ui>").append("<br>");
+                    out.text(line);
                 }
             });
         } catch (IOException e) {
-            sb.append("<ui>").append("Limits Not Found").append("</ui>").append("<br>");
+            out.text("Limits Not Found");
         }
 
-        sb.append("<h3><b>").append("System Configuration").append("</b></h3>");
+        out.heading(3, "System Configuration");
         sysctl.forEach((k,v) -> {
             try {
                 String line = Files.readString(Paths.get(v));
-                sb.append("<ui>").append(k + ": ").append(line).append("</ui>").append("<br>");
+                out.text(String.valueOf(k + ": ") + line);
             } catch (IOException e) {
-                sb.append("<ui>").append(k + " property not found").append("</ui>").append("<br>");
+                out.text(k + " property not found");
             }
         });
     }
 
-    private void processCacheServices(InternalCache cache, StringBuilder sb) {
-        sb.append("<h3><b>").append("Cache Services").append("</b></h3>");
+    private void processCacheServices(InternalCache cache, SectionWriter out) {
+        out.heading(3, "Cache Services");
         Collection<CacheService> services = cache.getServices();
         if (services != null ) {
-            sb.append("<table><tr><td><b>").append("Service").append("</b></td></tr>");
+            out.table("Service");
             if (services != null) {
-                services.forEach(service -> sb.append("<tr><td>").append(service.getClass().getName()).append("</td></tr>"));
+                services.forEach(service -> out.row(service.getClass().getName()));
             } else {
-                sb.append("<tr><td>").append("No Cache Services Defined").append("</td></tr>");
+                out.row("No Cache Services Defined");
             }
-            sb.append("</table>");
+            out.endTable();
         } else {
-            sb.append("<ui>").append("No Cache Services Defined").append("</ui><br>");
+            out.text("No Cache Services Defined");
         }
     }
 
-    private void processSecurity(InternalCache cache, StringBuilder sb) {
-        sb.append("<h3><b>").append("Security Service").append("</b></h3>");
-        sb.append("<table><tr><td><b>").append("Service").append("</b></td></tr>");
+    private void processSecurity(InternalCache cache, SectionWriter out) {
+        out.heading(3, "Security Service");
+        out.table("Service");
         if (cache.getSecurityService() == null) {
-            sb.append("<tr><td>").append("No Security Service Defined").append("</td></tr></table>");
+            out.row("No Security Service Defined").endTable();
         } else {
-            sb.append("<tr><td>").append(cache.getSecurityService().getClass().getName()).append("</td></tr></table>");
+            out.row(cache.getSecurityService().getClass().getName()).endTable();
         }
 
         // security properties
-        sb.append("<h3><b>").append("Security Properties").append("</b></h3>");
+        out.heading(3, "Security Properties");
         if (cache.getInternalDistributedSystem().getSecurityProperties() == null || cache.getInternalDistributedSystem().getSecurityProperties().isEmpty()) {
-            sb.append("<ui>").append("No Security Properties Defined").append("</ui><br>");
+            out.text("No Security Properties Defined");
         } else {
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
+            out.table("Property", "Value");
             cache.getInternalDistributedSystem().getSecurityProperties().forEach((k, v) -> {
-                sb.append("<tr><td>").append(k == null ? "Not Defined" : k).append("</td><td>").append(v).append("</td></tr>");
+                out.row(k == null ? "Not Defined" : k, v);
             });
-            sb.append("</table>");
+            out.endTable();
         }
     }
 
-    private void processSpringXml(InternalCache cache, StringBuilder sb, ServerLauncher serverLauncher) {
-        sb.append("<h3><b>").append("Spring XML File - Distributed System").append("</b></h3>");
+    private void processSpringXml(InternalCache cache, SectionWriter out, ServerLauncher serverLauncher) {
+        out.heading(3, "Spring XML File - Distributed System");
         if (serverLauncher.getSpringXmlLocation() != null) {
             File springXml = new File(serverLauncher.getSpringXmlLocation());
             if (springXml.exists()) {
-                sb.append("<h3><b>").append("Spring XML File - Distributed System").append("</b></h3>");
+                out.heading(3, "Spring XML File - Distributed System");
                 try {
                     List<String> xmlFileLines = Files.readAllLines(springXml.toPath());
                     xmlFileLines.forEach(line -> {
-                        sb.append("<ui>").append(line).append("</ui><br>");
+                        out.text(line);
                     });
                 } catch (IOException ex) {
                     log.warn("Unable to process Spring XML File", ex);
-                    sb.append("<ui>").append("Unable to process Spring XML File").append("</ui><br>");
+                    out.text("Unable to process Spring XML File");
                 }
             }
         } else {
-            sb.append("<ui>").append("No Spring XML File Defined").append("</ui><br>");
+            out.text("No Spring XML File Defined");
         }
 
     }
 
-    private void processCacheXml(InternalCache cache, StringBuilder sb) {
-        sb.append("<h3><b>").append("Cache XML File - Distributed System").append("</b></h3>");
+    private void processCacheXml(InternalCache cache, SectionWriter out) {
+        out.heading(3, "Cache XML File - Distributed System");
         if (cache.getInternalDistributedSystem().getConfig().getCacheXmlFile() != null &&
                 cache.getInternalDistributedSystem().getConfig().getCacheXmlFile().exists()) {
             try {
                 List<String> xmlFileLines = Files.readAllLines(cache.getInternalDistributedSystem().getConfig().getCacheXmlFile().toPath());
                 xmlFileLines.forEach(line -> {
-                    sb.append("<ui>").append(line).append("</ui><br>");
+                    out.text(line);
                 });
             } catch (IOException ex) {
                 log.warn("Unable to process Cache XML File", ex);
-                sb.append("<ui>").append("Unable to process Cache XML File").append("</ui><br>");
+                out.text("Unable to process Cache XML File");
             }
         } else {
-            sb.append("<ui>").append("No Cache XML File Defined").append("</ui><br>");
+            out.text("No Cache XML File Defined");
         }
     }
 
-    private void processMeters(InternalCache cache, StringBuilder sb) {
-        sb.append("<h3><b>").append("Meter Registry").append("</b></h3>");
+    private void processMeters(InternalCache cache, SectionWriter out) {
+        out.heading(3, "Meter Registry");
         if (cache.getMeterRegistry() != null && !cache.getMeterRegistry().getMeters().isEmpty())  {
-            sb.append("<table><tr><td><b>").append("Meter Name").append("</b></td><td><b>").append("Value").append("</b></td><td><b>")
-                    .append("Type").append("</b></td></tr>");
+            out.table("Meter Name", "Value", "Type");
             CompositeMeterRegistry cmr = (CompositeMeterRegistry) cache.getMeterRegistry();
             if (cmr.getRegistries() != null && cmr.getRegistries().isEmpty()) {
                 List<String> meters = new ArrayList<>();
@@ -453,9 +538,7 @@ public class Capture implements Function {
                     if (!meters.contains(meter.getId().getName())) {
                         meters.add(meter.getId().getName());
                         log.debug("Meter name: {}, type {}", meter.getId().getName(), meter.getId().getType());
-                        sb.append("<tr><td>").append(meter.getId().getName()).append("</td>");
-                        sb.append("<td>").append(meter.getId().getDescription()).append("</td>");
-                        sb.append("<td>").append(meter.getId().getType()).append("</td></tr>");
+                        out.row(meter.getId().getName(), meter.getId().getDescription(), meter.getId().getType());
                     }
                 });
             } else {
@@ -466,576 +549,524 @@ public class Capture implements Function {
                         if (!meters.contains(meter.getId().getName())) {
                             meters.add(meter.getId().getName());
                             log.debug("Meter name: {}, type {}", meter.getId().getName(), meter.getId().getType());
-                            sb.append("<tr><td>").append(meter.getId().getName()).append("</td>");
-                            sb.append("<td>").append(meter.getId().getDescription()).append("</td>");
-                            sb.append("<td>").append(meter.getId().getType()).append("</td></tr>");
+                            out.row(meter.getId().getName(), meter.getId().getDescription(), meter.getId().getType());
                         }
                     });
                 });
             }
-            sb.append("</table>");
+            out.endTable();
         } else {
-            sb.append("<ui>").append("No Registered Meters Defined").append("</ui><br>");
+            out.text("No Registered Meters Defined");
         }
     }
 
-    private void processProperties(InternalCache cache, StringBuilder sb) {
-        sb.append("<h3><b>").append("Properties - Distributed System").append("</b></h3>");
-        sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
+    private void processProperties(InternalCache cache, SectionWriter out) {
+        out.heading(3, "Properties - Distributed System");
+        out.table("Property", "Value");
 
         cache.getInternalDistributedSystem().getProperties().forEach((k, v) -> {
-            sb.append("<tr><td>").append(k).append("</td><td>").append(v).append("</td></tr>");
+            out.row(k, v);
         });
 
-        sb.append("<tr><td>").append("DistributionManager.MAX.THREADS").append("</td><td>").append(System.getProperty("DistributionManager.MAX_THREADS") == null ? OperationExecutors.MAX_THREADS : System.getProperty("DistributionManager.MAX_THREADS")).append("</td></tr>");
-        sb.append("<tr><td>").append("DistributionManager.MAX_FE_THREADS").append("</td><td>").append(System.getProperty("DistributionManager.MAX_FE_THREADS") == null ? OperationExecutors.MAX_FE_THREADS : System.getProperty("DistributionManager.MAX_FE_THREADS")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.EXPIRY_THREADS").append("</td><td>").append(System.getProperty("gemfire.EXPIRY_THREADS") == null ? "No Expiry Threads Defined" : System.getProperty("gemfire.EXPIRY_THREADS")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.non-replicated-tombstone-timeout").append("</td><td>").append(System.getProperty("gemfire.non-replicated-tombstone-timeout") == null ? TombstoneService.NON_REPLICATE_TOMBSTONE_TIMEOUT_DEFAULT : System.getProperty("gemfire.non-replicated-tombstone-timeout")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.tombstone-gc-threshold").append("</td><td>").append(System.getProperty("gemfire.tombstone-gc-threshold") == null ? TombstoneService.GC_MEMORY_THRESHOLD : System.getProperty("gemfire.tombstone-gc-threshold")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.tombstone-scan-interval").append("</td><td>").append(System.getProperty("gemfire.tombstone-scan-interval") == null ? TombstoneService.DEFUNCT_TOMBSTONE_SCAN_INTERVAL_DEFAULT : System.getProperty("gemfire.tombstone-scan-interval")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.tombstone-gc-memory-threshold").append("</td><td>").append(System.getProperty("gemfire.tombstone-gc-memory-threshold") == null ? TombstoneService.GC_MEMORY_THRESHOLD_DEFAULT : System.getProperty("gemfire.tombstone-gc-memory-threshold")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.Cache.EVENT_THREAD_LIMIT").append("</td><td>").append(System.getProperty("gemfire.Cache.EVENT_THREAD_LIMIT") == null ? "16" : System.getProperty("gemfire.Cache.EVENT_THREAD_LIMIT")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.Cache.EVENT_QUEUE_LIMIT").append("</td><td>").append(System.getProperty("gemfire.Cache.EVENT_QUEUE_LIMIT") == null ? "4096" : System.getProperty("gemfire.Cache.EVENT_QUEUE_LIMIT")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.ALLOW_PERSISTENT_TRANSACTIONS").append("</td><td>").append(System.getProperty("gemfire.ALLOW_PERSISTENT_TRANSACTIONS") == null ? TXManagerImpl.ALLOW_PERSISTENT_TRANSACTIONS : System.getProperty("gemfire.ALLOW_PERSISTENT_TRANSACTIONS")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.transactionFailoverMapSize").append("</td><td>").append(System.getProperty("gemfire.transactionFailoverMapSize") == null ? TXManagerImpl.FAILOVER_TX_MAP_SIZE : System.getProperty("gemfire.transactionFailoverMapSize")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.DEFAULT_MAX_OPLOG_SIZE").append("</td><td>").append(System.getProperty("gemfire.DEFAULT_MAX_OPLOG_SIZE") == null ? DiskWriteAttributesImpl.getDefaultMaxOplogSize() : System.getProperty("gemfire.DEFAULT_MAX_OPLOG_SIZE")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.MAX_OPEN_INACTIVE_OPLOGS").append("</td><td>").append(System.getProperty("gemfire.MAX_OPEN_INACTIVE_OPLOGS") == null ? DiskStoreImpl.MAX_OPEN_INACTIVE_OPLOGS : System.getProperty("gemfire.MAX_OPEN_INACTIVE_OPLOGS")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.MIN_DISK_SPACE_FOR_LOGS").append("</td><td>").append(System.getProperty("gemfire.MIN_DISK_SPACE_FOR_LOGS") == null ? DiskStoreImpl.MIN_DISK_SPACE_FOR_LOGS : System.getProperty("gemfire.MIN_DISK_SPACE_FOR_LOGS")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.OVERFLOW_ROLL_PERCENTAGE").append("</td><td>").append(System.getProperty("gemfire.OVERFLOW_ROLL_PERCENTAGE") == null ? "50%" : System.getProperty("gemfire.OVERFLOW_ROLL_PERCENTAGE")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.SHUTDOWN_ALL_POOL_SIZE").append("</td><td>").append(System.getProperty("gemfire.SHUTDOWN_ALL_POOL_SIZE") == null ? "-1" : System.getProperty("gemfire.SHUTDOWN_ALL_POOL_SIZE")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.Cache.MAX_QUERY_EXECUTION_TIME").append("</td><td>").append(System.getProperty("gemfire.Cache.MAX_QUERY_EXECUTION_TIME") == null ? GemFireCacheImpl.MAX_QUERY_EXECUTION_TIME : System.getProperty("gemfire.Cache.MAX_QUERY_EXECUTION_TIME")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.bridge.suppressIOExceptionLogging").append("</td><td>").append(System.getProperty("gemfire.bridge.suppressIOExceptionLogging") == null ? "false" : System.getProperty("gemfire.bridge.suppressIOExceptionLogging")).append("</td></tr>");
-        sb.append("<tr><td>").append("gemfire.Query.VERBOSE").append("</td><td>").append(System.getProperty("gemfire.Query.VERBOSE") == null ? DefaultQuery.QUERY_VERBOSE : System.getProperty("gemfire.Query.VERBOSE")).append("</td></tr>");
-        sb.append("<tr><td>").append("p2p.backlog").append("</td><td>").append(System.getProperty("p2p.backlog") == null ? 1280 : System.getProperty("p2p.backlog")).append("</td></tr>");
-        sb.append("<tr><td>").append("p2p.listenerCloseTimeout").append("</td><td>").append(System.getProperty("p2p.listenerCloseTimeout") == null ? 60000 : System.getProperty("p2p.listenerCloseTimeout")).append("</td></tr>");
-        sb.append("</table>");
+        out.row("DistributionManager.MAX.THREADS", System.getProperty("DistributionManager.MAX_THREADS") == null ? OperationExecutors.MAX_THREADS : System.getProperty("DistributionManager.MAX_THREADS"));
+        out.row("DistributionManager.MAX_FE_THREADS", System.getProperty("DistributionManager.MAX_FE_THREADS") == null ? OperationExecutors.MAX_FE_THREADS : System.getProperty("DistributionManager.MAX_FE_THREADS"));
+        out.row("gemfire.EXPIRY_THREADS", System.getProperty("gemfire.EXPIRY_THREADS") == null ? "No Expiry Threads Defined" : System.getProperty("gemfire.EXPIRY_THREADS"));
+        out.row("gemfire.non-replicated-tombstone-timeout", System.getProperty("gemfire.non-replicated-tombstone-timeout") == null ? TombstoneService.NON_REPLICATE_TOMBSTONE_TIMEOUT_DEFAULT : System.getProperty("gemfire.non-replicated-tombstone-timeout"));
+        out.row("gemfire.tombstone-gc-threshold", System.getProperty("gemfire.tombstone-gc-threshold") == null ? TombstoneService.GC_MEMORY_THRESHOLD : System.getProperty("gemfire.tombstone-gc-threshold"));
+        out.row("gemfire.tombstone-scan-interval", System.getProperty("gemfire.tombstone-scan-interval") == null ? TombstoneService.DEFUNCT_TOMBSTONE_SCAN_INTERVAL_DEFAULT : System.getProperty("gemfire.tombstone-scan-interval"));
+        out.row("gemfire.tombstone-gc-memory-threshold", System.getProperty("gemfire.tombstone-gc-memory-threshold") == null ? TombstoneService.GC_MEMORY_THRESHOLD_DEFAULT : System.getProperty("gemfire.tombstone-gc-memory-threshold"));
+        out.row("gemfire.Cache.EVENT_THREAD_LIMIT", System.getProperty("gemfire.Cache.EVENT_THREAD_LIMIT") == null ? "16" : System.getProperty("gemfire.Cache.EVENT_THREAD_LIMIT"));
+        out.row("gemfire.Cache.EVENT_QUEUE_LIMIT", System.getProperty("gemfire.Cache.EVENT_QUEUE_LIMIT") == null ? "4096" : System.getProperty("gemfire.Cache.EVENT_QUEUE_LIMIT"));
+        out.row("gemfire.ALLOW_PERSISTENT_TRANSACTIONS", System.getProperty("gemfire.ALLOW_PERSISTENT_TRANSACTIONS") == null ? TXManagerImpl.ALLOW_PERSISTENT_TRANSACTIONS : System.getProperty("gemfire.ALLOW_PERSISTENT_TRANSACTIONS"));
+        out.row("gemfire.transactionFailoverMapSize", System.getProperty("gemfire.transactionFailoverMapSize") == null ? TXManagerImpl.FAILOVER_TX_MAP_SIZE : System.getProperty("gemfire.transactionFailoverMapSize"));
+        out.row("gemfire.DEFAULT_MAX_OPLOG_SIZE", System.getProperty("gemfire.DEFAULT_MAX_OPLOG_SIZE") == null ? DiskWriteAttributesImpl.getDefaultMaxOplogSize() : System.getProperty("gemfire.DEFAULT_MAX_OPLOG_SIZE"));
+        out.row("gemfire.MAX_OPEN_INACTIVE_OPLOGS", System.getProperty("gemfire.MAX_OPEN_INACTIVE_OPLOGS") == null ? DiskStoreImpl.MAX_OPEN_INACTIVE_OPLOGS : System.getProperty("gemfire.MAX_OPEN_INACTIVE_OPLOGS"));
+        out.row("gemfire.MIN_DISK_SPACE_FOR_LOGS", System.getProperty("gemfire.MIN_DISK_SPACE_FOR_LOGS") == null ? DiskStoreImpl.MIN_DISK_SPACE_FOR_LOGS : System.getProperty("gemfire.MIN_DISK_SPACE_FOR_LOGS"));
+        out.row("gemfire.OVERFLOW_ROLL_PERCENTAGE", System.getProperty("gemfire.OVERFLOW_ROLL_PERCENTAGE") == null ? "50%" : System.getProperty("gemfire.OVERFLOW_ROLL_PERCENTAGE"));
+        out.row("gemfire.SHUTDOWN_ALL_POOL_SIZE", System.getProperty("gemfire.SHUTDOWN_ALL_POOL_SIZE") == null ? "-1" : System.getProperty("gemfire.SHUTDOWN_ALL_POOL_SIZE"));
+        out.row("gemfire.Cache.MAX_QUERY_EXECUTION_TIME", System.getProperty("gemfire.Cache.MAX_QUERY_EXECUTION_TIME") == null ? GemFireCacheImpl.MAX_QUERY_EXECUTION_TIME : System.getProperty("gemfire.Cache.MAX_QUERY_EXECUTION_TIME"));
+        out.row("gemfire.bridge.suppressIOExceptionLogging", System.getProperty("gemfire.bridge.suppressIOExceptionLogging") == null ? "false" : System.getProperty("gemfire.bridge.suppressIOExceptionLogging"));
+        out.row("gemfire.Query.VERBOSE", System.getProperty("gemfire.Query.VERBOSE") == null ? DefaultQuery.QUERY_VERBOSE : System.getProperty("gemfire.Query.VERBOSE"));
+        out.row("p2p.backlog", System.getProperty("p2p.backlog") == null ? 1280 : System.getProperty("p2p.backlog"));
+        out.row("p2p.listenerCloseTimeout", System.getProperty("p2p.listenerCloseTimeout") == null ? 60000 : System.getProperty("p2p.listenerCloseTimeout"));
+        out.endTable();
     }
 
-    private void processBackup(InternalCache cache, StringBuilder sb) {
-        sb.append("<h3><b>").append("Backup").append("</b></h3>");
+    private void processBackup(InternalCache cache, SectionWriter out) {
+        out.heading(3, "Backup");
         if (cache.getBackupService() == null) {
-            sb.append("<ui>").append("No Backup Service Defined").append("</ui>").append("<br>");
+            out.text("No Backup Service Defined");
             return;
         }
-        sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-        sb.append("<tr><td>").append("Service Name").append("</td><td>").append(cache.getBackupService().getClass().getName()).append("</td></tr>");
-        sb.append("<tr><td>").append("Files").append("</td><td>");
-        if (cache.getBackupFiles() == null || cache.getBackupFiles().isEmpty()) {
-            sb.append("No Backup Files Defined").append("</td></tr>");
-        } else {
-            for (int i = 0; i < cache.getBackupFiles().size(); i++) {
-                if (i == 0) {
-                    sb.append(cache.getBackupFiles().get(i).getClass().getName()).append("</td></tr>");
-                } else {
-                    sb.append("<tr><td>").append("").append("</td><td>").append(cache.getBackupFiles().get(i).getClass().getName()).append("</td></tr>");
-                }
-            }
-        }
-        sb.append("</table>");
+        out.table("Property", "Value");
+        out.row("Service Name", cache.getBackupService().getClass().getName());
+        listRows(out, "Files", classNames(cache.getBackupFiles()), "No Backup Files Defined");
+        out.endTable();
     }
 
-    private void processTxMgr(InternalCache cache, StringBuilder sb) {
-        sb.append("<h3><b>").append("Transaction Manager").append("</b></h3>");
+    private void processTxMgr(InternalCache cache, SectionWriter out) {
+        out.heading(3, "Transaction Manager");
         if (cache.getTxManager() == null) {
-            sb.append("<ui>").append("No Transaction Manager Defined").append("</ui>").append("<br>");
+            out.text("No Transaction Manager Defined");
             return;
         }
-        sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-        sb.append("<tr><td>").append("TX Manager Name").append("</td><td>").append(cache.getTxManager().getClass().getName()).append("</td></tr>");
-        sb.append("<tr><td>").append("Writer Name").append("</td><td>").append(cache.getTxManager().getWriter() == null ? "No Transaction Writer Defined" : cache.getTxManager().getWriter().getClass().getName()).append("</td></tr>");
-        sb.append("<tr><td>").append("Listener Name").append("</td><td>").append(cache.getTxManager().getListener() == null ? "No Transaction Listener Defined" : cache.getTxManager().getListener().getClass().getName()).append("</td></tr>");
-        sb.append("<tr><td>").append("Transaction Time To Live").append("</td><td>").append(cache.getTxManager().getTransactionTimeToLive()).append("</td></tr>");
-        sb.append("<tr><td>").append("Suspend Transaction Timeout").append("</td><td>").append(cache.getTxManager().getSuspendedTransactionTimeout()).append("</td></tr></table>");
+        out.table("Property", "Value");
+        out.row("TX Manager Name", cache.getTxManager().getClass().getName());
+        out.row("Writer Name", cache.getTxManager().getWriter() == null ? "No Transaction Writer Defined" : cache.getTxManager().getWriter().getClass().getName());
+        out.row("Listener Name", cache.getTxManager().getListener() == null ? "No Transaction Listener Defined" : cache.getTxManager().getListener().getClass().getName());
+        out.row("Transaction Time To Live", cache.getTxManager().getTransactionTimeToLive());
+        out.row("Suspend Transaction Timeout", cache.getTxManager().getSuspendedTransactionTimeout()).endTable();
     }
 
-    private void processPdx(InternalCache cache, StringBuilder sb) {
-        sb.append("<h3><b>").append("PDX").append("</b></h3>");
+    private void processPdx(InternalCache cache, SectionWriter out) {
+        out.heading(3, "PDX");
         if (cache.getPdxSerializer() == null) {
-            sb.append("<ui>").append("No PDX Serializer Defined").append("</ui>").append("<br>");
+            out.text("No PDX Serializer Defined");
             return;
         }
-        sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-        sb.append("<tr><td>").append("Persistent").append("</td><td>").append(cache.getPdxPersistent()).append("</td></tr>");
-        sb.append("<tr><td>").append("PDX Disk Store Name").append("</td><td>").append(cache.getPdxDiskStore()).append("</td></tr>");
-        sb.append("<tr><td>").append("Read Serialized").append("</td><td>").append(cache.getPdxReadSerialized()).append("</td></tr>");
-        sb.append("<tr><td>").append("Ignore Unread Fields").append("</td><td>").append(cache.getPdxIgnoreUnreadFields()).append("</td></tr>");
-        sb.append("<tr><td>").append("Serializer Name").append("</td><td>").append(cache.getPdxSerializer().getClass().getName()).append("</td></tr></table>");
+        out.table("Property", "Value");
+        out.row("Persistent", cache.getPdxPersistent());
+        out.row("PDX Disk Store Name", cache.getPdxDiskStore());
+        out.row("Read Serialized", cache.getPdxReadSerialized());
+        out.row("Ignore Unread Fields", cache.getPdxIgnoreUnreadFields());
+        out.row("Serializer Name", cache.getPdxSerializer().getClass().getName()).endTable();
     }
 
-    private void processResourceManager(InternalCache cache, StringBuilder sb) {
-        sb.append("<h3><b>").append("Resource Manager").append("</b></h3>");
+    private void processResourceManager(InternalCache cache, SectionWriter out) {
+        out.heading(3, "Resource Manager");
         ResourceManager rm = cache.getResourceManager();
-        sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-        sb.append("<tr><td>").append("EvictionHeapPercent").append("</td><td>").append(rm.getEvictionHeapPercentage()).append("</td></tr>");
-        sb.append("<tr><td>").append("CriticalHeapPercent").append("</td><td>").append(rm.getCriticalHeapPercentage()).append("</td></tr>");
-        sb.append("<tr><td>").append("EvictionOffHeapPercent").append("</td><td>").append(rm.getEvictionOffHeapPercentage()).append("</td></tr>");
-        sb.append("<tr><td>").append("CriticalOffHeapPercent").append("</td><td>").append(rm.getCriticalOffHeapPercentage()).append("</td></tr></table>");
+        out.table("Property", "Value");
+        out.row("EvictionHeapPercent", rm.getEvictionHeapPercentage());
+        out.row("CriticalHeapPercent", rm.getCriticalHeapPercentage());
+        out.row("EvictionOffHeapPercent", rm.getEvictionOffHeapPercentage());
+        out.row("CriticalOffHeapPercent", rm.getCriticalOffHeapPercentage()).endTable();
     }
 
-    private void processAsync(InternalCache cache, StringBuilder sb) {
-        sb.append("<h3><b>").append("Async Event Queues").append("</b></h3>");
+    private void processAsync(InternalCache cache, SectionWriter out) {
+        out.heading(3, "Async Event Queues");
         if (cache.getAsyncEventQueues() == null || cache.getAsyncEventQueues().isEmpty()) {
-            sb.append("<ui>").append("No Async Event Queues Defined").append("</ui>").append("<br>");
+            out.text("No Async Event Queues Defined");
         } else {
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
+            out.table("Property", "Value");
             cache.getAsyncEventQueues().forEach(queue -> {
-                sb.append("<tr><td>").append("Id").append("</td><td>").append(queue.getId()).append("</td></tr>");
-                sb.append("<tr><td>").append("Persistent").append("</td><td>").append(queue.isPersistent()).append("</td></tr>");
-                sb.append("<tr><td>").append("Queue Disk Store Name").append("</td><td>").append(queue.getDiskStoreName()).append("</td></tr>");
-                sb.append("<tr><td>").append("Batch Size").append("</td><td>").append(queue.getBatchSize()).append("</td></tr>");
-                sb.append("<tr><td>").append("Batch Time Interval").append("</td><td>").append(queue.getBatchTimeInterval()).append("</td></tr>");
-                sb.append("<tr><td>").append("Dispatcher Threads").append("</td><td>").append(queue.getDispatcherThreads()).append("</td></tr>");
-                sb.append("<tr><td>").append("Maximum Queue Memory").append("</td><td>").append(queue.getMaximumQueueMemory()).append("</td></tr>");
-                sb.append("<tr><td>").append("Order Policy").append("</td><td>").append(queue.getOrderPolicy()).append("</td></tr>");
-                sb.append("<tr><td>").append("Batch Conflation Enabled").append("</td><td>").append(queue.isBatchConflationEnabled()).append("</td></tr>");
-                sb.append("<tr><td>").append("Parallel").append("</td><td>").append(queue.isParallel()).append("</td></tr>");
-                sb.append("<tr><td>").append("Async Event Listener").append("</td><td>").append(queue.getAsyncEventListener().getClass().getName()).append("</td></tr>");
+                out.row("Id", queue.getId());
+                out.row("Persistent", queue.isPersistent());
+                out.row("Queue Disk Store Name", queue.getDiskStoreName());
+                out.row("Batch Size", queue.getBatchSize());
+                out.row("Batch Time Interval", queue.getBatchTimeInterval());
+                out.row("Dispatcher Threads", queue.getDispatcherThreads());
+                out.row("Maximum Queue Memory", queue.getMaximumQueueMemory());
+                out.row("Order Policy", queue.getOrderPolicy());
+                out.row("Batch Conflation Enabled", queue.isBatchConflationEnabled());
+                out.row("Parallel", queue.isParallel());
+                out.row("Async Event Listener", queue.getAsyncEventListener().getClass().getName());
                 if (queue.getGatewayEventSubstitutionFilter() == null) {
-                    sb.append("<tr><td>").append("Async Gateway Event Substitution Filter").append("</td><td>").append("No Event Substitution Filter Defined").append("</td></tr>");
-                } else {
-                    sb.append("<tr><td>").append("Async Gateway Event Substitution Filter").append("</td><td>").append(queue.getGatewayEventSubstitutionFilter().getClass().getName()).append("</td></tr>");
-                }
-                sb.append("<tr><td>").append("Async Gateway Event Filter").append("</td><td>");
-                if (queue.getGatewayEventFilters() == null || queue.getGatewayEventFilters().isEmpty()) {
-                    sb.append("No Gateway Event Filters Defined").append("</td></tr>");
+                    out.row("Async Gateway Event Substitution Filter", "No Event Substitution Filter Defined");
                 } else {
-                    for (int i = 0; i < queue.getGatewayEventFilters().size(); i++) {
-                        if (i == 0) {
-                            sb.append(queue.getGatewayEventFilters().get(i).getClass().getName()).append("</td></tr>");
-                        } else {
-                            sb.append("<tr><td>").append("").append("</td><td>").append(queue.getGatewayEventFilters().get(i).getClass().getName()).append("</td></tr>");
-                        }
-                    }
+                    out.row("Async Gateway Event Substitution Filter", queue.getGatewayEventSubstitutionFilter().getClass().getName());
                 }
-                sb.append("<tr><td><b>").append("--------------").append("</b></td><td><b>").append("--------------").append("</b></td></tr>");
+                listRows(out, "Async Gateway Event Filter", classNames(queue.getGatewayEventFilters()), "No Gateway Event Filters Defined");
+                out.row("--------------", "--------------");
             });
-            sb.append("</table>");
+            out.endTable();
         }
     }
 
-    private void processGatewaySenders(InternalCache cache, StringBuilder sb) {
-        sb.append("<h3><b>").append("Gateway Senders").append("</b></h3>");
+    private void processGatewaySenders(InternalCache cache, SectionWriter out) {
+        out.heading(3, "Gateway Senders");
         if (cache.getAllGatewaySenders() == null || cache.getAllGatewaySenders().isEmpty()) {
-            sb.append("<ui>").append("  No Gateway Senders Defined").append("</ui>").append("<br>");
+            out.text("  No Gateway Senders Defined");
         } else {
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
+            out.table("Property", "Value");
             cache.getGatewaySenders().forEach(sender -> {
                 sender.getRemoteDSId();
                 sender.getEnforceThreadsConnectSameReceiver();
                 sender.getMaxParallelismForReplicatedRegion();
-                sb.append("<tr><td>").append("Sender Id").append("</td><td>").append(sender.getId()).append("</td></tr>");
-                sb.append("<tr><td>").append("Disk Persistence Enabled").append("</td><td>").append(sender.isPersistenceEnabled()).append("</td></tr>");
-                sb.append("<tr><td>").append("Sender Disk Store Name").append("</td><td>").append(sender.getDiskStoreName()).append("</td></tr>");
-                sb.append("<tr><td>").append("Batch Size").append("</td><td>").append(sender.getBatchSize()).append("</td></tr>");
-                sb.append("<tr><td>").append("Batch Interval Time").append("</td><td>").append(sender.getBatchTimeInterval()).append("</td></tr>");
-                sb.append("<tr><td>").append("Dispatcher Threads").append("</td><td>").append(sender.getDispatcherThreads()).append("</td></tr>");
-                sb.append("<tr><td>").append("Alert Threshold").append("</td><td>").append(sender.getAlertThreshold()).append("</td></tr>");
-                sb.append("<tr><td>").append("Max Queue Memory").append("</td><td>").append(sender.getMaximumQueueMemory()).append("</td></tr>");
-                sb.append("<tr><td>").append("Order Policy").append("</td><td>").append(sender.getOrderPolicy()).append("</td></tr>");
-                sb.append("<tr><td>").append("Socket Buffer Size").append("</td><td>").append(sender.getSocketBufferSize()).append("</td></tr>");
-                sb.append("<tr><td>").append("Socket Read Timeout").append("</td><td>").append(sender.getSocketReadTimeout()).append("</td></tr>");
-                sb.append("<tr><td>").append("Batch Conflation Enabled").append("</td><td>").append(sender.isBatchConflationEnabled()).append("</td></tr>");
-                sb.append("<tr><td>").append("Parallel Sender").append("</td><td>").append(sender.isParallel()).append("</td></tr>");
-                sb.append("<tr><td>").append("Remote Distributed System Id").append("</td><td>").append(sender.getRemoteDSId()).append("</td></tr>");
-                sb.append("<tr><td>").append("Enforce Threads Connect Same Receiver").append("</td><td>").append(sender.getEnforceThreadsConnectSameReceiver()).append("</td></tr>");
-                sb.append("<tr><td>").append("Max Parallelism For Replicated Region").append("</td><td>").append(sender.getMaxParallelismForReplicatedRegion()).append("</td></tr>");
+                out.row("Sender Id", sender.getId());
+                out.row("Disk Persistence Enabled", sender.isPersistenceEnabled());
+                out.row("Sender Disk Store Name", sender.getDiskStoreName());
+                out.row("Batch Size", sender.getBatchSize());
+                out.row("Batch Interval Time", sender.getBatchTimeInterval());
+                out.row("Dispatcher Threads", sender.getDispatcherThreads());
+                out.row("Alert Threshold", sender.getAlertThreshold());
+                out.row("Max Queue Memory", sender.getMaximumQueueMemory());
+                out.row("Order Policy", sender.getOrderPolicy());
+                out.row("Socket Buffer Size", sender.getSocketBufferSize());
+                out.row("Socket Read Timeout", sender.getSocketReadTimeout());
+                out.row("Batch Conflation Enabled", sender.isBatchConflationEnabled());
+                out.row("Parallel Sender", sender.isParallel());
+                out.row("Remote Distributed System Id", sender.getRemoteDSId());
+                out.row("Enforce Threads Connect Same Receiver", sender.getEnforceThreadsConnectSameReceiver());
+                out.row("Max Parallelism For Replicated Region", sender.getMaxParallelismForReplicatedRegion());
                 if (sender.getGatewayEventSubstitutionFilter() == null) {
-                    sb.append("<tr><td>").append("Gateway Substitution Filter").append("</td><td>").append("No Gateway Substitution Filer Defined").append("</td></tr>");
-                } else {
-                    sb.append("<tr><td>").append("Gateway Substitution Filter").append("</td><td>").append(sender.getGatewayEventSubstitutionFilter().getClass().getName()).append("</td></tr>");
-                }
-                sb.append("<tr><td>").append("Gateway Event Filters").append("</td><td>");
-                if (sender.getGatewayEventFilters() == null || sender.getGatewayEventFilters().size() == 0) {
-                    sb.append("No Gateway Event Filters Defined").append("</td></tr>");
-                } else {
-                    for (int i = 0; i < sender.getGatewayEventFilters().size(); i++) {
-                        if (i == 0) {
-                            sb.append(sender.getGatewayEventFilters().get(i).getClass().getName()).append("</td></tr>");
-                        } else {
-                            sb.append("<tr><td>").append("").append("</td><td>").append(sender.getGatewayEventFilters().get(i).getClass().getName()).append("</td></tr>");
-                        }
-                    }
-                }
-                sb.append("<tr><td>").append("Gateway Transport Filters").append("</td><td>");
-                if (sender.getGatewayTransportFilters() == null || sender.getGatewayTransportFilters().size() == 0) {
-                    sb.append("No Gateway Transport Filters Defined").append("</td></tr>");
+                    out.row("Gateway Substitution Filter", "No Gateway Substitution Filer Defined");
                 } else {
-                    for (int i = 0; i < sender.getGatewayTransportFilters().size(); i++) {
-                        if (i == 0) {
-                            sb.append(sender.getGatewayTransportFilters().get(i).getClass().getName()).append("</td></tr>");
-                        } else {
-                            sb.append("<tr><td>").append("").append("</td><td>").append(sender.getGatewayTransportFilters().get(i).getClass().getName()).append("</td></tr>");
-                        }
-                    }
+                    out.row("Gateway Substitution Filter", sender.getGatewayEventSubstitutionFilter().getClass().getName());
                 }
-                sb.append("<tr><td><b>").append("--------------").append("</b></td><td><b>").append("--------------").append("</b></td></tr>");
+                listRows(out, "Gateway Event Filters", classNames(sender.getGatewayEventFilters()), "No Gateway Event Filters Defined");
+                listRows(out, "Gateway Transport Filters", classNames(sender.getGatewayTransportFilters()), "No Gateway Transport Filters Defined");
+                out.row("--------------", "--------------");
             });
-            sb.append("</table>");
+            out.endTable();
         }
     }
 
-    private void processGatewayReceivers(InternalCache cache, StringBuilder sb) {
-        sb.append("<h3><b>").append("Gateway Receivers").append("</b></h3>");
+    private void processGatewayReceivers(InternalCache cache, SectionWriter out) {
+        out.heading(3, "Gateway Receivers");
         if (cache.getGatewayReceivers() == null || cache.getGatewayReceivers().isEmpty()) {
-            sb.append("<ui>").append("No Gateway Receivers Defined").append("</ui>").append("<br>");
+            out.text("No Gateway Receivers Defined");
         } else {
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
+            out.table("Property", "Value");
             cache.getGatewayReceivers().forEach(receiver -> {
-                sb.append("<tr><td>").append("Host Name").append("</td><td>").append(receiver.getHost()).append("</td></tr>");
-                sb.append("<tr><td>").append("Host Name For Senders").append("</td><td>").append(receiver.getHostnameForSenders()).append("</td></tr>");
-                sb.append("<tr><td>").append("Receiver Bind Address").append("</td><td>").append(receiver.getBindAddress()).append("</td></tr>");
-                sb.append("<tr><td>").append("Starting Port Number").append("</td><td>").append(receiver.getStartPort()).append("</td></tr>");
-                sb.append("<tr><td>").append("End Port Number").append("</td><td>").append(receiver.getEndPort()).append("</td></tr>");
-                sb.append("<tr><td>").append("Maximum Time Between Pings").append("</td><td>").append(receiver.getMaximumTimeBetweenPings()).append("</td></tr>");
-                sb.append("<tr><td>").append("Socket Buffer Size").append("</td><td>").append(receiver.getSocketBufferSize()).append("</td></tr>");
-                sb.append("<tr><td>").append("Manual Start").append("</td><td>").append(receiver.isManualStart()).append("</td></tr>");
-                sb.append("<tr><td>").append("Transport Filters").append("</td><td>");
-                if (receiver.getGatewayTransportFilters() == null || receiver.getGatewayTransportFilters().size() == 0) {
-                    sb.append("No Gateway Receiver Transport Filters Defined").append("</td></tr>");
-                } else {
-                    for (int i = 0; i < receiver.getGatewayTransportFilters().size(); i++) {
-                        if (i == 0) {
-                            sb.append(receiver.getGatewayTransportFilters().get(i).getClass().getName()).append("</td></tr>");
-                        } else {
-                            sb.append("<tr><td>").append(receiver.getGatewayTransportFilters().get(i).getClass().getName()).append("</td></tr>");
-                        }
-                    }
-                }
+                out.row("Host Name", receiver.getHost());
+                out.row("Host Name For Senders", receiver.getHostnameForSenders());
+                out.row("Receiver Bind Address", receiver.getBindAddress());
+                out.row("Starting Port Number", receiver.getStartPort());
+                out.row("End Port Number", receiver.getEndPort());
+                out.row("Maximum Time Between Pings", receiver.getMaximumTimeBetweenPings());
+                out.row("Socket Buffer Size", receiver.getSocketBufferSize());
+                out.row("Manual Start", receiver.isManualStart());
+                listRows(out, "Transport Filters", classNames(receiver.getGatewayTransportFilters()), "No Gateway Receiver Transport Filters Defined");
             });
-            sb.append("</table>");
+            out.endTable();
         }
     }
 
-    private void processLuceneIndexes(final InternalCache cache, final String name, final String regionName, StringBuilder sb) {
-        sb.append("<h4><b>").append("Lucene Indexes").append("</b></h4>");
-        final String regionPath;
-        if (!regionName.startsWith("/")) {
-            regionPath = "/" + regionName;
-        } else {
-            regionPath = regionName;
-        }
-        Set<LuceneIndexDetails> indexDetailsSet = getLuceneIndexes(cache, regionPath);
+    private void processLuceneIndexes(final RegionLookups lookups, final String name, final String regionPath, SectionWriter out) {
+        out.heading(4, "Lucene Indexes");
+        Set<LuceneIndexDetails> indexDetailsSet = lookups.getLuceneIndexes(regionPath);
         if (indexDetailsSet.isEmpty()) {
-            sb.append("<ui>").append("No Lucene Indexes Defined").append("</ui><br>");
+            out.text("No Lucene Indexes Defined");
         } else {
-            sb.append("<table><tr><td><b>").append("Index Name").append("</b></td><td><b>").append("Field Analyzer").append("</b></td><td><b>")
-                    .append("Searchable Fields").append("</b></td><td><b>").append("Serializer").append("</b></td></tr>");
+            out.table("Index Name", "Field Analyzer", "Searchable Fields", "Serializer");
             indexDetailsSet.forEach(indexDetail -> {
                 if (indexDetail.getServerName().equals(name) && indexDetail.getRegionPath().equals(regionPath)) {
-                    sb.append("<tr><td>").append(indexDetail.getIndexName()).append("</td><td>").append(indexDetail.getFieldAnalyzersString())
-                            .append("</td><td>").append(indexDetail.getSearchableFieldNamesString()).append("</td><td>")
-                            .append(indexDetail.getSerializerString()).append("</td></tr>");
+                    out.row(indexDetail.getIndexName(), indexDetail.getFieldAnalyzersString(), indexDetail.getSearchableFieldNamesString(), indexDetail.getSerializerString());
                 }
             });
-            sb.append("</table>");
+            out.endTable();
         }
     }
 
-    private Set<LuceneIndexDetails> getLuceneIndexes(InternalCache cache, String regionName) {
-        Set<LuceneIndexDetails> indexDetailsSet = new HashSet<>();
-        String serverName = cache.getDistributedSystem().getDistributedMember().getName();
-        LuceneServiceImpl service = (LuceneServiceImpl) LuceneServiceProvider.get(cache);
-        for (LuceneIndex index : service.getIndexes(regionName)) {
-            LuceneIndexStatus initialized;
-            if (index.isIndexingInProgress()) {
-                initialized = LuceneIndexStatus.INDEXING_IN_PROGRESS;
-            } else {
-                initialized = LuceneIndexStatus.INITIALIZED;
-            }
-            indexDetailsSet.add(new LuceneIndexDetails((LuceneIndexImpl) index, serverName, initialized));
+    /**
+     * Adds one section per region so the regions are rendered concurrently, sharing lookups resolved once for the
+     * whole capture.
+     */
+    private void processRegions(InternalCache cache, Set<InternalRegion> regions, Predicate<String> selected, CaptureEngine engine, String serverName) {
+        if (!engine.isSelected("Regions")) {
+            return;
         }
-        return indexDetailsSet;
-    }
-
-    private void processRegions(InternalCache cache, Set<InternalRegion> regions, StringBuilder sb, String serverName) {
-        sb.append("<h3><b>").append("Regions").append("</b></h3>");
-        regions.forEach(region -> {
-            processRegion(cache, region, region.getParentRegion() != null ? true : false, sb, serverName);
-            sb.append("<b>").append("---------------------------------").append("</b><br>");
-        });
+        engine.add("Regions", out -> out.heading(3, "Regions"));
+        final RegionLookups lookups = new RegionLookups(cache);
+        final List<InternalRegion> captured = regions.stream().filter(region -> selected.test(region.getName()) || selected.test(region.getFullPath()))
+                .collect(Collectors.toList());
+        // the first sample of every region is taken now, so the window passes while the capture runs
+        final RegionStatistics statistics = new RegionStatistics(cache, captured);
+        captured.forEach(region -> engine.add("Regions", CaptureSection.Cost.HEAVY, out -> {
+            processRegion(lookups, statistics, region, region.getParentRegion() != null ? true : false, out, serverName);
+            out.rule();
+        }));
     }
 
-    private void processRegion(InternalCache cache, InternalRegion region, boolean isSubRegion, StringBuilder sb, String serverName) {
-        sb.append("<h4><b>").append("Region Name: ").append(region.getName()).append("</b></h4>");
-        sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-        sb.append("<tr><td>").append("Sub-Region").append("</td><td>").append(isSubRegion).append("</td></tr>");
-        sb.append("<tr><td>").append("Path").append("</td><td>").append(region.getFullPath()).append("</td></tr>");
-        sb.append("<tr><td>").append("Number Server Keys").append("</td><td>").append(region.keySet() == null ? 0 : region.keySet().size()).append("</td></tr>");
-        sb.append("<tr><td>").append("Statistics Enabled").append("</td><td>").append(region.getAttributes().getStatisticsEnabled()).append("</td></tr>");
-        sb.append("<tr><td>").append("Off Heap").append("</td><td>").append(region.getAttributes().getOffHeap()).append("</td></tr>");
-        sb.append("<tr><td>").append("Async Conflation Enabled").append("</td><td>").append(region.getAttributes().getEnableAsyncConflation()).append("</td></tr>");
-        sb.append("<tr><td>").append("Subscription Conflation Enabled").append("</td><td>").append(region.getAttributes().getEnableSubscriptionConflation()).append("</td></tr>");
-        sb.append("<tr><td>").append("Concurrency Level").append("</td><td>").append(region.getAttributes().getConcurrencyLevel()).append("</td></tr>");
-        sb.append("<tr><td>").append("Compressor").append("</td><td>").append(region.getAttributes().getCompressor() == null ? "No Compressor Defined" : region.getAttributes().getCompressor().getClass().getName()).append("</td></tr>");
-        sb.append("<tr><td>").append("Region Scope").append("</td><td>").append(region.getAttributes().getScope() == null ? "Not Defined" : region.getAttributes().getScope().toString()).append("</td></tr>");
-        sb.append("<tr><td>").append("Data Policy").append("</td><td>").append(region.getAttributes().getDataPolicy() == null ? "Not Defined" : region.getAttributes().getDataPolicy().toString()).append("</td></tr>");
+    private void processRegion(RegionLookups lookups, RegionStatistics statistics, InternalRegion region, boolean isSubRegion, SectionWriter out, String serverName) {
+        out.heading(4, "Region Name: " + region.getName());
+        out.table("Property", "Value");
+        out.row("Sub-Region", isSubRegion);
+        out.row("Path", region.getFullPath());
+        out.row("Number Server Keys", localEntryCount(region, true));
+        if (region instanceof PartitionedRegion) {
+            out.row("Number Server Keys Including Redundant Copies", localEntryCount(region, false));
+        }
+        out.row("Statistics Enabled", region.getAttributes().getStatisticsEnabled());
+        out.row("Off Heap", region.getAttributes().getOffHeap());
+        out.row("Async Conflation Enabled", region.getAttributes().getEnableAsyncConflation());
+        out.row("Subscription Conflation Enabled", region.getAttributes().getEnableSubscriptionConflation());
+        out.row("Concurrency Level", region.getAttributes().getConcurrencyLevel());
+        out.row("Compressor", region.getAttributes().getCompressor() == null ? "No Compressor Defined" : region.getAttributes().getCompressor().getClass().getName());
+        out.row("Region Scope", region.getAttributes().getScope() == null ? "Not Defined" : region.getAttributes().getScope().toString());
+        out.row("Data Policy", region.getAttributes().getDataPolicy() == null ? "Not Defined" : region.getAttributes().getDataPolicy().toString());
         AtomicBoolean first = new AtomicBoolean(true);
         if (region.getGatewaySenderIds() != null && region.getGatewaySenderIds().size() > 0) {
             region.getGatewaySenderIds().forEach(id -> {
                 if (first.get()) {
-                    sb.append("<tr><td>").append("Gateway Sender Id(s)").append("</td><td>").append(id).append("</td></tr>");
+                    out.row("Gateway Sender Id(s)", id);
                     first.set(false);
                 } else {
-                    sb.append("<tr><td>").append("").append("</td><td>").append(id).append("</td></tr>");
+                    out.row("", id);
                 }
             });
         } else {
-            sb.append("<tr><td>").append("Gateway Sender Id(s)").append("</td><td>").append("No Gateway Senders Defined").append("</td></tr>");
+            out.row("Gateway Sender Id(s)", "No Gateway Senders Defined");
         }
         first.set(true);
         if (region.getAsyncEventQueueIds() != null && region.getAsyncEventQueueIds().size() > 0) {
             region.getAsyncEventQueueIds().forEach(id -> {
                 if (first.get()) {
-                    sb.append("<tr><td>").append("Async Event Queue Id(s)").append("</td><td>").append(id).append("</td></tr>");
+                    out.row("Async Event Queue Id(s)", id);
                     first.set(false);
                 } else {
-                    sb.append("<tr><td>").append("").append("</td><td>").append(id).append("</td></tr>");
+                    out.row("", id);
                 }
             });
         } else {
-            sb.append("<tr><td>").append("Async Event Queue Id(s)").append("</td><td>").append("No Async Event Queues Defined").append("</td></tr>");
+            out.row("Async Event Queue Id(s)", "No Async Event Queues Defined");
         }
 
 
         if (region.getKeyConstraint() != null) {
-            sb.append("<tr><td>").append("Key Constraint").append("</td><td>").append(region.getKeyConstraint().getName()).append("</td></tr>");
+            out.row("Key Constraint", region.getKeyConstraint().getName());
         } else {
-            sb.append("<tr><td>").append("Key Constraint").append("</td><td>").append("No Key Constraint Defined").append("</td></tr>");
+            out.row("Key Constraint", "No Key Constraint Defined");
         }
 
         if (region.getValueConstraint() != null) {
-            sb.append("<tr><td>").append("Value Constraint").append("</td><td>").append(region.getValueConstraint().getName()).append("</td></tr>");
+            out.row("Value Constraint", region.getValueConstraint().getName());
         } else {
-            sb.append("<tr><td>").append("Value Constraint").append("</td><td>").append("No Value Constraint Defined").append("</td></tr>");
+            out.row("Value Constraint", "No Value Constraint Defined");
         }
 
         if (region.getDataPolicy().withPartitioning()) {
             PartitionAttributes<?, ?> partitionAttr = region.getAttributes().getPartitionAttributes();
-            sb.append("<tr><td>").append("Co-located With").append("</td><td>").append(partitionAttr.getColocatedWith() == null ? "Not Co-located With Any Region" : partitionAttr.getColocatedWith()).append("</td></tr>");
-            sb.append("<tr><td>").append("Local Max Memory").append("</td><td>").append(partitionAttr.getLocalMaxMemory()).append("</td></tr>");
-            sb.append("<tr><td>").append("Redundant Copies").append("</td><td>").append(partitionAttr.getRedundantCopies()).append("</td></tr>");
-            sb.append("<tr><td>").append("Number Buckets").append("</td><td>").append(partitionAttr.getTotalNumBuckets()).append("</td></tr>");
-            sb.append("<tr><td>").append("Recovery Delay").append("</td><td>").append(partitionAttr.getRecoveryDelay()).append("</td></tr>");
-            sb.append("<tr><td>").append("Startup Recovery Delay").append("</td><td>").append(partitionAttr.getStartupRecoveryDelay()).append("</td></tr>");
+            out.row("Co-located With", partitionAttr.getColocatedWith() == null ? "Not Co-located With Any Region" : partitionAttr.getColocatedWith());
+            out.row("Local Max Memory", partitionAttr.getLocalMaxMemory());
+            out.row("Redundant Copies", partitionAttr.getRedundantCopies());
+            out.row("Number Buckets", partitionAttr.getTotalNumBuckets());
+            out.row("Recovery Delay", partitionAttr.getRecoveryDelay());
+            out.row("Startup Recovery Delay", partitionAttr.getStartupRecoveryDelay());
             PartitionResolver<?, ?> partitionResolver = partitionAttr.getPartitionResolver();
-            sb.append("<tr><td>").append("Partition Resolver").append("</td><td>").append(partitionResolver == null ? "No Partition Resolver Defined" : partitionResolver.getClass().getName())
-                    .append("</td></tr>");
+            out.row("Partition Resolver", partitionResolver == null ? "No Partition Resolver Defined" : partitionResolver.getClass().getName());
 
             PartitionListener[] partitionListeners = partitionAttr.getPartitionListeners();
-            sb.append("<tr><td>").append("Partition Listeners").append("</td>");
-            if (partitionListeners == null || partitionListeners.length == 0) {
-                sb.append("<td>").append("No Partition Listeners Defined").append("</td></tr>");
-            } else {
-                for (int i = 0; i < partitionListeners.length; i++) {
-                    if (i == 0) {
-                        sb.append("<td>").append(partitionListeners[i].getClass().getName()).append("</td></tr>");
-                    } else {
-                        sb.append("<tr><td>").append("").append("</td><td>").append(partitionListeners[i].getClass().getName()).append("</td></tr>");
-                    }
-                }
-            }
+            listRows(out, "Partition Listeners", partitionListeners == null ? null : classNames(Arrays.asList(partitionListeners)), "No Partition Listeners Defined");
         }
-        sb.append("</table>");
+        out.endTable();
+
+        statistics.write(region, out);
 
-        sb.append("<h4><b>").append("Disk Store").append("</b></h4>");
+        if (region instanceof PartitionedRegion) {
+            processBuckets((PartitionedRegion) region, out);
+        }
+
+        out.heading(4, "Disk Store");
         if (region.getAttributes().getDiskStoreName() != null) {
-            DiskStore diskStore = cache.findDiskStore(region.getAttributes().getDiskStoreName());
-            processDisks(diskStore, sb);
+            DiskStore diskStore = lookups.getDiskStore(region.getAttributes().getDiskStoreName());
+            processDisks(diskStore, out);
         } else {
-            sb.append("<ui>").append("No Disk Store Defined").append("</ui>").append("<br>");
+            out.text("No Disk Store Defined");
         }
 
-        sb.append("<h4><b>").append("GemFire Indexes").append("</b></h4>");
-        if (cache.getQueryService().getIndexes(region) == null || cache.getQueryService().getIndexes(region).size() == 0) {
-            sb.append("<ui>").append("No Indexes Defined").append("</ui><br>");
+        out.heading(4, "GemFire Indexes");
+        List<Index> indexes = lookups.getIndexes(region.getFullPath());
+        if (indexes.isEmpty()) {
+            out.text("No Indexes Defined");
         } else {
-            sb.append("<table><tr><td><b>").append("Index Name").append("</b></td><td><b>").append("Type").append("</b></td><td><b>")
-                    .append("From Clause").append("</b></td><td><b>").append("Indexed Expression").append("</b></td></tr>");
-            cache.getQueryService().getIndexes(region).forEach(index -> {
-                sb.append("<tr><td>").append(index.getName()).append("</td><td>").append(index.getType().getName())
-                        .append("</td><td>").append(index.getFromClause()).append("</td><td>")
-                        .append(index.getIndexedExpression()).append("</td></tr>");
+            out.table("Index Name", "Type", "From Clause", "Indexed Expression");
+            indexes.forEach(index -> {
+                out.row(index.getName(), index.getType().getName(), index.getFromClause(), index.getIndexedExpression());
             });
-            sb.append("</table>");
+            out.endTable();
         }
 
-        processLuceneIndexes(cache, serverName, region.getName(), sb);
+        processLuceneIndexes(lookups, serverName, region.getFullPath(), out);
 
-        sb.append("<h4><b>").append("Cache Listeners").append("</b></h4>");
+        out.heading(4, "Cache Listeners");
         CacheListener<?, ?>[] listeners = region.getAttributes().getCacheListeners();
         if (listeners == null || listeners.length == 0) {
-            sb.append("<ui>").append("No Cache Listeners Defined").append("</ui>").append("<br>");
+            out.text("No Cache Listeners Defined");
         } else {
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
+            out.table("Property", "Value");
             for (CacheListener<?, ?> listener : listeners)
-                sb.append("<tr><td>").append("Class Name").append("</td><td>").append(listener.getClass().getName()).append("</td></tr>");
-            sb.append("</table>");
+                out.row("Class Name", listener.getClass().getName());
+            out.endTable();
         }
 
-        sb.append("<h4><b>").append("Cache Loader").append("</b></h4>");
+        out.heading(4, "Cache Loader");
         if (region.getAttributes().getCacheLoader() == null) {
-            sb.append("<ui>").append("No Cache Loader Defined").append("</ui>").append("<br>");
+            out.text("No Cache Loader Defined");
         } else {
             CacheLoader<?, ?> loader = region.getAttributes().getCacheLoader();
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-            sb.append("<tr><td>").append("Class Name").append("</td><td>").append(loader.getClass().getName()).append("</td></tr></table>");
+            out.table("Property", "Value");
+            out.row("Class Name", loader.getClass().getName()).endTable();
         }
 
-        sb.append("<h4><b>").append("Cache Writer").append("</b></h4>");
+        out.heading(4, "Cache Writer");
         if (region.getAttributes().getCacheWriter() == null) {
-            sb.append("<ui>").append("No Cache Writer Defined").append("</ui>").append("<br>");
+            out.text("No Cache Writer Defined");
         } else {
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
+            out.table("Property", "Value");
             CacheWriter<?, ?> writer = region.getAttributes().getCacheWriter();
-            sb.append("<tr><td>").append("Class Name").append("</td><td>").append(writer.getClass().getName()).append("</td></tr></table>");
+            out.row("Class Name", writer.getClass().getName()).endTable();
         }
 
-        sb.append("<h4><b>").append("Custom Entry Idle").append("</b></h4>");
-        CustomExpiry<?, ?> customIdleTime = region.getAttributes().getCustomEntryIdleTimeout();
-        if (customIdleTime == null) {
-            sb.append("<ui>").append("No Custom Entry Idle Defined").append("</ui>").append("<br>");
-        } else {
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-            sb.append("<tr><td>").append("Class Name").append("</td><td>").append(customIdleTime.getClass().getName()).append("</td></tr>");
-            if (!region.entrySet().isEmpty()) {
-                Optional<Map.Entry<?, ?>> any = region.entrySet().stream().findAny();
-                if (any.isPresent()) {
-                    ExpirationAttributes customIdleTimeExpireAttr = customIdleTime.getExpiry((Region.Entry) any.get());
-                    sb.append("<tr><td>").append("Timeout").append("</td><td>").append(customIdleTimeExpireAttr == null ? "None" : customIdleTimeExpireAttr.getTimeout())
-                            .append("</td></tr>");
-                    sb.append("<tr><td>").append("Action").append("</td><td>").append(customIdleTimeExpireAttr == null ? "None" : customIdleTimeExpireAttr.getAction().toString())
-                            .append("</td></tr>");
-                } else {
-                    sb.append("<tr><td>").append("Timeout").append("</td><td>").append("No Entries Found - Cannot Determine Value").append("</td></tr>");
-                    sb.append("<tr><td>").append("Action").append("</td><td>").append("No Entries Found - Cannot Determine Value").append("</td></tr>");
-                }
-            } else {
-                sb.append("<tr><td>").append("Timeout").append("</td><td>").append("No Entries Found - Cannot Determine Value").append("</td></tr>");
-                sb.append("<tr><td>").append("Action").append("</td><td>").append("No Entries Found - Cannot Determine Value").append("</td></tr>");
-            }
-            sb.append("</table>");
-        }
+        processCustomExpiry(region, "Custom Entry Idle", region.getAttributes().getCustomEntryIdleTimeout(), out);
 
-        sb.append("<h4><b>").append("Custom Time To Live").append("</b></h4>");
-        CustomExpiry<?, ?> customTimeToLive = region.getAttributes().getCustomEntryTimeToLive();
-        if (customTimeToLive == null) {
-            sb.append("<ui>").append("No Custom Time To Live Defined").append("</ui>").append("<br>");
-        } else {
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-            sb.append("<tr><td>").append("Class Name").append("</td><td>").append(customTimeToLive.getClass().getName()).append("</td></tr>");
-            if (!region.entrySet().isEmpty()) {
-                Optional<Map.Entry<?, ?>> any = region.entrySet().stream().findAny();
-                if (any.isPresent()) {
-                    ExpirationAttributes customTimeToLiveExpireAttr = customTimeToLive.getExpiry((Region.Entry) any.get());
-                    sb.append("<tr><td>").append("Timeout").append("</td><td>").append(customTimeToLiveExpireAttr == null ? "None" : customTimeToLiveExpireAttr.getTimeout())
-                            .append("</td></tr>");
-                    sb.append("<tr><td>").append("Action").append("</td><td>")
-                            .append(customTimeToLiveExpireAttr == null ? "None" : customTimeToLiveExpireAttr.getAction())
-                            .append("</td></tr>");
-                } else {
-                    sb.append("<tr><td>").append("Timeout").append("</td><td>").append("No Entries Found - Cannot Determine Value").append("</td></tr>");
-                    sb.append("<tr><td>").append("Action").append("</td><td>").append("No Entries Found - Cannot Determine Value").append("</td></tr>");
-                }
-            } else {
-                sb.append("<tr><td>").append("Timeout").append("</td><td>").append("No Entries Found - Cannot Determine Value").append("</td></tr>");
-                sb.append("<tr><td>").append("Action").append("</td><td>").append("No Entries Found - Cannot Determine Value").append("</td></tr>");
-            }
-            sb.append("</table>");
-        }
+        processCustomExpiry(region, "Custom Time To Live", region.getAttributes().getCustomEntryTimeToLive(), out);
 
-        sb.append("<h4><b>").append("Region Entry Idle").append("</b></h4>");
+        out.heading(4, "Region Entry Idle");
         ExpirationAttributes regionIdleLive = region.getAttributes().getRegionIdleTimeout();
         if (regionIdleLive != null) {
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-            sb.append("<tr><td>").append("Timeout").append("</td><td>").append(regionIdleLive.getTimeout())
-                    .append("</td></tr>");
-            sb.append("<tr><td>").append("Action").append("</td><td>").append(regionIdleLive.getAction())
-                    .append("</td></tr></table>");
+            out.table("Property", "Value");
+            out.row("Timeout", regionIdleLive.getTimeout());
+            out.row("Action", regionIdleLive.getAction()).endTable();
         } else {
-            sb.append("<ui>").append("No Region Entry Idle Defined").append("</ui><br>");
+            out.text("No Region Entry Idle Defined");
         }
 
-        sb.append("<h4><b>").append("Region Entry Time To Live").append("</b></h4>");
+        out.heading(4, "Region Entry Time To Live");
         ExpirationAttributes regionTimeToLive = region.getAttributes().getRegionTimeToLive();
         if (regionTimeToLive != null) {
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-            sb.append("<tr><td>").append("Timeout").append("<//td><td>").append(regionTimeToLive.getTimeout())
-                    .append("</td></tr>");
-            sb.append("<tr><td>").append("Action").append("</td><td>").append(regionTimeToLive.getAction())
-                    .append("</td></tr></table>");
+            out.table("Property", "Value");
+            out.row("Timeout", regionTimeToLive.getTimeout());
+            out.row("Action", regionTimeToLive.getAction()).endTable();
         } else {
-            sb.append("<ui>").append("No Region Entry Time To Live Defined").append("</ui><br>");
+            out.text("No Region Entry Time To Live Defined");
         }
 
-        sb.append("<h4><b>").append("Entry Idle").append("</b></h4>");
+        out.heading(4, "Entry Idle");
         ExpirationAttributes entryIdle = region.getAttributes().getEntryIdleTimeout();
         if (entryIdle != null) {
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-            sb.append("<tr><td>").append("Timeout: ").append("</td><td>").append(entryIdle.getTimeout()).append("</td></tr>");
-            sb.append("<tr><td>").append("Action: ").append("</td><td>")
-                    .append(entryIdle.getAction()).append("</td></tr></table>");
+            out.table("Property", "Value");
+            out.row("Timeout: ", entryIdle.getTimeout());
+            out.row("Action: ", entryIdle.getAction()).endTable();
         } else {
-            sb.append("<ui>").append("No Entry Idle Defined").append("<ui><br>");
+            out.text("No Entry Idle Defined");
         }
 
-        sb.append("<h4><b>").append("Entry Time To Live").append("</b></h4>");
+        out.heading(4, "Entry Time To Live");
         ExpirationAttributes entryTimeToLive = region.getAttributes().getEntryTimeToLive();
         if (entryTimeToLive != null) {
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-            sb.append("<tr><td>").append("Timeout").append("</td><td>").append(entryTimeToLive.getTimeout())
-                    .append("</td></tr>");
-            sb.append("<tr><td>").append("Action").append("</td><td>").append(entryTimeToLive.getAction())
-                    .append("</td></tr></table>");
+            out.table("Property", "Value");
+            out.row("Timeout", entryTimeToLive.getTimeout());
+            out.row("Action", entryTimeToLive.getAction()).endTable();
         } else {
-            sb.append("<ui>").append("No Entry Time To Live Defined").append("</ui><br>");
+            out.text("No Entry Time To Live Defined");
         }
 
-        sb.append("<h4><b>").append("Eviction").append("</b></h4>");
+        out.heading(4, "Eviction");
         EvictionAttributes evictionAttributes = region.getAttributes().getEvictionAttributes();
         if (evictionAttributes != null) {
-            sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-            sb.append("<tr><td>").append("Algorithm").append("</td><td>").append(evictionAttributes.getAlgorithm())
-                    .append("</td></tr>");
-            sb.append("<tr><td>").append("Action").append("</td><td>").append(evictionAttributes.getAction())
-                    .append("</td></tr>");
-            sb.append("<tr><td>").append("Maximum").append("</td><td>").append(evictionAttributes.getMaximum())
-                    .append("</td></tr></table>");
+            out.table("Property", "Value");
+            out.row("Algorithm", evictionAttributes.getAlgorithm());
+            out.row("Action", evictionAttributes.getAction());
+            out.row("Maximum", evictionAttributes.getMaximum()).endTable();
         } else {
-            sb.append("<ui>").append("No Eviction Defined").append("</ui><br>");
+            out.text("No Eviction Defined");
         }
     }
 
-    private void processDisks(DiskStore diskStore, StringBuilder sb) {
-        sb.append("<table><tr><td><b>").append("Property").append("</b></td><td><b>").append("Value").append("</b></td></tr>");
-        sb.append("<tr><td>").append("Name").append("</td><td>").append(diskStore.getName()).append("</td></tr>");
-        sb.append("<tr><td>").append("UUID").append("</td><td>").append(diskStore.getDiskStoreUUID()).append("</td></tr>");
-        sb.append("<tr><td>").append("Auto Compact").append("</td><td>").append(diskStore.getAutoCompact()).append("</td></tr>");
-        sb.append("<tr><td>").append("Allow Forced Compact").append("</td><td>").append(diskStore.getAllowForceCompaction()).append("</td></tr>");
-        sb.append("<tr><td>").append("Auto Compact").append("</td><td>").append(diskStore.getAutoCompact()).append("</td></tr>");
-        sb.append("<tr><td>").append("Compaction Threshold").append("</td><td>").append(diskStore.getCompactionThreshold()).append("</td></tr>");
-        sb.append("<tr><td>").append("Time Interval").append("</td><td>").append(diskStore.getTimeInterval()).append("</td></tr>");
-        sb.append("<tr><td>").append("Critical Disk Usage Percent").append("</td><td>").append(diskStore.getDiskUsageCriticalPercentage()).append("</td></tr>");
-        sb.append("<tr><td>").append("Warning Disk Usage Percent").append("</td><td>").append(diskStore.getDiskUsageWarningPercentage()).append("</td></tr>");
-        sb.append("<tr><td>").append("Max Op Log Size").append("</td><td>").append(diskStore.getMaxOplogSize()).append("</td></tr>");
-        sb.append("<tr><td>").append("Queue Size").append("</td><td>").append(diskStore.getQueueSize()).append("</td></tr>");
-        sb.append("<tr><td>").append("Write Buffer Size").append("</td><td>").append(diskStore.getWriteBufferSize()).append("</td></tr>");
+    private void processCustomExpiry(InternalRegion region, String title, CustomExpiry<?, ?> customExpiry, SectionWriter out) {
+        out.heading(4, title);
+        if (customExpiry == null) {
+            out.text("No " + title + " Defined");
+            return;
+        }
+        ExpirySampler.Sample sample = expirySampler.sample(region, customExpiry);
+        out.table("Property", "Value");
+        out.row("Class Name", customExpiry.getClass().getName());
+        out.row("Sampled Entries", sample.getSampled());
+        out.row("Sample Limit (Entries)", expirySampler.getMaxEntries());
+        out.row("Sample Limit (ms)", expirySampler.getMaxMillis());
+        out.row("Time Limit Reached", sample.isTimeBudgetExhausted());
+        if (sample.getSampled() == 0) {
+            out.row("Timeout", "No Entries Found - Cannot Determine Value");
+            out.row("Action", "No Entries Found - Cannot Determine Value");
+            out.endTable();
+            return;
+        }
+        out.endTable();
+        out.table("Timeout", "Action", "Entries");
+        sample.getDistribution().forEach((attributes, count) -> {
+            out.row(attributes.getTimeout(), attributes.getAction(), count);
+        });
+        if (sample.getDefaulted() > 0) {
+            out.row("None", "None", sample.getDefaulted());
+        }
+        if (sample.getFailed() > 0) {
+            out.row("Failed", "Failed", sample.getFailed());
+        }
+        out.endTable();
+    }
+
+    /**
+     * Counts the entries held in this member from the local region map sizes, so the key set of the region is
+     * never materialized and no remote buckets are visited. For a partitioned region only the local buckets are
+     * counted, optionally just the primaries.
+     */
+    private int localEntryCount(InternalRegion region, boolean primaryOnly) {
+        if (region instanceof PartitionedRegion) {
+            PartitionedRegionDataStore dataStore = ((PartitionedRegion) region).getDataStore();
+            if (dataStore == null) {
+                return 0;
+            }
+            int count = 0;
+            for (BucketRegion bucket : primaryOnly ? dataStore.getAllLocalPrimaryBucketRegions() : dataStore.getAllLocalBucketRegions()) {
+                count += bucket.getLocalSize();
+            }
+            return count;
+        }
+        return region instanceof LocalRegion ? ((LocalRegion) region).getLocalSize() : region.getRegionMap().size();
+    }
+
+    private void processBuckets(PartitionedRegion region, SectionWriter out) {
+        out.heading(4, "Local Buckets");
+        PartitionedRegionDataStore dataStore = region.getDataStore();
+        if (dataStore == null || dataStore.getAllLocalBucketRegions().isEmpty()) {
+            out.text("No Local Buckets Hosted");
+            return;
+        }
+        TreeMap<Integer, BucketRegion> buckets = new TreeMap<>();
+        dataStore.getAllLocalBucketRegions().forEach(bucket -> buckets.put(bucket.getId(), bucket));
+        out.table("Bucket Id", "Role", "Entries", "Bytes");
+        buckets.values().forEach(bucket -> {
+            out.row(bucket.getId(), bucket.getBucketAdvisor().isPrimary() ? "Primary" : "Secondary", bucket.getLocalSize(), bucket.getTotalBytes());
+        });
+        out.endTable();
+    }
+
+    private void processDisks(DiskStore diskStore, SectionWriter out) {
+        out.table("Property", "Value");
+        out.row("Name", diskStore.getName());
+        out.row("UUID", diskStore.getDiskStoreUUID());
+        out.row("Auto Compact", diskStore.getAutoCompact());
+        out.row("Allow Forced Compact", diskStore.getAllowForceCompaction());
+        out.row("Auto Compact", diskStore.getAutoCompact());
+        out.row("Compaction Threshold", diskStore.getCompactionThreshold());
+        out.row("Time Interval", diskStore.getTimeInterval());
+        out.row("Critical Disk Usage Percent", diskStore.getDiskUsageCriticalPercentage());
+        out.row("Warning Disk Usage Percent", diskStore.getDiskUsageWarningPercentage());
+        out.row("Max Op Log Size", diskStore.getMaxOplogSize());
+        out.row("Queue Size", diskStore.getQueueSize());
+        out.row("Write Buffer Size", diskStore.getWriteBufferSize());
         File[] dirs = diskStore.getDiskDirs();
-        sb.append("<tr><td>").append("Directories").append("</td><td>");
         int[] diskSizes = diskStore.getDiskDirSizes();
-        if (diskSizes == null || diskSizes.length == 0) {
-            sb.append("No Disk Store Directories Defined").append("</td></tr>");
-        } else {
-            for (int i = 0; i < diskSizes.length; i++) {
-                if (i == 0) {
-                    sb.append(dirs[i].getAbsolutePath()).append(":").append(dirs[i].getName()).append(":")
-                            .append(diskSizes[i]).append("</td></tr>");
-                } else {
-                    sb.append("<tr><td>").append("").append("</td><td>").append(dirs[i].getAbsolutePath()).append(":").append(dirs[i].getName()).append(":")
-                            .append(diskSizes[i]).append("</td></tr>");
-                }
-            }
+        List<String> directories = new ArrayList<>();
+        for (int i = 0; diskSizes != null && i < diskSizes.length; i++) {
+            directories.add(dirs[i].getAbsolutePath() + ":" + dirs[i].getName() + ":" + diskSizes[i]);
+        }
+        listRows(out, "Directories", directories, "No Disk Store Directories Defined");
+        out.endTable();
+    }
+
+    /**
+     * Writes a property with several values as one row per value, the property name only on the first row.
+     */
+    private static void listRows(SectionWriter out, String property, List<String> values, String none) {
+        if (values == null || values.isEmpty()) {
+            out.row(property, none);
+            return;
+        }
+        for (int i = 0; i < values.size(); i++) {
+            out.row(i == 0 ? property : "", values.get(i));
+        }
+    }
+
+    private static List<String> classNames(Collection<?> objects) {
+        if (objects == null) {
+            return null;
         }
-        sb.append("</table>");
+        List<String> names = new ArrayList<>(objects.size());
+        objects.forEach(object -> names.add(object.getClass().getName()));
+        return names;
     }
 
     @Override
@@ -1044,10 +1075,83 @@ public class Capture implements Function {
     }
 
     @Override
-    public void execute(FunctionContext functionContext) {
-        String results = capture();
-        log.debug(results);
-        functionContext.getResultSender().lastResult(results);
+    public void execute(FunctionContext<Object> functionContext) {
+        final CaptureRequest request = CaptureRequest.of(functionContext.getArguments());
+        final DistributedMember member = CacheFactory.getAnyInstance().getDistributedSystem().getDistributedMember();
+        final String memberName = member.getName();
+        if (!request.selects(member)) {
+            skip(functionContext, request, memberName);
+            return;
+        }
+        if (request.getCaptureId() != null) {
+            stage(functionContext, request, memberName);
+            return;
+        }
+        final ReportChunkSender sender = new ReportChunkSender(functionContext.getResultSender(), memberName, request.isCompressed());
+        // whatever happens the caller gets the sections captured so far and a status, never just an exception
+        try {
+            captureShared(request, sender);
+            sender.close(MemberStatus.COMPLETE, null);
+        } catch (TimeoutException ex) {
+            log.warn("Capture on member {} timed out: {}", memberName, ex.getMessage());
+            sender.close(MemberStatus.TIMED_OUT, ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.error("Capture on member {} failed", memberName, ex);
+            sender.close(MemberStatus.FAILED, ex.toString());
+        }
+    }
+
+    /**
+     * The capture as requested, shared with a capture in flight or taken from the last snapshot unless only part of
+     * the report or of the cluster is asked for. Geode only lets a function with results return once it sent its last result, so in
+     * low impact mode the function thread stays, but it only waits for sections and sends them.
+     */
+    private void captureShared(CaptureRequest request, Consumer<SnapshotSection> sink) throws TimeoutException {
+        if (request.isTargeted() || request.namesMembers()) {
+            // part of a report is neither shared with a full capture in flight nor kept for the next one, and the
+            // members captured decide which of them reports the bucket balance
+            capture(request, sink);
+        } else {
+            SnapshotCache.get((InternalCache) CacheFactory.getAnyInstance()).capture((shared, timeoutMillis) ->
+                    capture(request.withTimeoutMillis(timeoutMillis), shared), sink, request.getTimeoutMillis(), request.isLowImpact());
+        }
+    }
+
+    /**
+     * Answers a targeted capture that does not select this member at once, with an empty stage for the fetch of a
+     * deduplicated capture.
+     */
+    private void skip(FunctionContext<Object> functionContext, CaptureRequest request, String memberName) {
+        if (request.getCaptureId() != null) {
+            final SectionStage stage = new SectionStage();
+            SectionStage.put(request.getCaptureId(), stage);
+            functionContext.getResultSender().lastResult(stage.toManifest(memberName, MemberStatus.SKIPPED, NOT_SELECTED));
+        } else {
+            new ReportChunkSender(functionContext.getResultSender(), memberName, request.isCompressed()).close(MemberStatus.SKIPPED, NOT_SELECTED);
+        }
+    }
+
+    /**
+     * First phase of a deduplicated capture: the sections are kept on this member and only their digests are sent.
+     */
+    private void stage(FunctionContext<Object> functionContext, CaptureRequest request, String memberName) {
+        final SectionStage stage = new SectionStage();
+        MemberStatus status = MemberStatus.COMPLETE;
+        String cause = null;
+        try {
+            captureShared(request, stage);
+        } catch (TimeoutException ex) {
+            log.warn("Capture on member {} timed out: {}", memberName, ex.getMessage());
+            status = MemberStatus.TIMED_OUT;
+            cause = ex.getMessage();
+        } catch (RuntimeException ex) {
+            log.error("Capture on member {} failed", memberName, ex);
+            status = MemberStatus.FAILED;
+            cause = ex.toString();
+        }
+        SectionStage.put(request.getCaptureId(), stage);
+        final SectionManifest manifest = stage.toManifest(memberName, status, cause);
+        functionContext.getResultSender().lastResult(SectionStage.delta(manifest, request.getBaseManifests().get(memberName)));
     }
 
     @Override
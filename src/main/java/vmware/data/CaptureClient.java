@@ -1,29 +1,33 @@
 package vmware.data;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.geode.GemFireException;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.client.ClientCache;
 import org.apache.geode.cache.client.ClientCacheFactory;
 import org.apache.geode.cache.client.ClientRegionFactory;
 import org.apache.geode.cache.client.ClientRegionShortcut;
+import org.apache.geode.cache.execute.Execution;
 import org.apache.geode.cache.execute.FunctionService;
-import org.apache.geode.cache.execute.ResultCollector;
-import org.apache.geode.internal.cache.execute.DefaultResultCollector;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class CaptureClient {
+
+    private static final String USAGE = "Invalid arguments - argument 1 [locator hostname/address]; argument 2 [locator port number]; "
+            + "optional arguments [--relay] [--timeout seconds] [--no-compression] [--no-dedup] [--no-delta] [--low-impact] "
+            + "[--members name,...] [--groups group,...] [--sections section,...] [--regions region,...]";
+
     public static void main(String[] args) throws IOException {
-        if ((args == null) || (args.length < 2) || (args.length > 2)) {
-            System.out.println("Invalid arguments - argument 1 [locator hostname/address]; argument 2 [locator port number]");
+        if ((args == null) || (args.length < 2)) {
+            System.out.println(USAGE);
             return;
         }
 
@@ -35,24 +39,137 @@ public class CaptureClient {
             return;
         }
 
+        boolean relay = false;
+        boolean compressed = true;
+        boolean dedup = true;
+        boolean delta = true;
+        boolean lowImpact = false;
+        long timeoutMillis = CaptureRequest.DEFAULT_TIMEOUT_MILLIS;
+        final CaptureRequest request = new CaptureRequest();
+        for (int i = 2; i < args.length; i++) {
+            if ("--relay".equals(args[i])) {
+                relay = true;
+            } else if ("--no-compression".equals(args[i])) {
+                compressed = false;
+            } else if ("--no-dedup".equals(args[i])) {
+                dedup = false;
+            } else if ("--no-delta".equals(args[i])) {
+                delta = false;
+            } else if ("--low-impact".equals(args[i])) {
+                lowImpact = true;
+            } else if ("--members".equals(args[i]) && i + 1 < args.length) {
+                request.setMembers(names(args[++i]));
+            } else if ("--groups".equals(args[i]) && i + 1 < args.length) {
+                request.setGroups(names(args[++i]));
+            } else if ("--sections".equals(args[i]) && i + 1 < args.length) {
+                request.setSections(names(args[++i]));
+            } else if ("--regions".equals(args[i]) && i + 1 < args.length) {
+                request.setRegions(names(args[++i]));
+            } else if ("--timeout".equals(args[i]) && i + 1 < args.length) {
+                try {
+                    timeoutMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(args[++i]));
+                } catch (NumberFormatException ex) {
+                    System.out.println("--timeout must be a numeric number of seconds");
+                    return;
+                }
+                if (timeoutMillis < 0) {
+                    System.out.println("--timeout must be 0 or more seconds, 0 for no deadline");
+                    return;
+                }
+            } else {
+                System.out.println(USAGE);
+                return;
+            }
+        }
+
+        // the members enforce the deadline; the client allows a margin on top before it gives up on a server, and
+        // without a deadline it waits for the servers as long as they take
+        final int readTimeout = timeoutMillis == 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, timeoutMillis + 2 * CaptureRequest.MARGIN_MILLIS);
         final ClientCacheFactory ccf = new ClientCacheFactory();
-        ccf.addPoolLocator(args[0], portNumber).setPoolMinConnections(0).setPoolRetryAttempts(0).setPoolReadTimeout(1);
+        ccf.addPoolLocator(args[0], portNumber).setPoolMinConnections(0).setPoolRetryAttempts(0).setPoolReadTimeout(readTimeout);
         final ClientCache cache = ccf.create();
-        final ClientRegionFactory crf = cache.createClientRegionFactory(ClientRegionShortcut.CACHING_PROXY);
-        final Region pdxTypes = crf.create("PdxTypes");
-        final ResultCollector collector = FunctionService.onServer(pdxTypes.getRegionService()).withCollector(new DefaultResultCollector()).execute("Analysis");
-        final ArrayList<ArrayList<String>> reportList = (ArrayList<ArrayList<String>>) collector.getResult();
-        final ArrayList<String> reports = (ArrayList<String>) reportList.get(0);
-        reports.forEach(r -> {
-            final String name = r.substring(0, r.indexOf("<html>"));
-            final String newReport = r.substring(r.indexOf("<html>"));
-            final File file = new File("cluster-report-" + new SimpleDateFormat("dd-MM-yyyy").format(new Date()) + "-" + name + ".html");
-            try {
-                Files.write(file.toPath(), newReport.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE);
-            } catch (IOException ex) {
-                log.error("Error writing file" + file.getAbsolutePath(), ex);
+        request.setTimeoutMillis(timeoutMillis);
+        request.setCompressed(compressed);
+        request.setLowImpact(lowImpact);
+        // parts already received by the last run are not fetched again; part of a report would replace the last run
+        final SnapshotStore store = !relay && dedup && delta && !request.isTargeted() ? new SnapshotStore(new File(SnapshotStore.FILE_NAME)).load() : null;
+        printSummary(capture(cache, request, relay, dedup, store, readTimeout));
+        cache.close();
+    }
+
+    /**
+     * Runs one capture of the cluster the client is connected to, writes the reports and returns the result of
+     * every member.
+     *
+     * @param store the last capture, used by the deduplicated direct path only, or null
+     * @param readTimeout the time to wait for the servers in milliseconds, or 0 to wait as long as they take
+     */
+    static List<MemberResult> capture(ClientCache cache, CaptureRequest request, boolean relay, boolean dedup, SnapshotStore store, int readTimeout) {
+        if (!relay && dedup) {
+            // every server stages its report and each part shared by several servers is fetched only once
+            return new DedupCapture(cache.getDefaultPool(), readTimeout, store).run(request);
+        }
+        final ReportCollector collector;
+        final Execution<CaptureRequest, Object, List<MemberResult>> execution;
+        if (relay) {
+            // one server runs Analysis, which fans out to every other member and relays their reports
+            Region pdxTypes = cache.getRegion("PdxTypes");
+            if (pdxTypes == null) {
+                final ClientRegionFactory crf = cache.createClientRegionFactory(ClientRegionShortcut.CACHING_PROXY);
+                pdxTypes = crf.create("PdxTypes");
             }
+            collector = new ReportCollector();
+            execution = typed(FunctionService.onServer(pdxTypes.getRegionService())).withCollector(collector);
+        } else {
+            // every server runs Capture and streams its report straight back to this client, the ones that never
+            // answer are only known from the servers of the pool
+            collector = new ReportCollector(new PoolServers(cache.getDefaultPool()));
+            execution = typed(FunctionService.onServers(cache.getDefaultPool())).withCollector(collector);
+        }
+
+        try {
+            execution.setArguments(request).execute(relay ? "Analysis" : "Capture");
+            return readTimeout == 0 ? collector.getResult() : collector.getResult(readTimeout, TimeUnit.MILLISECONDS);
+        } catch (GemFireException | InterruptedException ex) {
+            // keep what was delivered; the reports still open are closed as timed out or failed
+            log.warn("Capture did not complete on every server: {}", ex.toString());
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            collector.abort(ex);
+            return collector.getResults();
+        }
+    }
+
+    /**
+     * Geode hands out executions as raw types; the capture functions take a request and answer with report chunks.
+     */
+    @SuppressWarnings("unchecked")
+    private static Execution<CaptureRequest, Object, List<MemberResult>> typed(Execution<?, ?, ?> execution) {
+        return (Execution<CaptureRequest, Object, List<MemberResult>>) execution;
+    }
+
+    private static Set<String> names(String list) {
+        final Set<String> names = new HashSet<>();
+        for (String name : list.split(",")) {
+            if (!name.trim().isEmpty()) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Prints one line per member, slowest first, with members that never reported an elapsed time at the top.
+     */
+    private static void printSummary(List<MemberResult> results) {
+        results.sort(Comparator.comparingLong((MemberResult result) -> result.getElapsedMillis() < 0 ? Long.MAX_VALUE : result.getElapsedMillis()).reversed());
+        System.out.println(String.format("%-30s %-10s %12s  %s", "Member", "Status", "Elapsed (ms)", "Report / Cause"));
+        results.forEach(result -> {
+            final String elapsed = result.getElapsedMillis() < 0 ? "-" : String.valueOf(result.getElapsedMillis());
+            final String report = result.getFile() == null ? "" : result.getFile().getAbsolutePath();
+            final String cause = result.getCause() == null ? "" : (report.isEmpty() ? "" : " / ") + result.getCause();
+            System.out.println(String.format("%-30s %-10s %12s  %s%s", result.getMemberName(), result.getStatus(), elapsed, report, cause));
         });
-        cache.close();
     }
 }
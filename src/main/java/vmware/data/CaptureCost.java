@@ -0,0 +1,104 @@
+package vmware.data;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a report section cost to capture: wall time, CPU time and bytes allocated by the thread that rendered it, and
+ * the size of the serialized section. CPU time and allocation come from the {@link ThreadMXBean} and are -1 where
+ * the JVM does not measure them. Sections captured under the same name, such as the individual regions, add up.
+ */
+@Getter
+class CaptureCost {
+
+    static final String WALL_TIMER = "capture.section.wall";
+    static final String CPU_TIMER = "capture.section.cpu";
+    static final String ALLOCATED_SUMMARY = "capture.section.allocated";
+    static final String OUTPUT_SUMMARY = "capture.section.output";
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private long wallNanos;
+    private long cpuNanos;
+    private long allocatedBytes;
+    private long outputBytes;
+
+    CaptureCost() {
+    }
+
+    private CaptureCost(long wallNanos, long cpuNanos, long allocatedBytes, long outputBytes) {
+        this.wallNanos = wallNanos;
+        this.cpuNanos = cpuNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.outputBytes = outputBytes;
+    }
+
+    void add(CaptureCost cost) {
+        wallNanos += cost.wallNanos;
+        cpuNanos = cpuNanos < 0 || cost.cpuNanos < 0 ? -1 : cpuNanos + cost.cpuNanos;
+        allocatedBytes = allocatedBytes < 0 || cost.allocatedBytes < 0 ? -1 : allocatedBytes + cost.allocatedBytes;
+        outputBytes += cost.outputBytes;
+    }
+
+    /**
+     * A reading of the clock, CPU time and allocated bytes of the current thread to measure a section from.
+     */
+    static CaptureCost start() {
+        return new CaptureCost(System.nanoTime(), cpuTime(), allocatedBytes(), 0);
+    }
+
+    /**
+     * Cost of the section rendered on the current thread since this reading was taken.
+     */
+    CaptureCost since(SnapshotSection section) {
+        final long cpu = cpuTime();
+        final long allocated = allocatedBytes();
+        return new CaptureCost(System.nanoTime() - wallNanos, cpuNanos < 0 || cpu < 0 ? -1 : cpu - cpuNanos,
+                allocatedBytes < 0 || allocated < 0 ? -1 : allocated - allocatedBytes, section == null ? 0 : section.serializedSize());
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Publishes the cost of every section of one capture to the registry, tagged with the section name, so that
+     * the overhead of captures can be followed over time.
+     */
+    static void record(MeterRegistry registry, Map<String, CaptureCost> costs) {
+        if (registry == null) {
+            return;
+        }
+        costs.forEach((name, cost) -> {
+            Timer.builder(WALL_TIMER).description("Wall time of a capture section").tag("section", name).register(registry)
+                    .record(cost.wallNanos, TimeUnit.NANOSECONDS);
+            if (cost.cpuNanos >= 0) {
+                Timer.builder(CPU_TIMER).description("CPU time of a capture section").tag("section", name).register(registry)
+                        .record(cost.cpuNanos, TimeUnit.NANOSECONDS);
+            }
+            if (cost.allocatedBytes >= 0) {
+                DistributionSummary.builder(ALLOCATED_SUMMARY).description("Bytes allocated by a capture section").baseUnit("bytes")
+                        .tag("section", name).register(registry).record(cost.allocatedBytes);
+            }
+            DistributionSummary.builder(OUTPUT_SUMMARY).description("Serialized size of a capture section").baseUnit("bytes")
+                    .tag("section", name).register(registry).record(cost.outputBytes);
+        });
+    }
+}
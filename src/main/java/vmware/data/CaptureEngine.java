@@ -0,0 +1,315 @@
+package vmware.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.geode.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Runs the report sections of a capture concurrently on a small bounded pool. Every section writes its own
+ * {@link SnapshotSection} and the sections are handed to the sink in the order they were added, each one as soon as
+ * it and all sections before it are complete. The {@link CaptureCost} of every section is recorded.
+ * <p>
+ * Of the sections in the lookahead window, the costliest are started first, so a heavy section does not start last
+ * and hold up the stream. A section starts after the sections it depends on and waits for them to complete, and a
+ * section that is not parallel safe runs with no other section running, see {@link CaptureSection}.
+ * <p>
+ * When a timeout is given, sections that are not complete by the deadline are cancelled and the run ends with a
+ * {@link TimeoutException}; the sections streamed before the deadline have already been handed to the sink.
+ * <p>
+ * A low impact run renders its sections one after the other on a single thread of minimum priority instead, pausing
+ * before every section as its {@link CaptureThrottle} requires. The calling thread only waits for the sections and
+ * hands them to the sink.
+ */
+@Slf4j
+class CaptureEngine {
+
+    static final int THREADS = Integer.getInteger("capture.threads", Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static final ExecutorService EXECUTOR = createExecutor("Capture Section Thread ", THREADS);
+
+    private static final ExecutorService LOW_IMPACT_EXECUTOR = createExecutor("Capture Low Impact Thread ", 1, Thread.MIN_PRIORITY);
+
+    private final List<Section> sections = new ArrayList<>();
+    private final Map<String, CaptureCost> costs = new LinkedHashMap<>();
+    private final boolean lowImpact;
+    private final Predicate<String> selected;
+    private CaptureThrottle throttle;
+
+    CaptureEngine() {
+        this(false, name -> true);
+    }
+
+    /**
+     * @param selected the names of the sections to run, sections added under any other name are left out
+     */
+    CaptureEngine(boolean lowImpact, Predicate<String> selected) {
+        this.lowImpact = lowImpact;
+        this.selected = selected;
+    }
+
+    static ExecutorService createExecutor(String prefix, int threads) {
+        return createExecutor(prefix, threads, Thread.NORM_PRIORITY);
+    }
+
+    static ExecutorService createExecutor(String prefix, int threads, int priority) {
+        final AtomicInteger count = new AtomicInteger();
+        final ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    void add(String name, Consumer<SectionWriter> body) {
+        add(name, CaptureSection.Cost.CHEAP, body);
+    }
+
+    void add(String name, CaptureSection.Cost cost, Consumer<SectionWriter> body) {
+        if (selected.test(name)) {
+            sections.add(new Section(name, cost, Collections.emptyList(), true, body));
+        }
+    }
+
+    /**
+     * Adds the sections after those already added, ordered by name after the sections they depend on. A section
+     * whose dependencies form a cycle is left out.
+     */
+    void add(Cache cache, Collection<CaptureSection> added) {
+        final List<CaptureSection> pending = new ArrayList<>(added);
+        pending.sort(Comparator.comparing(CaptureSection::getName));
+        final Set<String> names = new HashSet<>();
+        pending.forEach(section -> names.add(section.getName()));
+        boolean progress = true;
+        while (!pending.isEmpty() && progress) {
+            progress = false;
+            for (CaptureSection section : new ArrayList<>(pending)) {
+                if (section.getDependencies().stream().noneMatch(dependency -> pending.stream().anyMatch(other -> other != section && other.getName().equals(dependency)))) {
+                    pending.remove(section);
+                    progress = true;
+                    if (selected.test(section.getName())) {
+                        sections.add(new Section(section.getName(), section.getCost(), dependencies(section.getDependencies()),
+                                section.isParallelSafe(), out -> section.capture(cache, out)));
+                    }
+                }
+            }
+        }
+        pending.forEach(section -> log.warn("Leaving out section {} whose dependencies form a cycle", section.getName()));
+    }
+
+    /**
+     * Positions of the sections added so far under the given names.
+     */
+    private List<Integer> dependencies(Set<String> names) {
+        final List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < sections.size(); i++) {
+            if (names.contains(sections.get(i).name)) {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+
+    boolean isSelected(String name) {
+        return selected.test(name);
+    }
+
+    void run(Consumer<SnapshotSection> sink) {
+        try {
+            run(sink, 0);
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Runs the sections, giving up on the ones not complete within the timeout. A timeout of zero or less waits
+     * for every section.
+     */
+    void run(Consumer<SnapshotSection> sink, long timeoutMillis) throws TimeoutException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        final ExecutorService executor = lowImpact ? LOW_IMPACT_EXECUTOR : EXECUTOR;
+        throttle = lowImpact ? new CaptureThrottle(timeoutMillis > 0 ? deadline : 0) : null;
+        // only a window of sections ahead of the one being streamed is submitted, so a slow section cannot make
+        // thousands of completed region buffers pile up on the heap behind it
+        final int window = (lowImpact ? 1 : THREADS) * 4;
+        final List<Future<SnapshotSection>> futures = new ArrayList<>(Collections.nCopies(sections.size(), null));
+        final boolean[] started = new boolean[sections.size()];
+        final ReadWriteLock exclusive = new ReentrantReadWriteLock();
+        for (int i = 0; i < sections.size(); i++) {
+            for (int next = next(started, i, Math.min(sections.size(), i + window)); next >= 0; next = next(started, i, Math.min(sections.size(), i + window))) {
+                final Section section = sections.get(next);
+                final List<Future<SnapshotSection>> dependencies = new ArrayList<>();
+                section.dependencies.forEach(position -> {
+                    // a dependency already handed to the sink is complete
+                    if (futures.get(position) != null) {
+                        dependencies.add(futures.get(position));
+                    }
+                });
+                final Lock lock = section.parallelSafe ? exclusive.readLock() : exclusive.writeLock();
+                final CaptureThrottle sectionThrottle = throttle;
+                started[next] = true;
+                futures.set(next, executor.submit(() -> section.render(sectionThrottle, dependencies, lock)));
+            }
+            SnapshotSection content;
+            try {
+                if (timeoutMillis > 0) {
+                    content = futures.get(i).get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } else {
+                    content = futures.get(i).get();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                cancel(futures);
+                throw new IllegalStateException("Interrupted waiting for section " + sections.get(i).name, ex);
+            } catch (TimeoutException ex) {
+                cancel(futures);
+                throw new TimeoutException("Deadline of " + timeoutMillis + " ms exceeded waiting for section "
+                        + sections.get(i).name + ", " + i + " of " + sections.size() + " sections captured");
+            } catch (ExecutionException ex) {
+                log.warn("Unable to capture section {}", sections.get(i).name, ex.getCause());
+                content = new SectionWriter().text("Unable to capture section " + sections.get(i).name + ": " + ex.getCause()).toSection(sections.get(i).name);
+            }
+            futures.set(i, null);
+            if (sections.get(i).spent != null) {
+                costs.computeIfAbsent(sections.get(i).name, name -> new CaptureCost()).add(sections.get(i).spent);
+            }
+            if (!content.isEmpty()) {
+                sink.accept(content);
+            }
+        }
+    }
+
+    /**
+     * The costliest section of the window not started yet whose dependencies have been started, or -1 when every
+     * section of the window has been started. The sections before the window have all been started.
+     */
+    private int next(boolean[] started, int from, int to) {
+        int next = -1;
+        for (int i = from; i < to; i++) {
+            if (started[i] || (next >= 0 && sections.get(i).cost.compareTo(sections.get(next).cost) <= 0)) {
+                continue;
+            }
+            boolean ready = true;
+            for (int dependency : sections.get(i).dependencies) {
+                ready &= started[dependency];
+            }
+            if (ready) {
+                next = i;
+            }
+        }
+        return next;
+    }
+
+    private static void cancel(List<Future<SnapshotSection>> futures) {
+        futures.forEach(future -> {
+            if (future != null) {
+                future.cancel(true);
+            }
+        });
+    }
+
+    /**
+     * Cost of the sections in report order. Sections added under the same name, such as the individual regions,
+     * are summed.
+     */
+    Map<String, CaptureCost> getCosts() {
+        return Collections.unmodifiableMap(costs);
+    }
+
+    /**
+     * The throttle of the last low impact run, or null when the last run was not low impact.
+     */
+    CaptureThrottle getThrottle() {
+        return throttle;
+    }
+
+    private static class Section {
+        private final String name;
+        private final CaptureSection.Cost cost;
+        private final List<Integer> dependencies;
+        private final boolean parallelSafe;
+        private final Consumer<SectionWriter> body;
+        private volatile CaptureCost spent;
+
+        private Section(String name, CaptureSection.Cost cost, List<Integer> dependencies, boolean parallelSafe, Consumer<SectionWriter> body) {
+            this.name = name;
+            this.cost = cost;
+            this.dependencies = dependencies;
+            this.parallelSafe = parallelSafe;
+            this.body = body;
+        }
+
+        /**
+         * Waits for the dependencies before taking the lock, a dependency that is not parallel safe needs every
+         * other section out of the way.
+         */
+        private SnapshotSection render(CaptureThrottle throttle, List<Future<SnapshotSection>> dependencies, Lock lock) throws InterruptedException {
+            for (Future<SnapshotSection> dependency : dependencies) {
+                try {
+                    dependency.get();
+                } catch (ExecutionException | CancellationException ex) {
+                    // a dependency that failed is reported in its own place
+                }
+            }
+            lock.lockInterruptibly();
+            try {
+                return render(throttle);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private SnapshotSection render(CaptureThrottle throttle) {
+            if (throttle == null) {
+                return render();
+            }
+            if (!throttle.pause()) {
+                return new SectionWriter().toSection(name);
+            }
+            final SnapshotSection section = render();
+            throttle.charge(spent);
+            return section;
+        }
+
+        private SnapshotSection render() {
+            final CaptureCost start = CaptureCost.start();
+            SnapshotSection section = null;
+            try {
+                SectionWriter out = new SectionWriter();
+                body.accept(out);
+                section = out.toSection(name);
+                return section;
+            } finally {
+                spent = start.since(section);
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package vmware.data;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.DistributedMember;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Arguments of the {@link Capture} and {@link Analysis} functions. The timeout is the overall deadline of the
+ * capture; every member measures it from the moment it receives the request, so clock skew between members does
+ * not matter. Compression applies to the report payload sent back by every member.
+ * <p>
+ * A request with a capture id asks for a deduplicated capture: the members stage their sections under the id and
+ * answer with a {@link SectionManifest} only, the sections are then fetched with {@link FetchSections}. The base
+ * manifests name, by member, the last manifest the caller holds, against which the member may answer with a delta.
+ * <p>
+ * A low impact capture runs on one throttled thread of minimum priority on every member, see {@link CaptureThrottle}.
+ * <p>
+ * A targeted capture names the members, by member name or server group, and the sections or regions to capture;
+ * an empty set selects everything. Selecting regions selects the regions section.
+ */
+@Getter
+@Setter
+public class CaptureRequest implements DataSerializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final long DEFAULT_TIMEOUT_MILLIS = 120_000L;
+
+    /**
+     * Time a relaying member keeps for itself to report the members that missed the deadline, and time the client
+     * allows on top of the deadline before it gives up on a server.
+     */
+    static final long MARGIN_MILLIS = 5_000L;
+
+    private long timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+    private boolean compressed = true;
+    private String captureId;
+    private Map<String, String> baseManifests = new HashMap<>();
+    private boolean lowImpact;
+    private Set<String> members = new HashSet<>();
+    private Set<String> groups = new HashSet<>();
+    private Set<String> sections = new HashSet<>();
+    private Set<String> regions = new HashSet<>();
+
+    public CaptureRequest() {
+    }
+
+    public CaptureRequest(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Copy of this request with a different timeout, used by {@link Analysis} to pass on what is left of the
+     * deadline.
+     */
+    CaptureRequest withTimeoutMillis(long timeoutMillis) {
+        CaptureRequest request = new CaptureRequest();
+        request.timeoutMillis = timeoutMillis;
+        request.compressed = compressed;
+        request.captureId = captureId;
+        request.baseManifests = baseManifests;
+        request.lowImpact = lowImpact;
+        request.members = members;
+        request.groups = groups;
+        request.sections = sections;
+        request.regions = regions;
+        return request;
+    }
+
+    /**
+     * Whether the member is named by the request or belongs to one of its groups, or the request names neither.
+     */
+    boolean selects(DistributedMember member) {
+        if (members.isEmpty() && groups.isEmpty()) {
+            return true;
+        }
+        return members.contains(member.getName()) || member.getGroups() != null && member.getGroups().stream().anyMatch(groups::contains);
+    }
+
+    /**
+     * Whether only some of the members are asked for, by name or server group.
+     */
+    boolean namesMembers() {
+        return !members.isEmpty() || !groups.isEmpty();
+    }
+
+    /**
+     * Whether only part of the report is asked for, which is then neither shared with nor cached for other
+     * captures.
+     */
+    boolean isTargeted() {
+        return !sections.isEmpty() || !regions.isEmpty();
+    }
+
+    /**
+     * The sections to capture by name, ignoring case.
+     */
+    Predicate<String> sectionFilter() {
+        if (!isTargeted()) {
+            return name -> true;
+        }
+        final Set<String> selected = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        selected.addAll(sections);
+        if (!regions.isEmpty()) {
+            selected.add("Regions");
+        }
+        return selected::contains;
+    }
+
+    /**
+     * The regions to capture, by name or full path.
+     */
+    Predicate<String> regionFilter() {
+        return regions.isEmpty() ? name -> true : regions::contains;
+    }
+
+    static CaptureRequest of(Object arguments) {
+        return arguments instanceof CaptureRequest ? (CaptureRequest) arguments : new CaptureRequest();
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+        out.writeLong(timeoutMillis);
+        out.writeBoolean(compressed);
+        DataSerializer.writeString(captureId, out);
+        out.writeInt(baseManifests.size());
+        for (Map.Entry<String, String> entry : baseManifests.entrySet()) {
+            DataSerializer.writeString(entry.getKey(), out);
+            DataSerializer.writeString(entry.getValue(), out);
+        }
+        out.writeBoolean(lowImpact);
+        writeNames(members, out);
+        writeNames(groups, out);
+        writeNames(sections, out);
+        writeNames(regions, out);
+    }
+
+    private static void writeNames(Set<String> names, DataOutput out) throws IOException {
+        out.writeInt(names.size());
+        for (String name : names) {
+            DataSerializer.writeString(name, out);
+        }
+    }
+
+    private static Set<String> readNames(DataInput in) throws IOException {
+        final int size = in.readInt();
+        final Set<String> names = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            names.add(DataSerializer.readString(in));
+        }
+        return names;
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException {
+        timeoutMillis = in.readLong();
+        compressed = in.readBoolean();
+        captureId = DataSerializer.readString(in);
+        final int size = in.readInt();
+        baseManifests = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            baseManifests.put(DataSerializer.readString(in), DataSerializer.readString(in));
+        }
+        lowImpact = in.readBoolean();
+        members = readNames(in);
+        groups = readNames(in);
+        sections = readNames(in);
+        regions = readNames(in);
+    }
+}
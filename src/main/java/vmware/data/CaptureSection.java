@@ -0,0 +1,53 @@
+package vmware.data;
+
+import org.apache.geode.cache.Cache;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A report section contributed from outside this jar. Implementations are discovered with {@link java.util.ServiceLoader}
+ * on every capture, so a site adds its own section by listing its class in
+ * {@code META-INF/services/vmware.data.CaptureSection} of a jar on the server class path. Added sections follow the
+ * built-in ones in the report, ordered by name after their dependencies.
+ * <p>
+ * The capture engine starts the costliest sections of its lookahead first. A section runs only once every section
+ * it depends on is complete, and a section that is not parallel safe runs with no other section running.
+ */
+public interface CaptureSection {
+
+    /**
+     * How long a section takes, which decides the order the engine starts the sections in.
+     */
+    enum Cost {
+        CHEAP,
+        IO,
+        HEAVY
+    }
+
+    /**
+     * The name the section is selected by and reported under in the Capture Cost table.
+     */
+    String getName();
+
+    default Cost getCost() {
+        return Cost.CHEAP;
+    }
+
+    /**
+     * Names of the sections that must be complete before this one starts. Sections that are not part of the
+     * capture are ignored.
+     */
+    default Set<String> getDependencies() {
+        return Collections.emptySet();
+    }
+
+    default boolean isParallelSafe() {
+        return true;
+    }
+
+    /**
+     * Writes the section. An exception is reported in place of the section and does not fail the capture.
+     */
+    void capture(Cache cache, SectionWriter out);
+}
@@ -0,0 +1,74 @@
+package vmware.data;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a low impact capture within its CPU budget: the share of one processor, {@code capture.low-impact.cpu-percent},
+ * that the capture thread may use over the whole capture. Sections call {@link #pause()} before they start, which
+ * sleeps for as long as the CPU time used so far is ahead of the budget and otherwise only yields the processor.
+ * <p>
+ * The CPU time of every section is measured on the capture thread, see {@link CaptureCost}.
+ */
+class CaptureThrottle {
+
+    static final int CPU_PERCENT = Math.max(1, Math.min(100, Integer.getInteger("capture.low-impact.cpu-percent", 10)));
+
+    private final long start = System.nanoTime();
+    private final long deadline;
+    private long cpuNanos;
+    private long pausedNanos;
+
+    /**
+     * @param deadline nano time after which the capture gives up, so pausing any longer is pointless, or zero
+     */
+    CaptureThrottle(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Sleeps until the CPU time used so far fits the budget, or yields when it already does.
+     *
+     * @return false when the thread was interrupted, as a cancelled section is, and true otherwise
+     */
+    boolean pause() {
+        final long now = System.nanoTime();
+        long sleep;
+        synchronized (this) {
+            sleep = cpuNanos * 100 / CPU_PERCENT - (now - start);
+        }
+        if (deadline != 0) {
+            sleep = Math.min(sleep, deadline - now);
+        }
+        if (sleep <= 0) {
+            Thread.yield();
+            return !Thread.currentThread().isInterrupted();
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleep);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            synchronized (this) {
+                pausedNanos += System.nanoTime() - now;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Charges the cost of a section rendered on the capture thread to the budget, its wall time where the JVM does
+     * not measure thread CPU time.
+     */
+    synchronized void charge(CaptureCost cost) {
+        cpuNanos += cost.getCpuNanos() < 0 ? cost.getWallNanos() : cost.getCpuNanos();
+    }
+
+    synchronized long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    synchronized long getPausedNanos() {
+        return pausedNanos;
+    }
+}
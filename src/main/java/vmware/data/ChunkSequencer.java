@@ -0,0 +1,41 @@
+package vmware.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Puts the chunks of one member back in sequence order. The relaying server processes the replies of a remote
+ * member on more than one thread, so they do not always arrive in the order the member sent them. Not thread safe.
+ */
+class ChunkSequencer {
+
+    private final Map<Integer, ReportChunk> waiting = new HashMap<>();
+    private int next;
+
+    /**
+     * @return the chunks that can be handled now, in sequence order; empty while an earlier chunk is missing
+     */
+    List<ReportChunk> accept(ReportChunk chunk) {
+        if (chunk.getSequence() != next) {
+            waiting.put(chunk.getSequence(), chunk);
+            return Collections.emptyList();
+        }
+        final List<ReportChunk> ready = new ArrayList<>();
+        ReportChunk following = chunk;
+        do {
+            ready.add(following);
+            next++;
+        } while ((following = waiting.remove(next)) != null);
+        return ready;
+    }
+
+    /**
+     * Sequence number of the next chunk expected.
+     */
+    int getNext() {
+        return next;
+    }
+}
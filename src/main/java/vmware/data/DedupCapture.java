@@ -0,0 +1,302 @@
+package vmware.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.geode.GemFireException;
+import org.apache.geode.cache.client.Pool;
+import org.apache.geode.cache.execute.Execution;
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.cache.execute.ResultCollector;
+import org.apache.geode.distributed.DistributedMember;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a capture on every server with each distinct part of the reports crossing the network only once. In a
+ * homogeneous cluster most of a report, such as the JVM arguments, properties and cache XML, is the same on every
+ * member.
+ * <p>
+ * The servers first capture their reports, stage them as blocks and answer with a {@link SectionManifest} of block
+ * digests. Every distinct block is then fetched from one of the members that hold it, picking the member with the
+ * fewest bytes to send so far, and the reports of all members are rebuilt from the fetched blocks. No report is
+ * written before every member has answered with its manifest.
+ * <p>
+ * Both phases share one deadline of the read timeout from the start of the capture, none when the read timeout is
+ * 0. A server that fails in the first phase is reported failed, and one that never answers it timed out.
+ * <p>
+ * With a {@link SnapshotStore}, the capture is incremental: the members answer with a delta against the manifests
+ * of the last capture, only blocks that are not in the store are fetched, and the store is replaced at the end.
+ */
+@Slf4j
+class DedupCapture {
+
+    private final Pool pool;
+    private final long readTimeoutMillis;
+    private final SnapshotStore store;
+    private final String date = new SimpleDateFormat("dd-MM-yyyy").format(new Date());
+
+    DedupCapture(Pool pool, long readTimeoutMillis, SnapshotStore store) {
+        this.pool = pool;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.store = store;
+    }
+
+    List<MemberResult> run(CaptureRequest request) {
+        final long deadline = readTimeoutMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(readTimeoutMillis) : 0;
+        final String captureId = UUID.randomUUID().toString();
+        request.setCaptureId(captureId);
+        if (store != null) {
+            request.setBaseManifests(store.getManifestDigests());
+        }
+
+        final ManifestCollector manifestCollector = new ManifestCollector(new PoolServers(pool));
+        List<SectionManifest> manifests;
+        try {
+            final Execution<CaptureRequest, Object, List<SectionManifest>> capture = onServers();
+            capture.setArguments(request).withCollector(manifestCollector).execute("Capture");
+            manifests = deadline == 0 ? manifestCollector.getResult() : manifestCollector.getResult(remaining(deadline), TimeUnit.NANOSECONDS);
+        } catch (GemFireException | InterruptedException ex) {
+            log.warn("Capture did not complete on every server: {}", ex.toString());
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            manifests = manifestCollector.getManifests();
+        }
+
+        final List<MemberResult> results = manifestCollector.getUnanswered();
+        final List<SectionManifest> resolved = new ArrayList<>(manifests.size());
+        for (SectionManifest manifest : manifests) {
+            final SectionManifest base = store == null ? null : store.getManifest(manifest.getMemberName());
+            if (manifest.getStatus() == MemberStatus.SKIPPED) {
+                results.add(new MemberResult(manifest.getMemberName(), MemberStatus.SKIPPED, manifest.getElapsedMillis(), manifest.getCause(), null));
+            } else if (!manifest.isDelta()) {
+                resolved.add(manifest);
+            } else if (base != null && base.getManifestDigest().equals(manifest.getBaseDigest())) {
+                manifest.resolve(base);
+                resolved.add(manifest);
+            } else {
+                results.add(new MemberResult(manifest.getMemberName(), MemberStatus.FAILED, manifest.getElapsedMillis(),
+                        "Delta against unknown manifest " + manifest.getBaseDigest(), null));
+            }
+        }
+
+        final Map<String, byte[]> blocks = new HashMap<>();
+        if (store != null) {
+            blocks.putAll(store.getBlocks());
+        }
+        final Map<String, BitSet> assigned = assign(resolved, blocks.keySet());
+        final Map<String, List<String>> requested = requested(resolved, assigned);
+        log.info("Fetching {} distinct of {} blocks captured on {} servers", requested.values().stream().mapToInt(List::size).sum(),
+                resolved.stream().mapToInt(manifest -> manifest.getDigests().size()).sum(), resolved.size());
+        final SectionCollector sectionCollector = new SectionCollector(requested);
+        try {
+            final Execution<SectionFetch, Object, Map<String, byte[]>> fetch = onServers();
+            fetch.setArguments(new SectionFetch(captureId, request.isCompressed(), assigned)).withCollector(sectionCollector).execute("FetchSections");
+            // the fetch gets what is left of the read timeout after the first phase
+            blocks.putAll(deadline == 0 ? sectionCollector.getResult() : sectionCollector.getResult(remaining(deadline), TimeUnit.NANOSECONDS));
+        } catch (GemFireException | InterruptedException ex) {
+            log.warn("Sections could not be fetched from every server: {}", ex.toString());
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            blocks.putAll(sectionCollector.getBlocks());
+        }
+
+        final Map<String, String> rendered = new HashMap<>();
+        for (SectionManifest manifest : resolved) {
+            results.add(write(manifest, blocks, rendered));
+        }
+        if (store != null) {
+            store.save(resolved, blocks);
+        }
+        return results;
+    }
+
+    /**
+     * An execution on every server of the pool; Geode hands out executions as raw types.
+     */
+    @SuppressWarnings("unchecked")
+    private <IN, AGG> Execution<IN, Object, AGG> onServers() {
+        return FunctionService.onServers(pool);
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * Picks the member that sends each distinct block not held yet, the one holding it with the fewest bytes
+     * assigned so far, and returns the manifest positions each member sends.
+     */
+    static Map<String, BitSet> assign(List<SectionManifest> manifests, Set<String> held) {
+        final Map<String, Map<String, Integer>> holders = new LinkedHashMap<>();
+        final Map<String, Integer> sizes = new HashMap<>();
+        for (SectionManifest manifest : manifests) {
+            for (int i = 0; i < manifest.getDigests().size(); i++) {
+                if (held.contains(manifest.getDigests().get(i))) {
+                    continue;
+                }
+                holders.computeIfAbsent(manifest.getDigests().get(i), digest -> new LinkedHashMap<>()).putIfAbsent(manifest.getMemberName(), i);
+                sizes.put(manifest.getDigests().get(i), manifest.getSizes()[i]);
+            }
+        }
+        final Map<String, BitSet> assigned = new HashMap<>();
+        final Map<String, Long> load = new HashMap<>();
+        manifests.forEach(manifest -> assigned.put(manifest.getMemberName(), new BitSet()));
+        holders.forEach((digest, positions) -> {
+            String member = null;
+            for (String candidate : positions.keySet()) {
+                if (member == null || load.getOrDefault(candidate, 0L) < load.getOrDefault(member, 0L)) {
+                    member = candidate;
+                }
+            }
+            load.merge(member, (long) sizes.get(digest), Long::sum);
+            assigned.get(member).set(positions.get(member));
+        });
+        return assigned;
+    }
+
+    /**
+     * Digests of the blocks a member sends, in the order it sends them.
+     */
+    private static Map<String, List<String>> requested(List<SectionManifest> manifests, Map<String, BitSet> assigned) {
+        final Map<String, List<String>> requested = new HashMap<>();
+        for (SectionManifest manifest : manifests) {
+            final BitSet positions = assigned.get(manifest.getMemberName());
+            final List<String> digests = new ArrayList<>(positions.cardinality());
+            for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+                digests.add(manifest.getDigests().get(position));
+            }
+            requested.put(manifest.getMemberName(), digests);
+        }
+        return requested;
+    }
+
+    /**
+     * Writes the report of a member, rendering every distinct block once for all reports.
+     */
+    private MemberResult write(SectionManifest manifest, Map<String, byte[]> blocks, Map<String, String> rendered) {
+        final List<String> digests = manifest.getDigests();
+        MemberStatus status = manifest.getStatus();
+        String cause = manifest.getCause();
+        int missing = 0;
+        for (String digest : digests) {
+            if (!blocks.containsKey(digest)) {
+                missing++;
+            }
+        }
+        if (missing > 0 && status == MemberStatus.COMPLETE) {
+            status = MemberStatus.FAILED;
+            cause = missing + " of " + digests.size() + " blocks were not received";
+        }
+        try (ReportWriter writer = new ReportWriter(ReportCollector.reportFile(date, manifest.getMemberName()))) {
+            writer.write(HtmlRenderer.PREAMBLE);
+            for (String digest : digests) {
+                final byte[] block = blocks.get(digest);
+                if (block != null) {
+                    String html = rendered.get(digest);
+                    if (html == null) {
+                        final StringBuilder sb = new StringBuilder();
+                        HtmlRenderer.render(SnapshotSection.fromByteArray(block), sb);
+                        html = sb.toString();
+                        rendered.put(digest, html);
+                    }
+                    writer.write(html);
+                }
+            }
+            if (status != MemberStatus.COMPLETE) {
+                writer.write(ReportCollector.incomplete(status, cause));
+            }
+            writer.write(HtmlRenderer.CLOSING);
+            return new MemberResult(manifest.getMemberName(), status, manifest.getElapsedMillis(), cause, writer.getFile());
+        } catch (IOException ex) {
+            log.error("Error writing report of member {}", manifest.getMemberName(), ex);
+            return new MemberResult(manifest.getMemberName(), MemberStatus.FAILED, manifest.getElapsedMillis(), ex.toString(), null);
+        }
+    }
+
+    /**
+     * Collects the manifests of the first phase, and the members that failed or never answered it.
+     */
+    private static class ManifestCollector implements ResultCollector<Object, List<SectionManifest>> {
+
+        private final List<SectionManifest> manifests = new ArrayList<>();
+        private final Map<String, MemberResult> failed = new LinkedHashMap<>();
+        private final PoolServers servers;
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        ManifestCollector(PoolServers servers) {
+            this.servers = servers;
+        }
+
+        @Override
+        public synchronized void addResult(DistributedMember member, Object result) {
+            servers.answered(member);
+            if (result instanceof SectionManifest) {
+                manifests.add((SectionManifest) result);
+            } else if (result instanceof Throwable) {
+                log.warn("Capture failed on member {}", member, (Throwable) result);
+                failed.put(member.getName(), new MemberResult(member.getName(), MemberStatus.FAILED, -1, result.toString(), null));
+            }
+        }
+
+        @Override
+        public void endResults() {
+            done.countDown();
+        }
+
+        @Override
+        public List<SectionManifest> getResult() throws FunctionException {
+            try {
+                done.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new FunctionException("Interrupted waiting for section manifests", ex);
+            }
+            return getManifests();
+        }
+
+        @Override
+        public List<SectionManifest> getResult(long timeout, TimeUnit unit) throws FunctionException, InterruptedException {
+            if (!done.await(timeout, unit)) {
+                throw new FunctionException("Timed out waiting for section manifests");
+            }
+            return getManifests();
+        }
+
+        synchronized List<SectionManifest> getManifests() {
+            return new ArrayList<>(manifests);
+        }
+
+        /**
+         * The members that failed the first phase followed by the servers that sent nothing at all.
+         */
+        synchronized List<MemberResult> getUnanswered() {
+            final List<MemberResult> unanswered = new ArrayList<>(failed.values());
+            final Set<String> answered = new HashSet<>(failed.keySet());
+            manifests.forEach(manifest -> answered.add(manifest.getMemberName()));
+            servers.missing(answered).forEach(memberName ->
+                    unanswered.add(new MemberResult(memberName, MemberStatus.TIMED_OUT, -1, "No answer from the server", null)));
+            return unanswered;
+        }
+
+        @Override
+        public synchronized void clearResults() {
+            manifests.clear();
+            failed.clear();
+        }
+    }
+}
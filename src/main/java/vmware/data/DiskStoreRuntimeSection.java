@@ -0,0 +1,268 @@
+package vmware.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.geode.Statistics;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.DiskStore;
+import org.apache.geode.internal.cache.DirectoryHolder;
+import org.apache.geode.internal.cache.DiskStoreImpl;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.Oplog;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How the disk stores of the member behave, read from their statistics and sampled over a {@link SampleWindow}:
+ * writes, flushes, reads and compactions with their rates and latency, the async queue against its configured size,
+ * the oplogs and how many of them are ready to compact, and the space used and free in every directory against the
+ * warning and critical percentages. Latencies are only measured with {@code enable-time-statistics}. The disk
+ * stores are listed and first sampled when the capture starts.
+ * <p>
+ * Oplog files are preallocated, so the size of an oplog is the bytes written to it rather than the length of its
+ * files; the space a directory holds is the sum of the oplogs written to it.
+ */
+@Slf4j
+class DiskStoreRuntimeSection implements CaptureSection {
+
+    private static final double MB = 1024 * 1024;
+    // directories are sized in megabytes, and left at the largest size when none is given
+    private static final long UNLIMITED = Integer.MAX_VALUE * (long) MB;
+
+    private static final String[] COUNTERS = {"writes", "writtenBytes", "flushes", "flushedBytes", "reads", "readBytes", "removes",
+            "compacts", "writeTime", "flushTime", "readTime", "compactTime"};
+    private static final String[] LABELS = {"Writes", "Written Bytes", "Flushes", "Flushed Bytes", "Reads", "Read Bytes", "Removes",
+            "Compactions"};
+    private static final int WRITES = 0;
+    private static final int FLUSHES = 2;
+    private static final int READS = 4;
+    private static final int COMPACTS = 7;
+    private static final int WRITE_TIME = 8;
+    private static final int FLUSH_TIME = 9;
+    private static final int READ_TIME = 10;
+    private static final int COMPACT_TIME = 11;
+
+    private final long start = System.nanoTime();
+    private final Map<DiskStoreImpl, long[]> first = new LinkedHashMap<>();
+
+    /**
+     * Takes the first sample of every disk store, so the window passes while the rest of the capture runs.
+     */
+    DiskStoreRuntimeSection(InternalCache cache) {
+        final List<DiskStoreImpl> stores = new ArrayList<>();
+        for (DiskStore store : cache.listDiskStoresIncludingRegionOwned()) {
+            if (store instanceof DiskStoreImpl) {
+                stores.add((DiskStoreImpl) store);
+            }
+        }
+        stores.sort(Comparator.comparing(DiskStoreImpl::getName));
+        stores.forEach(store -> first.put(store, sample(store.getStats().getStats())));
+    }
+
+    @Override
+    public String getName() {
+        return "Disk Store Runtime";
+    }
+
+    @Override
+    public void capture(Cache cache, SectionWriter out) {
+        out.heading(3, "Disk Store Runtime");
+        if (first.isEmpty()) {
+            out.text("No Disk Stores Defined");
+            return;
+        }
+        final boolean timed = ((InternalCache) cache).getInternalDistributedSystem().getConfig().getEnableTimeStatistics();
+        final SampleWindow window = new SampleWindow(start);
+        if (!window.await()) {
+            return;
+        }
+        out.text("Sampled over " + window.getElapsedMillis() + " ms");
+        first.forEach((store, before) -> processStore(store, before, timed, window, out));
+    }
+
+    private void processStore(DiskStoreImpl store, long[] before, boolean timed, SampleWindow window, SectionWriter out) {
+        out.heading(4, "Disk Store: " + store.getName());
+        final Statistics statistics = store.getStats().getStats();
+        final long[] after = sample(statistics);
+        final long[] delta = new long[after.length];
+        for (int i = 0; i < after.length; i++) {
+            delta[i] = after[i] - before[i];
+        }
+        // openOplogs counts the oplogs with open files, which includes inactive and compactable oplogs reopened for a
+        // read and the overflow oplogs, so the total is taken from the oplogs of the store instead
+        final Oplog[] all = store.getAllOplogsForBackup();
+        final Oplog[] persistent = all == null ? new Oplog[0] : all;
+        final long oplogs = persistent.length;
+        final long open = statistics.get("openOplogs").longValue();
+        final long inactive = statistics.get("inactiveOplogs").longValue();
+        final long compactable = statistics.get("compactableOplogs").longValue();
+        final long queued = statistics.get("queueSize").longValue();
+
+        out.table("Property", "Value");
+        out.row("Oplogs", oplogs);
+        out.row("Oplogs With Open Files", open);
+        out.row("Inactive Oplogs", inactive);
+        out.row("Oplogs Ready to Compact", compactable);
+        out.row("Oplogs Ready to Compact (%)", oplogs > 0 ? SampleWindow.round(compactable * 100.0 / oplogs) : 0);
+        // an oplog is ready to compact once its live data falls below the threshold, and only counted as such when
+        // the store compacts automatically or allows forced compaction
+        out.row("Compaction Threshold (% Live)", store.getCompactionThreshold());
+        out.row("Auto Compact", store.getAutoCompact());
+        out.row("Allow Forced Compaction", store.getAllowForceCompaction());
+        out.row("Compactions In Progress", statistics.get("compactsInProgress").longValue());
+        out.row("Async Queue Depth", queued);
+        out.row("Async Queue Size", store.getQueueSize() == 0 ? "Unlimited" : store.getQueueSize());
+        out.row("Async Queue Depth (% of Size)", store.getQueueSize() > 0 ? SampleWindow.round(queued * 100.0 / store.getQueueSize()) : "-");
+        out.row("Writes In Progress", statistics.get("writesInProgress").longValue());
+        out.row("Flushes In Progress", statistics.get("flushesInProgress").longValue());
+        out.row("Backups In Progress", statistics.get("backupsInProgress").longValue());
+        out.endTable();
+
+        out.table("Statistic", "Total", "In Window", "Per Second");
+        for (int i = 0; i < LABELS.length; i++) {
+            out.row(LABELS[i], after[i], delta[i], window.perSecond(delta[i]));
+        }
+        out.row("Average Write (us)", average(timed, after, WRITE_TIME, WRITES), average(timed, delta, WRITE_TIME, WRITES), "-");
+        out.row("Average Flush (us)", average(timed, after, FLUSH_TIME, FLUSHES), average(timed, delta, FLUSH_TIME, FLUSHES), "-");
+        out.row("Average Read (us)", average(timed, after, READ_TIME, READS), average(timed, delta, READ_TIME, READS), "-");
+        out.row("Average Compaction (us)", average(timed, after, COMPACT_TIME, COMPACTS), average(timed, delta, COMPACT_TIME, COMPACTS), "-");
+        out.endTable();
+
+        processDirectories(store, out);
+        processOplogs(store, persistent, out);
+    }
+
+    /**
+     * The space of every directory against its size and against its volume, the same two measures the disk usage
+     * monitor compares with the warning and critical percentages.
+     */
+    private void processDirectories(DiskStoreImpl store, SectionWriter out) {
+        final float warning = store.getDiskUsageWarningPercentage();
+        final float critical = store.getDiskUsageCriticalPercentage();
+        out.text("Disk usage warning at " + warning + "%, critical at " + critical + "%, 0 disables");
+        out.table("Directory", "Used (MB)", "Size (MB)", "Used of Size (%)", "Volume (MB)", "Volume Free (MB)", "Volume Used (%)", "Usage");
+        for (DirectoryHolder holder : store.getDirectoryHolders()) {
+            final File dir = holder.getDir();
+            final long volume = dir.getTotalSpace();
+            final long free = dir.getUsableSpace();
+            final boolean sized = holder.getCapacity() > 0 && holder.getCapacity() < UNLIMITED;
+            final double usedOfSize = sized ? holder.getUsedSpace() * 100.0 / holder.getCapacity() : 0;
+            final double volumeUsed = volume > 0 ? (volume - free) * 100.0 / volume : 0;
+            final double usage = Math.max(usedOfSize, volumeUsed);
+            out.row(dir.getAbsolutePath(), megabytes(holder.getUsedSpace()), sized ? megabytes(holder.getCapacity()) : "Unlimited",
+                    sized ? SampleWindow.round(usedOfSize) : "-",
+                    megabytes(volume), megabytes(free), SampleWindow.round(volumeUsed),
+                    critical > 0 && usage >= critical ? "Above Critical" : warning > 0 && usage >= warning ? "Above Warning" : "Normal");
+        }
+        out.endTable();
+    }
+
+    /**
+     * Every oplog with the bytes written to it and its live share against the compaction threshold. Live and garbage
+     * are counted in entries, as Geode counts them when it decides an oplog needs compacting: once its live share is
+     * at or below the threshold.
+     */
+    private void processOplogs(DiskStoreImpl store, Oplog[] oplogs, SectionWriter out) {
+        if (oplogs.length == 0) {
+            out.text("No Persistent Oplogs");
+            return;
+        }
+        Arrays.sort(oplogs, Comparator.comparingLong(Oplog::getOplogId));
+        final int threshold = store.getCompactionThreshold();
+        out.table("Oplog", "Directory", "Size (MB)", "Live Entries", "Total Entries", "Live (%)", "Garbage (%)", "Compaction");
+        for (Oplog oplog : oplogs) {
+            final long size = OplogCounts.size(oplog);
+            final long live = OplogCounts.live(oplog);
+            final long total = OplogCounts.total(oplog);
+            final boolean counted = live >= 0 && total > 0;
+            final double liveShare = counted ? Math.min(live, total) * 100.0 / total : 0;
+            out.row(oplog.getOplogId(), oplog.getDirectoryHolder().getDir().getAbsolutePath(), size < 0 ? "-" : megabytes(size),
+                    live < 0 ? "-" : live, total < 0 ? "-" : total, counted ? SampleWindow.round(liveShare) : "-",
+                    counted ? SampleWindow.round(100 - liveShare) : "-",
+                    !counted ? "-" : threshold > 0 && liveShare <= threshold ? "At or Below Threshold" : "Above Threshold");
+        }
+        out.endTable();
+    }
+
+    /**
+     * Average time of an operation in microseconds, the times are kept in nanoseconds.
+     */
+    private static Object average(boolean timed, long[] values, int time, int count) {
+        return timed && values[count] > 0 ? SampleWindow.round(values[time] / 1_000.0 / values[count]) : "-";
+    }
+
+    private static long[] sample(Statistics statistics) {
+        final long[] values = new long[COUNTERS.length];
+        for (int i = 0; i < COUNTERS.length; i++) {
+            values[i] = statistics.get(COUNTERS[i]).longValue();
+        }
+        return values;
+    }
+
+    private static double megabytes(long bytes) {
+        return SampleWindow.round(bytes / MB);
+    }
+
+    /**
+     * The bytes written to an oplog and its entry counts. Geode keeps them package-private, so they are read by
+     * reflection; -1 when they cannot be read.
+     */
+    private static final class OplogCounts {
+
+        private static final Method SIZE = method("getOplogSize");
+        private static final Method LIVE = method("getTotalLiveCount");
+        private static final Field TOTAL = field("totalCount");
+
+        static long size(Oplog oplog) {
+            return SIZE == null ? -1 : value(() -> (Long) SIZE.invoke(oplog));
+        }
+
+        static long live(Oplog oplog) {
+            return LIVE == null ? -1 : value(() -> ((AtomicLong) LIVE.invoke(oplog)).get());
+        }
+
+        static long total(Oplog oplog) {
+            return TOTAL == null ? -1 : value(() -> ((AtomicLong) TOTAL.get(oplog)).get());
+        }
+
+        private static long value(Callable<Long> reader) {
+            try {
+                return reader.call();
+            } catch (Exception ex) {
+                log.debug("Unable to read oplog counts", ex);
+                return -1;
+            }
+        }
+
+        private static Method method(String name) {
+            try {
+                final Method method = Oplog.class.getDeclaredMethod(name);
+                method.setAccessible(true);
+                return method;
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                log.warn("Oplog sizes are not reported, {} is not accessible: {}", name, ex.toString());
+                return null;
+            }
+        }
+
+        private static Field field(String name) {
+            try {
+                final Field field = Oplog.class.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                log.warn("Oplog entry counts are not reported, {} is not accessible: {}", name, ex.toString());
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package vmware.data;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.geode.cache.CustomExpiry;
+import org.apache.geode.cache.ExpirationAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.InternalRegion;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.NonTXEntry;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.PartitionedRegionDataStore;
+import org.apache.geode.internal.cache.RegionEntry;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates a {@link CustomExpiry} over a bounded sample of the entries held in memory by this member. Only the
+ * local region map, or the locally hosted primary buckets of a partitioned region, are read. Entries whose value
+ * has been overflowed to disk are skipped so that sampling never faults values back in, and sampling stops when
+ * either the entry or the time budget is used up.
+ */
+@Slf4j
+class ExpirySampler {
+
+    static final int MAX_ENTRIES = Integer.getInteger("capture.expiry-sample.entries", 100);
+    static final long MAX_MILLIS = Long.getLong("capture.expiry-sample.millis", 200L);
+
+    private final int maxEntries;
+    private final long maxNanos;
+
+    ExpirySampler() {
+        this(MAX_ENTRIES, MAX_MILLIS);
+    }
+
+    ExpirySampler(int maxEntries, long maxMillis) {
+        this.maxEntries = maxEntries;
+        this.maxNanos = TimeUnit.MILLISECONDS.toNanos(maxMillis);
+    }
+
+    int getMaxEntries() {
+        return maxEntries;
+    }
+
+    long getMaxMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos);
+    }
+
+    Sample sample(InternalRegion region, CustomExpiry<?, ?> expiry) {
+        final Sample sample = new Sample();
+        final long deadline = System.nanoTime() + maxNanos;
+        if (region instanceof PartitionedRegion) {
+            PartitionedRegionDataStore dataStore = ((PartitionedRegion) region).getDataStore();
+            if (dataStore != null) {
+                for (BucketRegion bucket : dataStore.getAllLocalPrimaryBucketRegions()) {
+                    if (!sample(bucket, expiry, sample, deadline)) {
+                        break;
+                    }
+                }
+            }
+        } else if (region instanceof LocalRegion) {
+            sample((LocalRegion) region, expiry, sample, deadline);
+        }
+        return sample;
+    }
+
+    private boolean sample(LocalRegion region, CustomExpiry<?, ?> expiry, Sample sample, long deadline) {
+        for (RegionEntry entry : region.getRegionMap().regionEntries()) {
+            if (sample.sampled >= maxEntries) {
+                return false;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                sample.timeBudgetExhausted = true;
+                return false;
+            }
+            // a null value in the VM means the value has been overflowed to disk
+            if (entry.isInvalidOrRemoved() || entry.isValueNull()) {
+                continue;
+            }
+            sample.sampled++;
+            try {
+                ExpirationAttributes attributes = expiry.getExpiry((Region.Entry) new NonTXEntry(region, entry));
+                if (attributes == null) {
+                    sample.defaulted++;
+                } else {
+                    sample.distribution.merge(attributes, 1, Integer::sum);
+                }
+            } catch (RuntimeException ex) {
+                log.debug("Custom expiry {} failed for region {}", expiry.getClass().getName(), region.getFullPath(), ex);
+                sample.failed++;
+            }
+        }
+        return true;
+    }
+
+    @Getter
+    static class Sample {
+        private final Map<ExpirationAttributes, Integer> distribution = new LinkedHashMap<>();
+        private int sampled;
+        private int defaulted;
+        private int failed;
+        private boolean timeBudgetExhausted;
+
+        Map<ExpirationAttributes, Integer> getDistribution() {
+            return Collections.unmodifiableMap(distribution);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package vmware.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.execute.Function;
+import org.apache.geode.cache.execute.FunctionContext;
+
+import java.util.BitSet;
+
+/**
+ * Second phase of a deduplicated capture. Every member takes its staged capture and streams the blocks asked of it
+ * as {@link ReportChunk}s, one block per chunk in manifest order, so the caller can match each chunk to its digest
+ * by sequence number. A position the stage does not hold is sent as a chunk without a section.
+ */
+@Slf4j
+public class FetchSections implements Function<SectionFetch> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public boolean hasResult() {
+        return true;
+    }
+
+    @Override
+    public void execute(FunctionContext<SectionFetch> functionContext) {
+        final SectionFetch fetch = functionContext.getArguments();
+        final String memberName = CacheFactory.getAnyInstance().getDistributedSystem().getDistributedMember().getName();
+        final ReportChunkSender sender = new ReportChunkSender(functionContext.getResultSender(), memberName, fetch.isCompressed());
+        final SectionStage stage = SectionStage.take(fetch.getCaptureId());
+        if (stage == null) {
+            log.warn("No staged capture {} on member {}", fetch.getCaptureId(), memberName);
+            sender.close(MemberStatus.FAILED, "No staged capture " + fetch.getCaptureId());
+            return;
+        }
+        try {
+            final BitSet positions = fetch.getPositions(memberName);
+            for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+                final byte[] block = stage.get(position);
+                sender.accept(block == null ? new byte[0] : block);
+            }
+            sender.close(MemberStatus.COMPLETE, null);
+        } catch (RuntimeException ex) {
+            log.error("Fetching sections on member {} failed", memberName, ex);
+            sender.close(MemberStatus.FAILED, ex.toString());
+        }
+    }
+
+    @Override
+    public String getId() {
+        return this.getClass().getSimpleName();
+    }
+
+    @Override
+    public boolean optimizeForWrite() {
+        return false;
+    }
+
+    @Override
+    public boolean isHA() {
+        // the stage is taken by the first attempt, a retry would find nothing
+        return false;
+    }
+}
@@ -0,0 +1,96 @@
+package vmware.data;
+
+import java.util.Locale;
+
+/**
+ * Renders {@link SnapshotSection}s to the HTML layout of the member reports. All captured text is escaped, so
+ * values such as the cache XML file lines show up as text instead of being read as markup.
+ */
+class HtmlRenderer {
+
+    static final String PREAMBLE = "<html><heading></heading><title>Cache Server Analysis</title><body><br>";
+    static final String CLOSING = "</body></html>";
+
+    static void render(SnapshotSection section, StringBuilder sb) {
+        for (SnapshotElement element : section.getElements()) {
+            switch (element.getKind()) {
+                case HEADING:
+                    sb.append("<h").append(element.getLevel()).append("><b>").append(escape(element.getText()))
+                            .append("</b></h").append(element.getLevel()).append(">");
+                    break;
+                case TEXT:
+                    sb.append("<ui>").append(escape(element.getText())).append("</ui><br>");
+                    break;
+                case TABLE:
+                    sb.append("<table>");
+                    if (element.getValues().length > 0) {
+                        sb.append("<tr>");
+                        for (Object column : element.getValues()) {
+                            sb.append("<td><b>").append(escape(String.valueOf(column))).append("</b></td>");
+                        }
+                        sb.append("</tr>");
+                    }
+                    break;
+                case ROW:
+                    sb.append("<tr>");
+                    for (Object cell : element.getValues()) {
+                        sb.append("<td>").append(escape(format(cell))).append("</td>");
+                    }
+                    sb.append("</tr>");
+                    break;
+                case END_TABLE:
+                    sb.append("</table>");
+                    break;
+                case RULE:
+                    sb.append("<b>").append("---------------------------------").append("</b><br>");
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    static String format(Object value) {
+        if (value instanceof Double) {
+            // the same digits on every client, whatever its locale
+            return String.format(Locale.ROOT, "%.3f", value);
+        }
+        return String.valueOf(value);
+    }
+
+    static String escape(String text) {
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            final String replacement;
+            switch (c) {
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                default:
+                    replacement = null;
+                    break;
+            }
+            if (replacement != null && sb == null) {
+                sb = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if (sb != null) {
+                if (replacement == null) {
+                    sb.append(c);
+                } else {
+                    sb.append(replacement);
+                }
+            }
+        }
+        return sb == null ? text : sb.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package vmware.data;
+
+import org.apache.geode.cache.Cache;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ * How the JVM behaves rather than how it is configured, read from the platform MXBeans: garbage collection, JIT
+ * compilation and process CPU sampled over a {@link SampleWindow}, memory pools with their occupancy after the last
+ * collection, direct and mapped buffers, and threads by state. Only counters are read and threads are listed
+ * without stacks, so the section costs a few milliseconds. The first sample is taken when the capture starts, and
+ * the window has mostly passed by the time the section is written.
+ */
+class JvmRuntimeSection implements CaptureSection {
+
+    private static final double MB = 1024 * 1024;
+
+    private final long start = System.nanoTime();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+    private final boolean jitTimed = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+    private final long[] counts = new long[collectors.size()];
+    private final long[] times = new long[collectors.size()];
+    private final long jitTime;
+    private final long cpuTime;
+
+    /**
+     * Takes the first sample, so the window passes while the rest of the capture runs.
+     */
+    JvmRuntimeSection() {
+        for (int i = 0; i < collectors.size(); i++) {
+            counts[i] = collectors.get(i).getCollectionCount();
+            times[i] = collectors.get(i).getCollectionTime();
+        }
+        jitTime = jitTimed ? compilation.getTotalCompilationTime() : 0;
+        cpuTime = processCpuTime();
+    }
+
+    @Override
+    public String getName() {
+        return "JVM Runtime";
+    }
+
+    @Override
+    public void capture(Cache cache, SectionWriter out) {
+        final SampleWindow window = new SampleWindow(start);
+        if (!window.await()) {
+            return;
+        }
+        final long cpuTimeAfter = processCpuTime();
+        final long jitTimeAfter = jitTimed ? compilation.getTotalCompilationTime() : 0;
+
+        out.heading(3, "JVM Runtime");
+        out.text("Sampled over " + window.getElapsedMillis() + " ms");
+        out.table("Property", "Value");
+        out.row("Uptime (s)", ManagementFactory.getRuntimeMXBean().getUptime() / 1000);
+        final int processors = ManagementFactory.getOperatingSystemMXBean().getAvailableProcessors();
+        out.row("Available Processors", processors);
+        out.row("Process CPU in Window (% of Processors)", cpuTime < 0 || cpuTimeAfter < 0 ? "-"
+                : window.percentOfWindow((cpuTimeAfter - cpuTime) / 1_000_000.0 / processors));
+        if (compilation != null) {
+            out.row("JIT Compiler", compilation.getName());
+            out.row("JIT Time (ms)", jitTimed ? jitTimeAfter : "-");
+            out.row("JIT Time in Window (ms)", jitTimed ? jitTimeAfter - jitTime : "-");
+        }
+        out.row("Loaded Classes", ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+        out.endTable();
+
+        out.heading(4, "Garbage Collection");
+        out.table("Collector", "Collections", "Time (ms)", "Average (ms)", "Collections in Window", "Collections per Second",
+                "Time in Window (ms)", "Time in Window (%)");
+        for (int i = 0; i < collectors.size(); i++) {
+            final GarbageCollectorMXBean collector = collectors.get(i);
+            final long count = collector.getCollectionCount();
+            final long time = collector.getCollectionTime();
+            out.row(collector.getName(), count, time, count > 0 ? SampleWindow.round((double) time / count) : 0, count - counts[i],
+                    window.perSecond(count - counts[i]), time - times[i], window.percentOfWindow(time - times[i]));
+        }
+        out.endTable();
+
+        out.heading(4, "Memory Pools");
+        out.table("Pool", "Type", "Used (MB)", "Committed (MB)", "Max (MB)", "Peak Used (MB)", "Used After Last GC (MB)",
+                "Occupancy After Last GC (%)");
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (!pool.isValid()) {
+                continue;
+            }
+            final MemoryUsage usage = pool.getUsage();
+            final MemoryUsage afterGc = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            final long max = usage.getMax() > 0 ? usage.getMax() : usage.getCommitted();
+            out.row(pool.getName(), pool.getType() == MemoryType.HEAP ? "Heap" : "Non-Heap", megabytes(usage.getUsed()),
+                    megabytes(usage.getCommitted()), usage.getMax() < 0 ? "-" : megabytes(usage.getMax()), megabytes(pool.getPeakUsage().getUsed()),
+                    afterGc == null ? "-" : megabytes(afterGc.getUsed()),
+                    afterGc == null || max <= 0 ? "-" : SampleWindow.round(afterGc.getUsed() * 100.0 / max));
+        }
+        out.endTable();
+
+        out.heading(4, "Buffer Pools");
+        out.table("Pool", "Buffers", "Used (MB)", "Capacity (MB)");
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            out.row(pool.getName(), pool.getCount(), megabytes(pool.getMemoryUsed()), megabytes(pool.getTotalCapacity()));
+        }
+        out.endTable();
+
+        processThreads(out);
+    }
+
+    private void processThreads(SectionWriter out) {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        final int[] states = new int[Thread.State.values().length];
+        // no stack frames and no lock details, only the state of every thread
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds(), 0)) {
+            if (info != null) {
+                states[info.getThreadState().ordinal()]++;
+            }
+        }
+        out.heading(4, "Threads");
+        out.table("Property", "Value");
+        out.row("Live Threads", threads.getThreadCount());
+        out.row("Daemon Threads", threads.getDaemonThreadCount());
+        out.row("Peak Threads", threads.getPeakThreadCount());
+        out.row("Threads Started", threads.getTotalStartedThreadCount());
+        for (Thread.State state : Thread.State.values()) {
+            out.row(state.name(), states[state.ordinal()]);
+        }
+        out.endTable();
+    }
+
+    /**
+     * CPU time of the process in nanoseconds, or -1 when the platform does not measure it.
+     */
+    private static long processCpuTime() {
+        final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        return os instanceof com.sun.management.OperatingSystemMXBean ? ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime() : -1;
+    }
+
+    private static double megabytes(long bytes) {
+        return SampleWindow.round(bytes / MB);
+    }
+}
@@ -0,0 +1,21 @@
+package vmware.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.File;
+
+/**
+ * Outcome of the capture of one member as seen by the client. The elapsed time is the one reported by the member
+ * itself and is negative when the member never reported it.
+ */
+@Getter
+@AllArgsConstructor
+public class MemberResult {
+
+    private final String memberName;
+    private final MemberStatus status;
+    private final long elapsedMillis;
+    private final String cause;
+    private final File file;
+}
@@ -0,0 +1,12 @@
+package vmware.data;
+
+/**
+ * How the capture of one member ended. A member that misses the capture deadline still returns the sections it
+ * completed and is reported as timed out. A member left out of a targeted capture is skipped and has no report.
+ */
+public enum MemberStatus {
+    COMPLETE,
+    TIMED_OUT,
+    FAILED,
+    SKIPPED
+}
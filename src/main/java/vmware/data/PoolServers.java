@@ -0,0 +1,64 @@
+package vmware.data;
+
+import org.apache.geode.cache.client.Pool;
+import org.apache.geode.cache.client.internal.Endpoint;
+import org.apache.geode.cache.client.internal.PoolImpl;
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.distributed.internal.ServerLocation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The servers of a client pool that a capture is sent to, used to tell which of them never answered. The locators
+ * are asked for the servers before the capture is sent. A server is known by its member name once it answers, and
+ * by its host and port until then. The pool closes idle connections together with their endpoints, so each name is
+ * noted as the results arrive.
+ */
+class PoolServers {
+
+    private final PoolImpl pool;
+    private final List<ServerLocation> servers;
+    private final Map<ServerLocation, String> names = new ConcurrentHashMap<>();
+    private final Set<DistributedMember> answered = ConcurrentHashMap.newKeySet();
+
+    PoolServers(Pool pool) {
+        this.pool = pool instanceof PoolImpl ? (PoolImpl) pool : null;
+        final List<ServerLocation> all = this.pool == null ? null : this.pool.getConnectionSource().getAllServers();
+        this.servers = all == null ? Collections.emptyList() : new ArrayList<>(all);
+    }
+
+    /**
+     * Notes the name of a server that answered, while the pool still holds its endpoint.
+     */
+    void answered(DistributedMember member) {
+        if (pool == null || !answered.add(member)) {
+            return;
+        }
+        for (Endpoint endpoint : pool.getEndpointMap().values()) {
+            if (member.equals(endpoint.getMemberId())) {
+                names.put(endpoint.getLocation(), member.getName());
+            }
+        }
+    }
+
+    /**
+     * The servers the capture was sent to without a result from them, by name when it is known.
+     */
+    Set<String> missing(Collection<String> memberNames) {
+        final Set<String> missing = new TreeSet<>();
+        for (ServerLocation server : servers) {
+            final String name = names.getOrDefault(server, server.toString());
+            if (!memberNames.contains(name)) {
+                missing.add(name);
+            }
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,220 @@
+package vmware.data;
+
+import org.apache.geode.Statistics;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.asyncqueue.AsyncEventQueue;
+import org.apache.geode.cache.asyncqueue.internal.AsyncEventQueueImpl;
+import org.apache.geode.cache.wan.GatewaySender;
+import org.apache.geode.internal.cache.DiskRegion;
+import org.apache.geode.internal.cache.DiskRegionStats;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.RegionQueue;
+import org.apache.geode.internal.cache.wan.AbstractGatewaySender;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The backlog and throughput of the gateway senders and async event queues of the member, read from their
+ * statistics and sampled over a {@link SampleWindow}: events queued, distributed, conflated and filtered, batches and
+ * their average dispatch time, and the queue entries held in memory and overflowed to disk. The time to drain is the
+ * queue size over the rate the queue shrinks at during the window. A queue that holds events and distributed none
+ * in the window is reported as stalled, which is how a slow WAN link or a stuck listener shows. Batch times are only
+ * measured with {@code enable-time-statistics}. The queues are listed and first sampled when the capture starts.
+ */
+class QueueBacklogSection implements CaptureSection {
+
+    private static final String[] COUNTERS = {"eventsReceived", "eventsQueued", "eventsDistributed", "eventsNotQueuedConflated",
+            "eventsConflatedFromBatches", "eventsFiltered", "eventsExceedingAlertThreshold", "batchesDistributed", "batchesRedistributed",
+            "batchDistributionTime"};
+    private static final String[] LABELS = {"Events Received", "Events Queued", "Events Distributed", "Events Conflated Before Queueing",
+            "Events Conflated From Batches", "Events Filtered", "Events Exceeding Alert Threshold", "Batches Distributed", "Batches Redistributed"};
+    private static final int QUEUED = 1;
+    private static final int DISTRIBUTED = 2;
+    private static final int BATCHES = 7;
+    private static final int BATCH_TIME = 9;
+    // disk writes are sampled after the counters of the sender
+    private static final int DISK_WRITES = COUNTERS.length;
+
+    private final long start = System.nanoTime();
+    private final Map<String, AbstractGatewaySender> queues;
+    private final Map<String, long[]> first = new LinkedHashMap<>();
+
+    /**
+     * Takes the first sample of every queue, so the window passes while the rest of the capture runs.
+     */
+    QueueBacklogSection(InternalCache cache) {
+        queues = queues(cache);
+        queues.forEach((name, sender) -> first.put(name, sample(sender)));
+    }
+
+    @Override
+    public String getName() {
+        return "Queue Backlog";
+    }
+
+    @Override
+    public void capture(Cache cache, SectionWriter out) {
+        out.heading(3, "Queue Backlog");
+        if (queues.isEmpty()) {
+            out.text("No Gateway Senders or Async Event Queues Defined");
+            return;
+        }
+        final boolean timed = ((InternalCache) cache).getInternalDistributedSystem().getConfig().getEnableTimeStatistics();
+        final SampleWindow window = new SampleWindow(start);
+        if (!window.await()) {
+            return;
+        }
+        out.text("Sampled over " + window.getElapsedMillis() + " ms");
+        queues.forEach((name, sender) -> processQueue(name, sender, first.get(name), timed, window, out));
+    }
+
+    /**
+     * The gateway senders followed by the async event queues, each by the name it is reported under.
+     */
+    private static Map<String, AbstractGatewaySender> queues(InternalCache cache) {
+        final Map<String, AbstractGatewaySender> queues = new LinkedHashMap<>();
+        final List<GatewaySender> senders = new ArrayList<>(cache.getGatewaySenders());
+        senders.sort(Comparator.comparing(GatewaySender::getId));
+        senders.forEach(sender -> {
+            if (sender instanceof AbstractGatewaySender) {
+                queues.put("Gateway Sender: " + sender.getId(), (AbstractGatewaySender) sender);
+            }
+        });
+        final List<AsyncEventQueue> asyncQueues = new ArrayList<>(cache.getAsyncEventQueues());
+        asyncQueues.sort(Comparator.comparing(AsyncEventQueue::getId));
+        asyncQueues.forEach(queue -> {
+            if (queue instanceof AsyncEventQueueImpl && ((AsyncEventQueueImpl) queue).getSender() instanceof AbstractGatewaySender) {
+                queues.put("Async Event Queue: " + queue.getId(), (AbstractGatewaySender) ((AsyncEventQueueImpl) queue).getSender());
+            }
+        });
+        return queues;
+    }
+
+    private void processQueue(String name, AbstractGatewaySender sender, long[] before, boolean timed, SampleWindow window, SectionWriter out) {
+        out.heading(4, name);
+        final long[] after = sample(sender);
+        final long[] delta = new long[after.length];
+        for (int i = 0; i < after.length; i++) {
+            delta[i] = after[i] - before[i];
+        }
+        final int size = sender.getEventQueueSize();
+        long inMemory = 0;
+        long overflowed = 0;
+        long overflowedBytes = 0;
+        long bytes = -1;
+        for (DiskRegionStats stats : diskStats(sender)) {
+            inMemory += stats.getNumEntriesInVM();
+            overflowed += stats.getNumOverflowOnDisk();
+            overflowedBytes += stats.getNumOverflowBytesOnDisk();
+        }
+        for (RegionQueue queue : queues(sender)) {
+            if (queue.getRegion() instanceof PartitionedRegion) {
+                bytes = Math.max(0, bytes) + ((PartitionedRegion) queue.getRegion()).getPrStats().getStats().get("dataStoreBytesInUse").longValue();
+            }
+        }
+
+        out.table("Property", "Value");
+        out.row("State", !sender.isRunning() ? "Stopped" : sender.isPaused() ? "Paused" : "Running");
+        out.row("Primary", sender.isParallel() ? "Parallel, Primary for Its Own Buckets" : sender.isPrimary());
+        out.row("Queue Size", size);
+        out.row("Secondary Queue Size", sender.getSecondaryEventQueueSize());
+        out.row("Temporary Queue Size", sender.getTmpQueuedEventSize());
+        out.row("Queue Bytes", bytes < 0 ? "-" : bytes);
+        out.row("Maximum Queue Memory (MB)", sender.getMaximumQueueMemory());
+        out.row("Entries In Memory", inMemory);
+        out.row("Entries Overflowed to Disk", overflowed);
+        out.row("Bytes Overflowed to Disk", overflowedBytes);
+        out.row("Time to Drain (s)", drain(sender, size, delta, window));
+        out.endTable();
+
+        out.table("Statistic", "Total", "In Window", "Per Second");
+        for (int i = 0; i < LABELS.length; i++) {
+            out.row(LABELS[i], after[i], delta[i], window.perSecond(delta[i]));
+        }
+        out.row("Disk Writes", after[DISK_WRITES], delta[DISK_WRITES], window.perSecond(delta[DISK_WRITES]));
+        out.row("Average Batch Time (ms)", average(timed, after), average(timed, delta), "-");
+        out.endTable();
+    }
+
+    /**
+     * Seconds until the queue is empty at the rate it shrank at during the window, or why it will not drain.
+     */
+    private static Object drain(AbstractGatewaySender sender, int size, long[] delta, SampleWindow window) {
+        if (size == 0) {
+            return "Empty";
+        }
+        if (!sender.isRunning()) {
+            return "Not Draining, Stopped";
+        }
+        if (sender.isPaused()) {
+            return "Not Draining, Paused";
+        }
+        if (!sender.isParallel() && !sender.isPrimary()) {
+            return "Drained by the Primary";
+        }
+        if (delta[DISTRIBUTED] == 0) {
+            return "Stalled, Nothing Distributed in Window";
+        }
+        final double shrinking = window.perSecond(delta[DISTRIBUTED] - delta[QUEUED]);
+        return shrinking > 0 ? SampleWindow.round(size / shrinking) : "Growing, Events Queued Faster Than Distributed";
+    }
+
+    /**
+     * Average dispatch time of a batch in milliseconds, the batch time is kept in nanoseconds.
+     */
+    private static Object average(boolean timed, long[] values) {
+        return timed && values[BATCHES] > 0 ? SampleWindow.round(values[BATCH_TIME] / 1_000_000.0 / values[BATCHES]) : "-";
+    }
+
+    private static long[] sample(AbstractGatewaySender sender) {
+        final long[] values = new long[COUNTERS.length + 1];
+        final Statistics statistics = sender.getStatistics().getStats();
+        for (int i = 0; i < COUNTERS.length; i++) {
+            values[i] = statistics.get(COUNTERS[i]).longValue();
+        }
+        for (DiskRegionStats stats : diskStats(sender)) {
+            values[DISK_WRITES] += stats.getWrites();
+        }
+        return values;
+    }
+
+    /**
+     * The regions holding the queue, one per dispatcher thread of a serial sender and one for a parallel sender.
+     */
+    private static List<RegionQueue> queues(AbstractGatewaySender sender) {
+        final List<RegionQueue> queues = new ArrayList<>();
+        if (sender.getQueues() != null) {
+            sender.getQueues().forEach(queue -> {
+                if (queue != null && queue.getRegion() != null) {
+                    queues.add(queue);
+                }
+            });
+        }
+        return queues;
+    }
+
+    private static List<DiskRegionStats> diskStats(AbstractGatewaySender sender) {
+        final List<DiskRegionStats> stats = new ArrayList<>();
+        for (RegionQueue queue : queues(sender)) {
+            final Region<?, ?> region = queue.getRegion();
+            if (region instanceof PartitionedRegion) {
+                if (((PartitionedRegion) region).getDiskRegionStats() != null) {
+                    stats.add(((PartitionedRegion) region).getDiskRegionStats());
+                }
+            } else if (region instanceof LocalRegion) {
+                final DiskRegion disk = ((LocalRegion) region).getDiskRegion();
+                if (disk != null) {
+                    stats.add(disk.getStats());
+                }
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,63 @@
+package vmware.data;
+
+import org.apache.geode.cache.DiskStore;
+import org.apache.geode.cache.lucene.LuceneIndex;
+import org.apache.geode.cache.lucene.LuceneServiceProvider;
+import org.apache.geode.cache.lucene.internal.LuceneIndexImpl;
+import org.apache.geode.cache.lucene.internal.LuceneServiceImpl;
+import org.apache.geode.cache.lucene.internal.cli.LuceneIndexDetails;
+import org.apache.geode.cache.lucene.internal.cli.LuceneIndexStatus;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.internal.cache.InternalCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Query indexes, Lucene indexes and disk stores resolved once per capture, keyed by region path or disk store
+ * name, so the region sections can be rendered concurrently without asking the services again for every region.
+ */
+class RegionLookups {
+
+    private final InternalCache cache;
+    private final Map<String, List<Index>> indexes = new HashMap<>();
+    private final Map<String, Set<LuceneIndexDetails>> luceneIndexes = new HashMap<>();
+    private final Map<String, DiskStore> diskStores = new HashMap<>();
+
+    RegionLookups(InternalCache cache) {
+        this.cache = cache;
+        cache.getQueryService().getIndexes().forEach(index -> indexes.computeIfAbsent(index.getRegion().getFullPath(), k -> new ArrayList<>()).add(index));
+
+        String serverName = cache.getDistributedSystem().getDistributedMember().getName();
+        LuceneServiceImpl service = (LuceneServiceImpl) LuceneServiceProvider.get(cache);
+        for (LuceneIndex index : service.getAllIndexes()) {
+            LuceneIndexStatus initialized;
+            if (index.isIndexingInProgress()) {
+                initialized = LuceneIndexStatus.INDEXING_IN_PROGRESS;
+            } else {
+                initialized = LuceneIndexStatus.INITIALIZED;
+            }
+            luceneIndexes.computeIfAbsent(index.getRegionPath(), k -> new HashSet<>()).add(new LuceneIndexDetails((LuceneIndexImpl) index, serverName, initialized));
+        }
+
+        cache.listDiskStoresIncludingRegionOwned().forEach(diskStore -> diskStores.put(diskStore.getName(), diskStore));
+    }
+
+    List<Index> getIndexes(String regionPath) {
+        return indexes.getOrDefault(regionPath, Collections.emptyList());
+    }
+
+    Set<LuceneIndexDetails> getLuceneIndexes(String regionPath) {
+        return luceneIndexes.getOrDefault(regionPath, Collections.emptySet());
+    }
+
+    DiskStore getDiskStore(String name) {
+        DiskStore diskStore = diskStores.get(name);
+        return diskStore == null ? cache.findDiskStore(name) : diskStore;
+    }
+}
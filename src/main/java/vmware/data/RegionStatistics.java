@@ -0,0 +1,103 @@
+package vmware.data;
+
+import org.apache.geode.Statistics;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.InternalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Live figures of the regions of one capture, read from the statistics of every region: gets, misses, puts, creates
+ * and destroys with their rates, the hit ratio, the average get and put time and the entries held, with their bytes
+ * for a partitioned region. Puts count the operations started on this member, remote updates those applied here
+ * from other members, which is how the buckets of a partitioned region receive their puts. The first sample of all
+ * regions is taken when the capture starts, and the second when the section of a region is written, at least a
+ * {@link SampleWindow} later. Get and put times are only measured with {@code enable-time-statistics}.
+ */
+class RegionStatistics {
+
+    private static final String[] COUNTERS = {"gets", "misses", "puts", "updates", "creates", "destroys", "getTime", "putTime"};
+    private static final String[] LABELS = {"Gets", "Misses", "Puts", "Remote Updates", "Creates", "Destroys"};
+    private static final int GETS = 0;
+    private static final int MISSES = 1;
+    private static final int PUTS = 2;
+    private static final int GET_TIME = 6;
+    private static final int PUT_TIME = 7;
+
+    private final long start = System.nanoTime();
+    private final Map<InternalRegion, long[]> first = new HashMap<>();
+    private final boolean timed;
+
+    RegionStatistics(InternalCache cache, Collection<InternalRegion> regions) {
+        timed = cache.getInternalDistributedSystem().getConfig().getEnableTimeStatistics();
+        regions.forEach(region -> {
+            final Statistics statistics = statistics(region);
+            if (statistics != null) {
+                first.put(region, sample(statistics));
+            }
+        });
+    }
+
+    void write(InternalRegion region, SectionWriter out) {
+        out.heading(4, "Runtime Statistics");
+        final long[] before = first.get(region);
+        final Statistics statistics = statistics(region);
+        if (before == null || statistics == null) {
+            out.text("No Region Statistics Available");
+            return;
+        }
+        final SampleWindow window = new SampleWindow(start);
+        if (!window.await()) {
+            return;
+        }
+        final long[] after = sample(statistics);
+        final long[] delta = new long[after.length];
+        for (int i = 0; i < after.length; i++) {
+            delta[i] = after[i] - before[i];
+        }
+        out.text("Sampled over " + window.getElapsedMillis() + " ms");
+        out.table("Statistic", "Total", "In Window", "Per Second");
+        for (int i = 0; i < LABELS.length; i++) {
+            out.row(LABELS[i], after[i], delta[i], window.perSecond(delta[i]));
+        }
+        out.row("Hit Ratio (%)", hitRatio(after), hitRatio(delta), "-");
+        out.row("Average Get (us)", average(after, GET_TIME, GETS), average(delta, GET_TIME, GETS), "-");
+        out.row("Average Put (us)", average(after, PUT_TIME, PUTS), average(delta, PUT_TIME, PUTS), "-");
+        out.row("Entries", statistics.get("entries").longValue(), "-", "-");
+        if (region instanceof PartitionedRegion) {
+            out.row("Entry Bytes", ((PartitionedRegion) region).getPrStats().getStats().get("dataStoreBytesInUse").longValue(), "-", "-");
+        }
+        out.endTable();
+    }
+
+    private static Object hitRatio(long[] values) {
+        return values[GETS] > 0 ? SampleWindow.round((values[GETS] - values[MISSES]) * 100.0 / values[GETS]) : "-";
+    }
+
+    /**
+     * Average time of an operation in microseconds, the time statistics are kept in nanoseconds.
+     */
+    private Object average(long[] values, int time, int count) {
+        return timed && values[count] > 0 ? SampleWindow.round(values[time] / 1_000.0 / values[count]) : "-";
+    }
+
+    private static long[] sample(Statistics statistics) {
+        final long[] values = new long[COUNTERS.length];
+        for (int i = 0; i < COUNTERS.length; i++) {
+            values[i] = statistics.get(COUNTERS[i]).longValue();
+        }
+        return values;
+    }
+
+    /**
+     * The statistics of the region itself, null when it only has those of the whole cache.
+     */
+    private static Statistics statistics(InternalRegion region) {
+        final CachePerfStats stats = region.getRegionPerfStats();
+        return stats == null || stats == region.getCache().getCachePerfStats() ? null : stats.getStats();
+    }
+}
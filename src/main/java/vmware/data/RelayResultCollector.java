@@ -0,0 +1,137 @@
+package vmware.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.cache.execute.ResultCollector;
+import org.apache.geode.cache.execute.ResultSender;
+import org.apache.geode.distributed.DistributedMember;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forwards every chunk received from a member straight to the caller of {@link Analysis} instead of buffering
+ * the member reports, so the relaying server only ever holds the chunks that are in flight. When the relay is
+ * closed every member that has not delivered its last chunk is reported to the caller as timed out or failed, and
+ * chunks arriving after that are dropped. Chunks are put back in sequence order per member before they are
+ * relayed, because the client writes, and inflates, each member report in the order it receives the chunks.
+ */
+@Slf4j
+class RelayResultCollector implements ResultCollector<Object, Integer> {
+
+    private final ResultSender<Object> resultSender;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final Set<String> completed = new HashSet<>();
+    private final Map<String, ChunkSequencer> sequencers = new HashMap<>();
+    private final Map<String, String> failures = new HashMap<>();
+    private boolean closed;
+    private int relayed;
+
+    RelayResultCollector(ResultSender<Object> resultSender) {
+        this.resultSender = resultSender;
+    }
+
+    @Override
+    public void addResult(DistributedMember member, Object result) {
+        // replies from different members arrive on different threads and the result sender is not thread safe
+        synchronized (this) {
+            if (result instanceof Throwable) {
+                log.warn("Capture failed on member {}", member, (Throwable) result);
+                failures.put(member.getName(), result.toString());
+                return;
+            }
+            if (closed) {
+                log.debug("Dropping late capture result from member {}", member);
+                return;
+            }
+            if (!(result instanceof ReportChunk)) {
+                resultSender.sendResult(result);
+                relayed++;
+                return;
+            }
+            final ReportChunk received = (ReportChunk) result;
+            for (ReportChunk chunk : sequencer(received.getMemberName()).accept(received)) {
+                if (chunk.isLast()) {
+                    completed.add(chunk.getMemberName());
+                }
+                resultSender.sendResult(chunk);
+                relayed++;
+            }
+        }
+    }
+
+    private ChunkSequencer sequencer(String memberName) {
+        return sequencers.computeIfAbsent(memberName, name -> new ChunkSequencer());
+    }
+
+    /**
+     * Stops relaying and sends a closing chunk for every member that has not completed its report, and a skipped one
+     * for every member the capture does not select, as those members answer a direct capture.
+     *
+     * @return the number of chunks relayed, including the closing chunks
+     */
+    synchronized int close(Collection<String> memberNames, Collection<String> skippedNames, long timeoutMillis) {
+        closed = true;
+        for (String memberName : skippedNames) {
+            resultSender.sendResult(new ReportChunk(memberName, sequencer(memberName).getNext(), new byte[0], false, MemberStatus.SKIPPED, 0,
+                    Capture.NOT_SELECTED));
+            relayed++;
+        }
+        for (String memberName : memberNames) {
+            if (completed.contains(memberName)) {
+                continue;
+            }
+            final String failure = failures.get(memberName);
+            final ReportChunk chunk;
+            if (failure != null) {
+                chunk = new ReportChunk(memberName, sequencer(memberName).getNext(), new byte[0], false, MemberStatus.FAILED, -1, failure);
+            } else {
+                chunk = new ReportChunk(memberName, sequencer(memberName).getNext(), new byte[0], false, MemberStatus.TIMED_OUT, -1,
+                        "No complete report received within " + timeoutMillis + " ms");
+            }
+            resultSender.sendResult(chunk);
+            relayed++;
+        }
+        return relayed;
+    }
+
+    @Override
+    public void endResults() {
+        done.countDown();
+    }
+
+    @Override
+    public Integer getResult() throws FunctionException {
+        try {
+            done.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new FunctionException("Interrupted waiting for capture results", ex);
+        }
+        return getRelayed();
+    }
+
+    @Override
+    public Integer getResult(long timeout, TimeUnit unit) throws FunctionException, InterruptedException {
+        if (!done.await(timeout, unit)) {
+            throw new FunctionException("Timed out waiting for capture results");
+        }
+        return getRelayed();
+    }
+
+    @Override
+    public void clearResults() {
+        synchronized (this) {
+            relayed = 0;
+        }
+    }
+
+    private synchronized int getRelayed() {
+        return relayed;
+    }
+}
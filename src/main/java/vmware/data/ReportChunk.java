@@ -0,0 +1,75 @@
+package vmware.data;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * One section of a member report as it is streamed back from {@link Capture}. Chunks for a member arrive in
+ * sequence order and the chunk flagged as last closes the report. The last chunk also carries how the capture of
+ * the member ended, the cause when it did not complete and the time the member spent on it.
+ * <p>
+ * The payload is one serialized {@link SnapshotSection}, empty when the chunk carries no section, or when compressed
+ * the next part of one deflate stream per member that is flushed at the end of every chunk, so each chunk can be
+ * inflated as soon as it arrives.
+ */
+@Getter
+@NoArgsConstructor
+public class ReportChunk implements DataSerializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String memberName;
+    private int sequence;
+    private boolean last;
+    private byte[] payload;
+    private boolean compressed;
+    private MemberStatus status;
+    private long elapsedMillis;
+    private String cause;
+
+    public ReportChunk(String memberName, int sequence, byte[] payload, boolean compressed) {
+        this.memberName = memberName;
+        this.sequence = sequence;
+        this.payload = payload;
+        this.compressed = compressed;
+    }
+
+    public ReportChunk(String memberName, int sequence, byte[] payload, boolean compressed, MemberStatus status, long elapsedMillis, String cause) {
+        this(memberName, sequence, payload, compressed);
+        this.last = true;
+        this.status = status;
+        this.elapsedMillis = elapsedMillis;
+        this.cause = cause;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+        DataSerializer.writeString(memberName, out);
+        out.writeInt(sequence);
+        out.writeBoolean(last);
+        DataSerializer.writeByteArray(payload, out);
+        out.writeBoolean(compressed);
+        DataSerializer.writeString(status == null ? null : status.name(), out);
+        out.writeLong(elapsedMillis);
+        DataSerializer.writeString(cause, out);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException {
+        memberName = DataSerializer.readString(in);
+        sequence = in.readInt();
+        last = in.readBoolean();
+        payload = DataSerializer.readByteArray(in);
+        compressed = in.readBoolean();
+        String name = DataSerializer.readString(in);
+        status = name == null ? null : MemberStatus.valueOf(name);
+        elapsedMillis = in.readLong();
+        cause = DataSerializer.readString(in);
+    }
+}
@@ -0,0 +1,87 @@
+package vmware.data;
+
+import org.apache.geode.cache.execute.ResultSender;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+
+/**
+ * Serializes each snapshot section and sends it through the function result sender as soon as it has been built.
+ * The most recent section is held back so that it can be sent with lastResult when the capture is closed, together
+ * with the status of the capture and the time elapsed since the sender was created.
+ * <p>
+ * When compressing, all sections of the report go through one deflater that is sync flushed after every section.
+ * Later sections can then refer back to the property names and values of earlier ones, which compresses almost as
+ * well as the whole report at once while the client still inflates each chunk on arrival.
+ */
+class ReportChunkSender implements Consumer<SnapshotSection> {
+
+    static final int COMPRESSION_LEVEL = Integer.getInteger("capture.compression.level", 6);
+
+    private final ResultSender<Object> resultSender;
+    private final String memberName;
+    private final Deflater deflater;
+    private final long start = System.nanoTime();
+    private final ByteArrayOutputStream serialized = new ByteArrayOutputStream(16 * 1024);
+    private byte[] buffer = new byte[16 * 1024];
+    private int sequence;
+    private byte[] pending;
+
+    ReportChunkSender(ResultSender<Object> resultSender, String memberName, boolean compressed) {
+        this.resultSender = resultSender;
+        this.memberName = memberName;
+        this.deflater = compressed ? new Deflater(COMPRESSION_LEVEL) : null;
+    }
+
+    @Override
+    public void accept(SnapshotSection section) {
+        accept(section == null ? new byte[0] : section.toByteArray(serialized));
+    }
+
+    /**
+     * Sends a section that has already been serialized; an empty array sends a chunk without a section.
+     */
+    void accept(byte[] section) {
+        if (pending != null) {
+            resultSender.sendResult(new ReportChunk(memberName, sequence++, encode(pending, false), deflater != null));
+        }
+        pending = section;
+    }
+
+    void close(MemberStatus status, String cause) {
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        final byte[] payload;
+        try {
+            payload = encode(pending == null ? new byte[0] : pending, true);
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+        resultSender.lastResult(new ReportChunk(memberName, sequence, payload, deflater != null, status, elapsedMillis, cause));
+    }
+
+    private byte[] encode(byte[] bytes, boolean last) {
+        if (deflater == null) {
+            return bytes;
+        }
+        deflater.setInput(bytes);
+        if (last) {
+            deflater.finish();
+        }
+        int length = 0;
+        while (true) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            length += deflater.deflate(buffer, length, buffer.length - length, last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+            // a sync flush is complete once the deflater leaves space in the buffer
+            if (last ? deflater.finished() : length < buffer.length) {
+                return Arrays.copyOf(buffer, length);
+            }
+        }
+    }
+}
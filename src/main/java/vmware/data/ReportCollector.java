@@ -0,0 +1,221 @@
+package vmware.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.cache.execute.ResultCollector;
+import org.apache.geode.distributed.DistributedMember;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Client side collector for {@link ReportChunk} results. Chunks are handled on the thread that receives them, their
+ * {@link SnapshotSection} decoded, rendered to HTML and written straight to the member report file, so the reports
+ * of different members are written concurrently and the client never holds more than the chunks in flight. Chunks
+ * are put back in sequence order per member before they are written.
+ * <p>
+ * A report whose member timed out or failed is closed with a note of the cause. When the execution itself fails,
+ * {@link #abort(Throwable)} closes every report still open the same way, so the reports of all other members are
+ * kept. When the collector is given the {@link PoolServers} the capture was sent to, a server that sent nothing at
+ * all is reported timed out, whether the execution failed or not.
+ */
+@Slf4j
+class ReportCollector implements ResultCollector<Object, List<MemberResult>> {
+
+    private final String date = new SimpleDateFormat("dd-MM-yyyy").format(new Date());
+    private final Map<String, ReportWriter> writers = new ConcurrentHashMap<>();
+    private final Map<String, ChunkSequencer> sequencers = new ConcurrentHashMap<>();
+    private final Map<String, SectionDecoder> decoders = new ConcurrentHashMap<>();
+    private final Map<String, MemberResult> results = new ConcurrentHashMap<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final PoolServers servers;
+    private volatile boolean aborted;
+
+    ReportCollector() {
+        this(null);
+    }
+
+    ReportCollector(PoolServers servers) {
+        this.servers = servers;
+    }
+
+    @Override
+    public void addResult(DistributedMember member, Object result) {
+        if (servers != null) {
+            servers.answered(member);
+        }
+        if (result instanceof Throwable) {
+            log.warn("Capture failed on member {}", member, (Throwable) result);
+            close(member.getName(), MemberStatus.FAILED, result.toString());
+            return;
+        }
+        if (aborted || !(result instanceof ReportChunk)) {
+            return;
+        }
+        final ReportChunk received = (ReportChunk) result;
+        if (received.getStatus() == MemberStatus.SKIPPED) {
+            results.put(received.getMemberName(), new MemberResult(received.getMemberName(), MemberStatus.SKIPPED, received.getElapsedMillis(), received.getCause(), null));
+            return;
+        }
+        final ReportWriter writer = writers.computeIfAbsent(received.getMemberName(), this::open);
+        if (writer == null) {
+            return;
+        }
+        // chunks of one member are written in sequence order, other members are written concurrently
+        synchronized (writer) {
+            final ChunkSequencer sequencer = sequencers.computeIfAbsent(received.getMemberName(), name -> new ChunkSequencer());
+            final SectionDecoder decoder = decoders.computeIfAbsent(received.getMemberName(), name -> new SectionDecoder());
+            for (ReportChunk chunk : sequencer.accept(received)) {
+                write(writer, decoder, chunk);
+            }
+        }
+    }
+
+    private void write(ReportWriter writer, SectionDecoder decoder, ReportChunk chunk) {
+        try {
+            final SnapshotSection section = decoder.decode(chunk.getPayload(), chunk.isCompressed());
+            if (section != null) {
+                final StringBuilder sb = new StringBuilder();
+                HtmlRenderer.render(section, sb);
+                writer.write(sb);
+            }
+            if (chunk.isLast()) {
+                final MemberStatus status = chunk.getStatus() == null ? MemberStatus.COMPLETE : chunk.getStatus();
+                if (status != MemberStatus.COMPLETE) {
+                    writer.write(incomplete(status, chunk.getCause()));
+                }
+                writer.write(HtmlRenderer.CLOSING);
+                writers.remove(chunk.getMemberName());
+                closeDecoder(chunk.getMemberName());
+                writer.close();
+                results.put(chunk.getMemberName(), new MemberResult(chunk.getMemberName(), status, chunk.getElapsedMillis(), chunk.getCause(), writer.getFile()));
+            }
+        } catch (IOException ex) {
+            log.error("Error writing file" + writer.getFile().getAbsolutePath(), ex);
+        }
+    }
+
+    /**
+     * Closes every report that is still open after the execution failed, marking it timed out when the failure
+     * was a read timeout and failed otherwise.
+     */
+    void abort(Throwable cause) {
+        aborted = true;
+        final MemberStatus status = isTimeout(cause) ? MemberStatus.TIMED_OUT : MemberStatus.FAILED;
+        new ArrayList<>(writers.keySet()).forEach(memberName -> close(memberName, status, cause.toString()));
+        done.countDown();
+    }
+
+    private void close(String memberName, MemberStatus status, String cause) {
+        final ReportWriter writer = writers.remove(memberName);
+        if (writer == null) {
+            results.putIfAbsent(memberName, new MemberResult(memberName, status, -1, cause, null));
+            return;
+        }
+        synchronized (writer) {
+            try {
+                writer.write(incomplete(status, cause));
+                writer.write(HtmlRenderer.CLOSING);
+                closeDecoder(memberName);
+                writer.close();
+            } catch (IOException ex) {
+                log.error("Error writing file" + writer.getFile().getAbsolutePath(), ex);
+            }
+        }
+        results.put(memberName, new MemberResult(memberName, status, -1, cause, writer.getFile()));
+    }
+
+    private void closeDecoder(String memberName) {
+        final SectionDecoder decoder = decoders.remove(memberName);
+        if (decoder != null) {
+            decoder.close();
+        }
+    }
+
+    private static boolean isTimeout(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof SocketTimeoutException || t instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String incomplete(MemberStatus status, String cause) {
+        final StringBuilder sb = new StringBuilder();
+        HtmlRenderer.render(new SectionWriter().heading(3, "Report Incomplete").text(status + ": " + cause).toSection("Incomplete"), sb);
+        return sb.toString();
+    }
+
+    static File reportFile(String date, String memberName) {
+        return new File("cluster-report-" + date + "-" + memberName + ".html");
+    }
+
+    private ReportWriter open(String name) {
+        final File file = reportFile(date, name);
+        try {
+            ReportWriter writer = new ReportWriter(file);
+            writer.write(HtmlRenderer.PREAMBLE);
+            return writer;
+        } catch (IOException ex) {
+            log.error("Error writing file" + file.getAbsolutePath(), ex);
+            return null;
+        }
+    }
+
+    @Override
+    public void endResults() {
+        done.countDown();
+    }
+
+    @Override
+    public List<MemberResult> getResult() throws FunctionException {
+        try {
+            done.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new FunctionException("Interrupted waiting for capture results", ex);
+        }
+        return getResults();
+    }
+
+    @Override
+    public List<MemberResult> getResult(long timeout, TimeUnit unit) throws FunctionException, InterruptedException {
+        if (!done.await(timeout, unit)) {
+            throw new FunctionException("Timed out waiting for capture results");
+        }
+        return getResults();
+    }
+
+    @Override
+    public void clearResults() {
+        writers.values().forEach(writer -> {
+            try {
+                writer.close();
+            } catch (IOException ex) {
+                log.warn("Error closing file" + writer.getFile().getAbsolutePath(), ex);
+            }
+        });
+        writers.clear();
+        decoders.values().forEach(SectionDecoder::close);
+        decoders.clear();
+    }
+
+    List<MemberResult> getResults() {
+        if (servers != null) {
+            servers.missing(results.keySet()).forEach(memberName -> results.putIfAbsent(memberName,
+                    new MemberResult(memberName, MemberStatus.TIMED_OUT, -1, "No answer from the server", null)));
+        }
+        return new ArrayList<>(results.values());
+    }
+}
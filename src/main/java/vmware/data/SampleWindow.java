@@ -0,0 +1,73 @@
+package vmware.data;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The short window over which the runtime sections sample their counters, so that they report rates rather than
+ * totals since the member started. The length is set on the servers with {@code -Dcapture.runtime.sample-millis}
+ * (default 200). The sections take their first sample when the capture starts and wait for what is left of the
+ * window when they are written, so the window passes while the rest of the capture runs and its threads are not
+ * held by the wait.
+ */
+final class SampleWindow {
+
+    static final long MILLIS = Math.max(0, Long.getLong("capture.runtime.sample-millis", 200L));
+
+    private final long start;
+    private long elapsedNanos;
+
+    SampleWindow() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * A window that opened when the first sample was taken, earlier than now.
+     */
+    SampleWindow(long startNanos) {
+        this.start = startNanos;
+    }
+
+    /**
+     * Waits for the rest of the window. Returns false when interrupted, the interrupt status is kept.
+     */
+    boolean await() {
+        try {
+            final long remaining = TimeUnit.MILLISECONDS.toNanos(MILLIS) - (System.nanoTime() - start);
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            }
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            elapsedNanos = System.nanoTime() - start;
+        }
+    }
+
+    long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    double getElapsedMillis() {
+        return round(elapsedNanos / 1_000_000.0);
+    }
+
+    /**
+     * Rate per second of the change of a counter over the window.
+     */
+    double perSecond(long delta) {
+        return elapsedNanos <= 0 ? 0 : round(delta * 1_000_000_000.0 / elapsedNanos);
+    }
+
+    /**
+     * Share of the window, in percent, taken by the given number of milliseconds.
+     */
+    double percentOfWindow(double millis) {
+        return elapsedNanos <= 0 ? 0 : round(millis * 1_000_000 * 100.0 / elapsedNanos);
+    }
+
+    static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
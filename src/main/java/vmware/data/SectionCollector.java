@@ -0,0 +1,111 @@
+package vmware.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.cache.execute.ResultCollector;
+import org.apache.geode.distributed.DistributedMember;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client side collector for the second phase of a deduplicated capture. The chunks of every member are put back in
+ * sequence order, inflated and matched to the digests asked of that member, so the client holds each shared block
+ * only once, in serialized form, however many member reports contain it.
+ */
+@Slf4j
+class SectionCollector implements ResultCollector<Object, Map<String, byte[]>> {
+
+    private final Map<String, List<String>> requested;
+    private final Map<String, byte[]> blocks = new ConcurrentHashMap<>();
+    private final Map<String, Member> members = new ConcurrentHashMap<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    SectionCollector(Map<String, List<String>> requested) {
+        this.requested = requested;
+    }
+
+    @Override
+    public void addResult(DistributedMember member, Object result) {
+        if (result instanceof Throwable) {
+            log.warn("Fetching sections failed on member {}", member, (Throwable) result);
+            return;
+        }
+        if (!(result instanceof ReportChunk)) {
+            return;
+        }
+        final ReportChunk received = (ReportChunk) result;
+        final Member state = members.computeIfAbsent(received.getMemberName(), name -> new Member());
+        synchronized (state) {
+            for (ReportChunk chunk : state.sequencer.accept(received)) {
+                add(state, chunk);
+            }
+        }
+    }
+
+    private void add(Member state, ReportChunk chunk) {
+        final List<String> digests = requested.getOrDefault(chunk.getMemberName(), Collections.emptyList());
+        try {
+            final byte[] block = state.decoder.decodeBytes(chunk.getPayload(), chunk.isCompressed());
+            if (block.length > 0 && chunk.getSequence() < digests.size()) {
+                blocks.put(digests.get(chunk.getSequence()), block);
+            }
+        } catch (IOException ex) {
+            log.error("Unable to decode section {} of member {}", chunk.getSequence(), chunk.getMemberName(), ex);
+        }
+        if (chunk.isLast()) {
+            if (chunk.getStatus() != MemberStatus.COMPLETE) {
+                log.warn("Fetching sections on member {} ended {}: {}", chunk.getMemberName(), chunk.getStatus(), chunk.getCause());
+            }
+            state.decoder.close();
+        }
+    }
+
+    @Override
+    public void endResults() {
+        done.countDown();
+    }
+
+    @Override
+    public Map<String, byte[]> getResult() throws FunctionException {
+        try {
+            done.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new FunctionException("Interrupted waiting for sections", ex);
+        }
+        return new HashMap<>(blocks);
+    }
+
+    @Override
+    public Map<String, byte[]> getResult(long timeout, TimeUnit unit) throws FunctionException, InterruptedException {
+        if (!done.await(timeout, unit)) {
+            throw new FunctionException("Timed out waiting for sections");
+        }
+        return new HashMap<>(blocks);
+    }
+
+    /**
+     * The blocks received so far, for when the fetch did not complete.
+     */
+    Map<String, byte[]> getBlocks() {
+        return new HashMap<>(blocks);
+    }
+
+    @Override
+    public void clearResults() {
+        members.values().forEach(state -> state.decoder.close());
+        blocks.clear();
+    }
+
+    private static class Member {
+        private final ChunkSequencer sequencer = new ChunkSequencer();
+        private final SectionDecoder decoder = new SectionDecoder();
+    }
+}
@@ -0,0 +1,79 @@
+package vmware.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Turns the payloads of one member's {@link ReportChunk}s back into {@link SnapshotSection}s. Compressed payloads
+ * are successive parts of one deflate stream, so the chunks of a member must be decoded in sequence order by the
+ * same decoder.
+ */
+class SectionDecoder implements AutoCloseable {
+
+    private Inflater inflater;
+    private byte[] buffer = new byte[16 * 1024];
+
+    /**
+     * @return the section carried by the payload, or null when the payload is empty
+     */
+    SnapshotSection decode(byte[] payload, boolean compressed) throws IOException {
+        byte[] bytes = payload;
+        int length = payload.length;
+        if (compressed) {
+            // inflating may replace the buffer with a larger one
+            length = inflate(payload);
+            bytes = buffer;
+        }
+        if (length == 0) {
+            return null;
+        }
+        final SnapshotSection section = new SnapshotSection();
+        section.fromData(new DataInputStream(new ByteArrayInputStream(bytes, 0, length)));
+        return section;
+    }
+
+    /**
+     * @return the serialized section carried by the payload, empty when the payload is empty
+     */
+    byte[] decodeBytes(byte[] payload, boolean compressed) throws IOException {
+        if (!compressed) {
+            return payload;
+        }
+        final int length = inflate(payload);
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private int inflate(byte[] payload) throws IOException {
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        inflater.setInput(payload);
+        int length = 0;
+        try {
+            while (!inflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                final int count = inflater.inflate(buffer, length, buffer.length - length);
+                length += count;
+                if (count == 0 && inflater.needsInput()) {
+                    break;
+                }
+            }
+        } catch (DataFormatException ex) {
+            throw new IOException("Corrupt compressed report payload", ex);
+        }
+        return length;
+    }
+
+    @Override
+    public void close() {
+        if (inflater != null) {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package vmware.data;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Arguments of {@link FetchSections}: the capture to fetch and, by member name, the positions in the member's
+ * {@link SectionManifest} of the blocks that member sends. Every member is sent the same request and picks its own
+ * positions, so they are kept as bit sets to keep the request small on large clusters.
+ */
+@Getter
+@NoArgsConstructor
+public class SectionFetch implements DataSerializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String captureId;
+    private boolean compressed;
+    private Map<String, BitSet> positions;
+
+    SectionFetch(String captureId, boolean compressed, Map<String, BitSet> positions) {
+        this.captureId = captureId;
+        this.compressed = compressed;
+        this.positions = positions;
+    }
+
+    BitSet getPositions(String memberName) {
+        return positions.getOrDefault(memberName, new BitSet());
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+        DataSerializer.writeString(captureId, out);
+        out.writeBoolean(compressed);
+        out.writeInt(positions.size());
+        for (Map.Entry<String, BitSet> entry : positions.entrySet()) {
+            DataSerializer.writeString(entry.getKey(), out);
+            DataSerializer.writeByteArray(entry.getValue().toByteArray(), out);
+        }
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException {
+        captureId = DataSerializer.readString(in);
+        compressed = in.readBoolean();
+        final int size = in.readInt();
+        positions = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            positions.put(DataSerializer.readString(in), BitSet.valueOf(DataSerializer.readByteArray(in)));
+        }
+    }
+}
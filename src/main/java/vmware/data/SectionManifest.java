@@ -0,0 +1,184 @@
+package vmware.data;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.InternalDataSerializer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The first answer of a member to a deduplicated capture: the digest and serialized size of every block of its
+ * report in report order, and how the capture of the member ended. The blocks themselves stay staged on the member
+ * until they are fetched. Digests are the first {@value #DIGEST_BYTES} bytes of a SHA-256 and are sent as raw
+ * bytes and sizes as variable length numbers, as the manifest is sent by every member.
+ * <p>
+ * When the caller still holds an earlier manifest of the member, the member sends the new one as a delta against
+ * it: runs of blocks copied from the base manifest and the digests of the blocks that are new. The caller then
+ * {@link #resolve resolves} the delta against its copy of the base.
+ */
+@Getter
+@NoArgsConstructor
+public class SectionManifest implements DataSerializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int DIGEST_BYTES = 16;
+
+    private static final byte COPY = 0;
+    private static final byte LITERAL = 1;
+
+    private String memberName;
+    private List<String> digests;
+    private int[] sizes;
+    private MemberStatus status;
+    private long elapsedMillis;
+    private String cause;
+    private String baseDigest;
+    private int[] basePositions;
+
+    SectionManifest(String memberName, List<String> digests, int[] sizes, MemberStatus status, long elapsedMillis, String cause) {
+        this.memberName = memberName;
+        this.digests = digests;
+        this.sizes = sizes;
+        this.status = status;
+        this.elapsedMillis = elapsedMillis;
+        this.cause = cause;
+    }
+
+    /**
+     * Digest of the list of block digests, by which the caller names the manifest it holds.
+     */
+    String getManifestDigest() {
+        return SectionStage.digest(String.join("", digests).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    boolean isDelta() {
+        return basePositions != null;
+    }
+
+    /**
+     * This manifest as a delta against an earlier manifest of the same member.
+     */
+    SectionManifest delta(SectionManifest base) {
+        final Map<String, Integer> positions = new HashMap<>();
+        for (int i = base.digests.size() - 1; i >= 0; i--) {
+            positions.put(base.digests.get(i), i);
+        }
+        final int[] copied = new int[digests.size()];
+        for (int i = 0; i < digests.size(); i++) {
+            // prefer the block after the one copied last, so that unchanged stretches are sent as one run
+            final int next = i > 0 && copied[i - 1] >= 0 ? copied[i - 1] + 1 : -1;
+            if (next >= 0 && next < base.digests.size() && base.digests.get(next).equals(digests.get(i))) {
+                copied[i] = next;
+            } else {
+                copied[i] = positions.getOrDefault(digests.get(i), -1);
+            }
+        }
+        final SectionManifest delta = new SectionManifest(memberName, digests, sizes, status, elapsedMillis, cause);
+        delta.baseDigest = base.getManifestDigest();
+        delta.basePositions = copied;
+        return delta;
+    }
+
+    /**
+     * Fills in the blocks of a delta manifest that were copied from the base.
+     */
+    void resolve(SectionManifest base) {
+        for (int i = 0; i < basePositions.length; i++) {
+            if (basePositions[i] >= 0) {
+                digests.set(i, base.digests.get(basePositions[i]));
+                sizes[i] = base.sizes[basePositions[i]];
+            }
+        }
+        baseDigest = null;
+        basePositions = null;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+        DataSerializer.writeString(memberName, out);
+        DataSerializer.writeString(baseDigest, out);
+        out.writeInt(digests.size());
+        int i = 0;
+        while (i < digests.size()) {
+            if (basePositions != null && basePositions[i] >= 0) {
+                int length = 1;
+                while (i + length < digests.size() && basePositions[i + length] == basePositions[i] + length) {
+                    length++;
+                }
+                out.writeByte(COPY);
+                InternalDataSerializer.writeUnsignedVL(basePositions[i], out);
+                InternalDataSerializer.writeUnsignedVL(length, out);
+                i += length;
+            } else {
+                if (basePositions != null) {
+                    out.writeByte(LITERAL);
+                }
+                writeDigest(digests.get(i), out);
+                InternalDataSerializer.writeUnsignedVL(sizes[i], out);
+                i++;
+            }
+        }
+        DataSerializer.writeString(status.name(), out);
+        out.writeLong(elapsedMillis);
+        DataSerializer.writeString(cause, out);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException {
+        memberName = DataSerializer.readString(in);
+        baseDigest = DataSerializer.readString(in);
+        final int size = in.readInt();
+        digests = new ArrayList<>(size);
+        sizes = new int[size];
+        basePositions = baseDigest == null ? null : new int[size];
+        while (digests.size() < size) {
+            if (basePositions != null && in.readByte() == COPY) {
+                final int from = (int) InternalDataSerializer.readUnsignedVL(in);
+                final int length = (int) InternalDataSerializer.readUnsignedVL(in);
+                for (int i = 0; i < length; i++) {
+                    basePositions[digests.size()] = from + i;
+                    digests.add(null);
+                }
+            } else {
+                if (basePositions != null) {
+                    basePositions[digests.size()] = -1;
+                }
+                digests.add(readDigest(in));
+                sizes[digests.size() - 1] = (int) InternalDataSerializer.readUnsignedVL(in);
+            }
+        }
+        status = MemberStatus.valueOf(DataSerializer.readString(in));
+        elapsedMillis = in.readLong();
+        cause = DataSerializer.readString(in);
+    }
+
+    static void writeDigest(String digest, DataOutput out) throws IOException {
+        for (int i = 0; i < DIGEST_BYTES; i++) {
+            out.writeByte(Integer.parseInt(digest.substring(2 * i, 2 * i + 2), 16));
+        }
+    }
+
+    static String readDigest(DataInput in) throws IOException {
+        final byte[] digest = new byte[DIGEST_BYTES];
+        in.readFully(digest);
+        return toHex(digest, DIGEST_BYTES);
+    }
+
+    static String toHex(byte[] bytes, int length) {
+        final StringBuilder sb = new StringBuilder(length * 2);
+        for (int i = 0; i < length; i++) {
+            sb.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16)).append(Character.forDigit(bytes[i] & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package vmware.data;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The serialized sections of one member's capture, held on the member between the two phases of a deduplicated
+ * capture. The capture only answers with a {@link SectionManifest} of block digests; the caller then fetches every
+ * distinct block from one member with {@link FetchSections}, which takes the stage away again. Stages that are
+ * never fetched expire, so a caller that goes away does not leave its capture on the heap.
+ */
+class SectionStage implements Consumer<SnapshotSection> {
+
+    static final long EXPIRY_MILLIS = Long.getLong("capture.stage.expiry-millis", 600_000L);
+
+    /**
+     * Table rows end a block on average once every this many rows, a power of two.
+     */
+    private static final int BLOCK_MASK = Integer.getInteger("capture.stage.block-rows", 16) - 1;
+
+    private static final Map<String, SectionStage> STAGES = new ConcurrentHashMap<>();
+
+    /**
+     * Number of recent manifests of this member kept by digest, to answer callers with a delta against the last
+     * manifest they hold. More than one is kept for when several callers capture the cluster.
+     */
+    static final int MANIFESTS_KEPT = Integer.getInteger("capture.stage.manifests", 8);
+
+    private static final Map<String, SectionManifest> MANIFESTS = new LinkedHashMap<String, SectionManifest>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SectionManifest> eldest) {
+            return size() > MANIFESTS_KEPT;
+        }
+    };
+
+    private final long start = System.nanoTime();
+    private final ByteArrayOutputStream serialized = new ByteArrayOutputStream(16 * 1024);
+    private final Map<String, byte[]> blocks = new HashMap<>();
+    private final List<String> digests = new ArrayList<>();
+    private final List<Integer> sizes = new ArrayList<>();
+
+    /**
+     * Stages the section as blocks so that one member specific value, such as the member name in the properties,
+     * does not keep the rest of the section from being shared. A block starts at every heading, and a table row
+     * ends a block when its content hash says so, which keeps the blocks after an added or changed row aligned
+     * between members.
+     */
+    @Override
+    public void accept(SnapshotSection section) {
+        final List<SnapshotElement> elements = section.getElements();
+        int from = 0;
+        for (int i = 0; i < elements.size(); i++) {
+            final SnapshotElement element = elements.get(i);
+            if (element.getKind() == SnapshotElement.Kind.HEADING && i > from) {
+                add(new SnapshotSection(section.getName(), new ArrayList<>(elements.subList(from, i))));
+                from = i;
+            }
+            if (element.getKind() == SnapshotElement.Kind.ROW && endsBlock(element)) {
+                add(new SnapshotSection(section.getName(), new ArrayList<>(elements.subList(from, i + 1))));
+                from = i + 1;
+            }
+        }
+        if (from < elements.size() || from == 0) {
+            add(new SnapshotSection(section.getName(), new ArrayList<>(elements.subList(from, elements.size()))));
+        }
+    }
+
+    private static boolean endsBlock(SnapshotElement row) {
+        final int hash = Arrays.hashCode(row.getValues());
+        return ((hash ^ (hash >>> 16)) & BLOCK_MASK) == 0;
+    }
+
+    private void add(SnapshotSection block) {
+        final byte[] bytes = block.toByteArray(serialized);
+        final String digest = digest(bytes);
+        blocks.putIfAbsent(digest, bytes);
+        digests.add(digest);
+        sizes.add(bytes.length);
+    }
+
+    /**
+     * @return the serialized block at the position in the manifest, or null when there is no such position
+     */
+    byte[] get(int position) {
+        return position < digests.size() ? blocks.get(digests.get(position)) : null;
+    }
+
+    SectionManifest toManifest(String memberName, MemberStatus status, String cause) {
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new SectionManifest(memberName, digests, sizes.stream().mapToInt(Integer::intValue).toArray(), status, elapsedMillis, cause);
+    }
+
+    /**
+     * Keeps the stage until it is taken, first dropping the stages that have not been fetched in time.
+     */
+    static void put(String captureId, SectionStage stage) {
+        final long expired = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(EXPIRY_MILLIS);
+        STAGES.values().removeIf(staged -> staged.start - expired < 0);
+        STAGES.put(captureId, stage);
+    }
+
+    static SectionStage take(String captureId) {
+        return STAGES.remove(captureId);
+    }
+
+    /**
+     * Keeps the manifest and returns it as a delta against the base the caller holds when this member still knows
+     * that base, or as it is otherwise.
+     */
+    static SectionManifest delta(SectionManifest manifest, String baseDigest) {
+        synchronized (MANIFESTS) {
+            final SectionManifest base = baseDigest == null ? null : MANIFESTS.get(baseDigest);
+            MANIFESTS.put(manifest.getManifestDigest(), manifest);
+            return base == null ? manifest : manifest.delta(base);
+        }
+    }
+
+    /**
+     * Hex encoded digest of a serialized block, the first bytes of its SHA-256. The section name is part of the
+     * serialized form, so equal content under different section names is not merged.
+     */
+    static String digest(byte[] bytes) {
+        try {
+            return SectionManifest.toHex(MessageDigest.getInstance("SHA-256").digest(bytes), SectionManifest.DIGEST_BYTES);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
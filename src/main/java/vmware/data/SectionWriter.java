@@ -0,0 +1,53 @@
+package vmware.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the {@link SnapshotSection} of one report section. Headings, text lines, tables and rows are recorded as
+ * typed elements in the order they are written; how they look is left to the renderer.
+ */
+public class SectionWriter {
+
+    private final List<SnapshotElement> elements = new ArrayList<>();
+
+    public SectionWriter heading(int level, String text) {
+        elements.add(new SnapshotElement(SnapshotElement.Kind.HEADING, level, new Object[]{text}));
+        return this;
+    }
+
+    public SectionWriter text(Object text) {
+        elements.add(new SnapshotElement(SnapshotElement.Kind.TEXT, 0, new Object[]{String.valueOf(text)}));
+        return this;
+    }
+
+    /**
+     * Starts a table with the given column names, or a plain property table when there are none.
+     */
+    public SectionWriter table(String... columns) {
+        elements.add(new SnapshotElement(SnapshotElement.Kind.TABLE, 0, columns));
+        return this;
+    }
+
+    public SectionWriter row(Object... cells) {
+        elements.add(new SnapshotElement(SnapshotElement.Kind.ROW, 0, cells));
+        return this;
+    }
+
+    public SectionWriter endTable() {
+        elements.add(new SnapshotElement(SnapshotElement.Kind.END_TABLE, 0, null));
+        return this;
+    }
+
+    /**
+     * A horizontal separator, used between the regions.
+     */
+    public SectionWriter rule() {
+        elements.add(new SnapshotElement(SnapshotElement.Kind.RULE, 0, null));
+        return this;
+    }
+
+    SnapshotSection toSection(String name) {
+        return new SnapshotSection(name, elements);
+    }
+}
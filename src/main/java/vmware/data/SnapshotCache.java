@@ -0,0 +1,243 @@
+package vmware.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.asyncqueue.AsyncEventQueue;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.wan.GatewaySender;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.MembershipListener;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.RegionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * The last snapshot of this member, kept for a short time so that repeated and concurrent capture requests do not
+ * each rebuild the report. A request that finds a capture in flight follows it, receiving the sections already
+ * built and then each new one as it completes, instead of starting another capture.
+ * <p>
+ * The snapshot is dropped when a region is created or destroyed and when a member joins or leaves the cluster.
+ * Gateway senders, async event queues, indexes and disk stores have no listener, so a fingerprint of them is
+ * compared before the snapshot is reused. Live values such as entry counts and meters are only as old as the time
+ * to live, {@code capture.cache.ttl-millis}; zero disables the cache.
+ * <p>
+ * A low impact capture is slower than a full one by design, so a capture in flight is only followed by requests of
+ * the same mode: a full request never waits on a throttled capture, and a low impact request never waits on a full
+ * one. A completed snapshot costs nothing more to hand out, so it serves requests of either mode.
+ */
+@Slf4j
+class SnapshotCache {
+
+    static final long TTL_MILLIS = Long.getLong("capture.cache.ttl-millis", 30_000L);
+
+    private static SnapshotCache instance;
+
+    private final InternalCache cache;
+    private Flight current;
+    private long generation;
+
+    /**
+     * Builds the snapshot sections within the timeout and hands them to the sink, the same way as
+     * {@link Capture#capture(CaptureRequest, Consumer)}.
+     */
+    interface Source {
+        void capture(Consumer<SnapshotSection> sink, long timeoutMillis) throws TimeoutException;
+    }
+
+    private SnapshotCache(InternalCache cache) {
+        this.cache = cache;
+        // the listener of Geode takes raw regions
+        cache.addRegionListener(new RegionListener() {
+            @Override
+            @SuppressWarnings("rawtypes")
+            public void afterCreate(Region region) {
+                invalidate("region " + region.getFullPath() + " created");
+            }
+
+            @Override
+            @SuppressWarnings("rawtypes")
+            public void beforeDestroyed(Region region) {
+                invalidate("region " + region.getFullPath() + " destroyed");
+            }
+        });
+        cache.getDistributionManager().addMembershipListener(new MembershipListener() {
+            @Override
+            public void memberJoined(DistributionManager distributionManager, InternalDistributedMember member) {
+                invalidate("member " + member + " joined");
+            }
+
+            @Override
+            public void memberDeparted(DistributionManager distributionManager, InternalDistributedMember member, boolean crashed) {
+                invalidate("member " + member + " departed");
+            }
+        });
+    }
+
+    static synchronized SnapshotCache get(InternalCache cache) {
+        if (instance == null || instance.cache != cache) {
+            instance = new SnapshotCache(cache);
+        }
+        return instance;
+    }
+
+    synchronized void invalidate(String reason) {
+        if (current != null) {
+            log.debug("Capture snapshot invalidated, {}", reason);
+        }
+        generation++;
+        current = null;
+    }
+
+    /**
+     * Hands the sections of a fresh snapshot to the sink, following a capture in flight or starting one when there
+     * is neither. Ends like the source: with a {@link TimeoutException} when the capture or this caller's own
+     * deadline timed out, and with the exception of the source when it failed.
+     */
+    void capture(Source source, Consumer<SnapshotSection> sink, long timeoutMillis, boolean lowImpact) throws TimeoutException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        // taken outside the lock, the region and membership listeners lock this cache from within Geode
+        final String fingerprint = TTL_MILLIS > 0 ? fingerprint() : null;
+        final Flight flight;
+        final boolean leader;
+        synchronized (this) {
+            leader = current == null || !current.isInFlightOrFresh(fingerprint, lowImpact);
+            if (leader) {
+                current = fingerprint != null ? new Flight(generation, fingerprint, lowImpact) : null;
+            }
+            flight = current;
+        }
+        if (flight == null) {
+            source.capture(sink, timeoutMillis);
+        } else if (leader) {
+            lead(flight, source, sink, timeoutMillis);
+        } else {
+            flight.follow(sink, timeoutMillis > 0 ? deadline : 0);
+        }
+    }
+
+    private void lead(Flight flight, Source source, Consumer<SnapshotSection> sink, long timeoutMillis) throws TimeoutException {
+        // the capture is shared, so a sink that fails only stops this caller from receiving sections
+        final RuntimeException[] sinkFailure = new RuntimeException[1];
+        try {
+            source.capture(section -> {
+                flight.add(section);
+                if (sinkFailure[0] == null) {
+                    try {
+                        sink.accept(section);
+                    } catch (RuntimeException ex) {
+                        sinkFailure[0] = ex;
+                    }
+                }
+            }, timeoutMillis);
+            flight.complete(null);
+        } catch (TimeoutException | RuntimeException ex) {
+            flight.complete(ex);
+        } finally {
+            synchronized (this) {
+                // only a complete capture taken without changes in between is kept
+                if (current == flight && (flight.failure != null || flight.generation != generation)) {
+                    current = null;
+                }
+            }
+        }
+        if (sinkFailure[0] != null) {
+            throw sinkFailure[0];
+        }
+        flight.rethrow();
+    }
+
+    private String fingerprint() {
+        final StringBuilder sb = new StringBuilder();
+        for (GatewaySender sender : cache.getAllGatewaySenders()) {
+            sb.append(sender.getId()).append(sender.isRunning()).append(sender.isPaused()).append(',');
+        }
+        for (AsyncEventQueue queue : cache.getAsyncEventQueues()) {
+            sb.append(queue.getId()).append(',');
+        }
+        for (Index index : cache.getQueryService().getIndexes()) {
+            sb.append(index.getName()).append(',');
+        }
+        cache.listDiskStoresIncludingRegionOwned().forEach(diskStore -> sb.append(diskStore.getName()).append(','));
+        return sb.toString();
+    }
+
+    /**
+     * One capture, in flight or complete, and the sections built by it so far.
+     */
+    private class Flight {
+        private final long generation;
+        private final String fingerprint;
+        private final boolean lowImpact;
+        private final List<SnapshotSection> sections = new ArrayList<>();
+        private boolean done;
+        private long completed;
+        private Exception failure;
+
+        private Flight(long generation, String fingerprint, boolean lowImpact) {
+            this.generation = generation;
+            this.fingerprint = fingerprint;
+            this.lowImpact = lowImpact;
+        }
+
+        private synchronized void add(SnapshotSection section) {
+            sections.add(section);
+            notifyAll();
+        }
+
+        private synchronized void complete(Exception failure) {
+            this.failure = failure;
+            this.done = true;
+            this.completed = System.nanoTime();
+            notifyAll();
+        }
+
+        private synchronized boolean isInFlightOrFresh(String fingerprint, boolean lowImpact) {
+            if (!done) {
+                return this.lowImpact == lowImpact;
+            }
+            return failure == null && System.nanoTime() - completed < TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS) && this.fingerprint.equals(fingerprint);
+        }
+
+        private void follow(Consumer<SnapshotSection> sink, long deadline) throws TimeoutException {
+            int next = 0;
+            while (true) {
+                final List<SnapshotSection> ready;
+                synchronized (this) {
+                    while (next == sections.size() && !done) {
+                        final long remaining = deadline == 0 ? 0 : deadline - System.nanoTime();
+                        if (deadline != 0 && remaining <= 0) {
+                            throw new TimeoutException("Deadline exceeded waiting for the capture in flight, " + next + " sections captured");
+                        }
+                        try {
+                            TimeUnit.NANOSECONDS.timedWait(this, deadline == 0 ? TimeUnit.SECONDS.toNanos(1) : remaining);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException("Interrupted waiting for the capture in flight", ex);
+                        }
+                    }
+                    ready = new ArrayList<>(sections.subList(next, sections.size()));
+                    if (ready.isEmpty()) {
+                        break;
+                    }
+                }
+                ready.forEach(sink);
+                next += ready.size();
+            }
+            rethrow();
+        }
+
+        private synchronized void rethrow() throws TimeoutException {
+            if (failure instanceof TimeoutException) {
+                throw new TimeoutException(failure.getMessage());
+            } else if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package vmware.data;
+
+import lombok.Getter;
+
+/**
+ * One element of a {@link SnapshotSection}. Headings and text carry a single string, a table carries its column
+ * names (none for a plain property table) and a row carries its typed cell values.
+ */
+@Getter
+public class SnapshotElement {
+
+    public enum Kind {
+        HEADING,
+        TEXT,
+        TABLE,
+        ROW,
+        END_TABLE,
+        RULE
+    }
+
+    private static final Object[] NONE = new Object[0];
+
+    private final Kind kind;
+    private final int level;
+    private final Object[] values;
+
+    SnapshotElement(Kind kind, int level, Object[] values) {
+        this.kind = kind;
+        this.level = level;
+        this.values = values == null ? NONE : values;
+    }
+
+    /**
+     * The text of a heading or text element.
+     */
+    public String getText() {
+        return values.length == 0 ? "" : String.valueOf(values[0]);
+    }
+}
@@ -0,0 +1,176 @@
+package vmware.data;
+
+import lombok.Getter;
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The captured data of one report section as a typed object model instead of markup. Cell values keep their type,
+ * a string, a whole number, a decimal number or a boolean, so the snapshot can be rendered to HTML by the client
+ * or processed by other tools. Elements are written with a one byte kind and cell values with a one byte type tag.
+ */
+@Getter
+public class SnapshotSection implements DataSerializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+
+    private String name;
+    private List<SnapshotElement> elements;
+
+    public SnapshotSection() {
+    }
+
+    SnapshotSection(String name, List<SnapshotElement> elements) {
+        this.name = name;
+        this.elements = elements;
+    }
+
+    public List<SnapshotElement> getElements() {
+        return Collections.unmodifiableList(elements);
+    }
+
+    public boolean isEmpty() {
+        return elements.isEmpty();
+    }
+
+    /**
+     * Serializes the section through the given stream, which is reset first so that it can be reused.
+     */
+    byte[] toByteArray(ByteArrayOutputStream buffer) {
+        buffer.reset();
+        try {
+            toData(new DataOutputStream(buffer));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Size of the serialized section, counted without keeping the bytes.
+     */
+    int serializedSize() {
+        final DataOutputStream counter = new DataOutputStream(OutputStream.nullOutputStream());
+        try {
+            toData(counter);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return counter.size();
+    }
+
+    static SnapshotSection fromByteArray(byte[] serialized) throws IOException {
+        final SnapshotSection section = new SnapshotSection();
+        section.fromData(new DataInputStream(new ByteArrayInputStream(serialized)));
+        return section;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+        DataSerializer.writeString(name, out);
+        out.writeInt(elements.size());
+        for (SnapshotElement element : elements) {
+            out.writeByte(element.getKind().ordinal());
+            switch (element.getKind()) {
+                case HEADING:
+                    out.writeByte(element.getLevel());
+                    DataSerializer.writeString(element.getText(), out);
+                    break;
+                case TEXT:
+                    DataSerializer.writeString(element.getText(), out);
+                    break;
+                case TABLE:
+                case ROW:
+                    out.writeShort(element.getValues().length);
+                    for (Object value : element.getValues()) {
+                        writeValue(value, out);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException {
+        name = DataSerializer.readString(in);
+        final int size = in.readInt();
+        elements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final SnapshotElement.Kind kind = SnapshotElement.Kind.values()[in.readByte()];
+            switch (kind) {
+                case HEADING:
+                    final int level = in.readByte();
+                    elements.add(new SnapshotElement(kind, level, new Object[]{DataSerializer.readString(in)}));
+                    break;
+                case TEXT:
+                    elements.add(new SnapshotElement(kind, 0, new Object[]{DataSerializer.readString(in)}));
+                    break;
+                case TABLE:
+                case ROW:
+                    final Object[] values = new Object[in.readShort()];
+                    for (int j = 0; j < values.length; j++) {
+                        values[j] = readValue(in);
+                    }
+                    elements.add(new SnapshotElement(kind, 0, values));
+                    break;
+                default:
+                    elements.add(new SnapshotElement(kind, 0, null));
+                    break;
+            }
+        }
+    }
+
+    private static void writeValue(Object value, DataOutput out) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(LONG);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else {
+            out.writeByte(STRING);
+            DataSerializer.writeString(value.toString(), out);
+        }
+    }
+
+    private static Object readValue(DataInput in) throws IOException {
+        switch (in.readByte()) {
+            case NULL:
+                return null;
+            case DOUBLE:
+                return in.readDouble();
+            case LONG:
+                return in.readLong();
+            case BOOLEAN:
+                return in.readBoolean();
+            default:
+                return DataSerializer.readString(in);
+        }
+    }
+}
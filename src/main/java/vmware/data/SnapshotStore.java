@@ -0,0 +1,129 @@
+package vmware.data;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The last capture as kept by the client between runs: the manifest of every member and the blocks they refer to.
+ * The next capture sends the digest of every member's manifest, so a member can answer with a delta, and fetches
+ * only the blocks that are not in the store. The store only ever holds the blocks of the last capture.
+ */
+@Slf4j
+class SnapshotStore {
+
+    static final String FILE_NAME = "capture-snapshot.dat";
+
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final Map<String, SectionManifest> manifests = new HashMap<>();
+    private final Map<String, byte[]> blocks = new HashMap<>();
+
+    SnapshotStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the store; a store that is missing or cannot be read is treated as empty, so the capture is taken in
+     * full.
+     */
+    SnapshotStore load() {
+        if (!file.exists()) {
+            return this;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file.toPath()))))) {
+            if (in.readInt() != VERSION) {
+                log.info("Ignoring snapshot store {} of another version", file.getAbsolutePath());
+                return this;
+            }
+            final int manifestCount = in.readInt();
+            for (int i = 0; i < manifestCount; i++) {
+                final SectionManifest manifest = new SectionManifest();
+                manifest.fromData(in);
+                manifests.put(manifest.getMemberName(), manifest);
+            }
+            final int blockCount = in.readInt();
+            for (int i = 0; i < blockCount; i++) {
+                final String digest = SectionManifest.readDigest(in);
+                final byte[] block = new byte[in.readInt()];
+                in.readFully(block);
+                blocks.put(digest, block);
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Ignoring snapshot store {} that cannot be read: {}", file.getAbsolutePath(), ex.toString());
+            manifests.clear();
+            blocks.clear();
+        }
+        return this;
+    }
+
+    /**
+     * Digest of the manifest held for every member.
+     */
+    Map<String, String> getManifestDigests() {
+        final Map<String, String> digests = new HashMap<>();
+        manifests.forEach((memberName, manifest) -> digests.put(memberName, manifest.getManifestDigest()));
+        return digests;
+    }
+
+    SectionManifest getManifest(String memberName) {
+        return manifests.get(memberName);
+    }
+
+    Map<String, byte[]> getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * Replaces the store with the manifests of this capture and the blocks they refer to. The file is written
+     * aside and moved into place, so a failed write leaves the last store intact.
+     */
+    void save(Collection<SectionManifest> current, Map<String, byte[]> available) {
+        final List<String> digests = new ArrayList<>();
+        final Map<String, byte[]> kept = new HashMap<>();
+        current.forEach(manifest -> manifest.getDigests().forEach(digest -> {
+            final byte[] block = available.get(digest);
+            if (block != null && kept.put(digest, block) == null) {
+                digests.add(digest);
+            }
+        }));
+        final File temporary = new File(file.getAbsolutePath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary.toPath()))))) {
+                out.writeInt(VERSION);
+                out.writeInt(current.size());
+                for (SectionManifest manifest : current) {
+                    manifest.toData(out);
+                }
+                out.writeInt(digests.size());
+                for (String digest : digests) {
+                    SectionManifest.writeDigest(digest, out);
+                    out.writeInt(kept.get(digest).length);
+                    out.write(kept.get(digest));
+                }
+            }
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            log.warn("Unable to save snapshot store {}", file.getAbsolutePath(), ex);
+        }
+        manifests.clear();
+        current.forEach(manifest -> manifests.put(manifest.getMemberName(), manifest));
+        blocks.clear();
+        blocks.putAll(kept);
+    }
+}
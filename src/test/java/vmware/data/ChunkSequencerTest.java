@@ -0,0 +1,72 @@
+package vmware.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkSequencerTest {
+
+    @Test
+    void deliversChunksThatArriveInOrderRightAway() {
+        final ChunkSequencer sequencer = new ChunkSequencer();
+        assertEquals(List.of(0), sequences(sequencer.accept(chunk(0))));
+        assertEquals(List.of(1), sequences(sequencer.accept(chunk(1))));
+        assertEquals(2, sequencer.getNext());
+    }
+
+    @Test
+    void holdsChunksBackUntilTheMissingOneArrives() {
+        final ChunkSequencer sequencer = new ChunkSequencer();
+        assertTrue(sequencer.accept(chunk(2)).isEmpty());
+        assertTrue(sequencer.accept(chunk(1)).isEmpty());
+        assertTrue(sequencer.accept(chunk(4)).isEmpty());
+        assertEquals(List.of(0, 1, 2), sequences(sequencer.accept(chunk(0))));
+        assertEquals(3, sequencer.getNext());
+        assertEquals(List.of(3, 4), sequences(sequencer.accept(chunk(3))));
+        assertEquals(5, sequencer.getNext());
+    }
+
+    @Test
+    void deliversDuplicateChunksOnlyOnce() {
+        final ChunkSequencer sequencer = new ChunkSequencer();
+        assertTrue(sequencer.accept(chunk(1)).isEmpty());
+        assertTrue(sequencer.accept(chunk(1)).isEmpty());
+        assertEquals(List.of(0, 1), sequences(sequencer.accept(chunk(0))));
+        assertTrue(sequencer.accept(chunk(0)).isEmpty());
+        assertTrue(sequencer.accept(chunk(1)).isEmpty());
+        assertEquals(List.of(2), sequences(sequencer.accept(chunk(2))));
+        assertEquals(3, sequencer.getNext());
+    }
+
+    @Test
+    void deliversShuffledChunksWithDuplicatesInSequenceOrder() {
+        final List<Integer> arrivals = new ArrayList<>();
+        IntStream.range(0, 200).forEach(arrivals::add);
+        IntStream.range(0, 200).filter(i -> i % 7 == 0).forEach(arrivals::add);
+        Collections.shuffle(arrivals, new Random(42));
+
+        final ChunkSequencer sequencer = new ChunkSequencer();
+        final List<Integer> delivered = new ArrayList<>();
+        for (int sequence : arrivals) {
+            delivered.addAll(sequences(sequencer.accept(chunk(sequence))));
+        }
+        assertEquals(IntStream.range(0, 200).boxed().collect(Collectors.toList()), delivered);
+        assertEquals(200, sequencer.getNext());
+    }
+
+    private static ReportChunk chunk(int sequence) {
+        return new ReportChunk("server1", sequence, new byte[0], false);
+    }
+
+    private static List<Integer> sequences(List<ReportChunk> chunks) {
+        return chunks.stream().map(ReportChunk::getSequence).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,59 @@
+package vmware.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HtmlRendererTest {
+
+    @Test
+    void escapesMarkupCharacters() {
+        assertEquals("&lt;region name=&quot;a&amp;b&quot;&gt;", HtmlRenderer.escape("<region name=\"a&b\">"));
+        assertEquals("&amp;amp;", HtmlRenderer.escape("&amp;"));
+        assertEquals("x &lt; y", HtmlRenderer.escape("x < y"));
+    }
+
+    @Test
+    void returnsTextWithoutMarkupUnchanged() {
+        final String text = "server1 'data' 42";
+        assertSame(text, HtmlRenderer.escape(text));
+        assertEquals("", HtmlRenderer.escape(""));
+    }
+
+    @Test
+    void formatsDecimalsTheSameInEveryLocale() {
+        final Locale locale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            assertEquals("1.500", HtmlRenderer.format(1.5));
+            assertEquals("1234567", HtmlRenderer.format(1234567L));
+            assertEquals("true", HtmlRenderer.format(true));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test
+    void rendersCapturedTextEscaped() {
+        final SnapshotSection section = new SectionWriter()
+                .heading(2, "<Regions>")
+                .text("<cache>")
+                .table("<Name>")
+                .row("<script>")
+                .endTable()
+                .toSection("Regions");
+        final StringBuilder sb = new StringBuilder();
+        HtmlRenderer.render(section, sb);
+        final String html = sb.toString();
+        assertTrue(html.contains("<h2><b>&lt;Regions&gt;</b></h2>"));
+        assertTrue(html.contains("<ui>&lt;cache&gt;</ui>"));
+        assertTrue(html.contains("<td><b>&lt;Name&gt;</b></td>"));
+        assertTrue(html.contains("<td>&lt;script&gt;</td>"));
+        assertFalse(html.contains("<script>"));
+    }
+}
@@ -0,0 +1,133 @@
+package vmware.data;
+
+import org.apache.geode.cache.execute.ResultSender;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SectionDecoderTest {
+
+    @Test
+    void inflatesCompressedSectionsAcrossFlushes() throws IOException {
+        roundTrip(true);
+    }
+
+    @Test
+    void decodesUncompressedSections() throws IOException {
+        roundTrip(false);
+    }
+
+    @Test
+    void decodesSerializedBytesOfCompressedSections() throws IOException {
+        final List<SnapshotSection> sections = sections();
+        final List<ReportChunk> chunks = send(sections, true);
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (SectionDecoder decoder = new SectionDecoder()) {
+            for (int i = 0; i < chunks.size(); i++) {
+                final byte[] expected = sections.get(i) == null ? new byte[0] : sections.get(i).toByteArray(buffer);
+                assertArrayEquals(expected, decoder.decodeBytes(chunks.get(i).getPayload(), true));
+            }
+        }
+    }
+
+    @Test
+    void rejectsCorruptCompressedPayloads() {
+        try (SectionDecoder decoder = new SectionDecoder()) {
+            assertThrows(IOException.class, () -> decoder.decode(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}, true));
+        }
+    }
+
+    private static void roundTrip(boolean compressed) throws IOException {
+        final List<SnapshotSection> sections = sections();
+        final List<ReportChunk> chunks = send(sections, compressed);
+        assertEquals(sections.size(), chunks.size());
+
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (SectionDecoder decoder = new SectionDecoder()) {
+            for (int i = 0; i < chunks.size(); i++) {
+                final ReportChunk chunk = chunks.get(i);
+                assertEquals(i, chunk.getSequence());
+                assertEquals(compressed, chunk.isCompressed());
+                assertEquals(i == chunks.size() - 1, chunk.isLast());
+                final SnapshotSection decoded = decoder.decode(chunk.getPayload(), chunk.isCompressed());
+                if (sections.get(i) == null) {
+                    assertNull(decoded);
+                } else {
+                    assertArrayEquals(sections.get(i).toByteArray(buffer), decoded.toByteArray(new ByteArrayOutputStream()));
+                }
+            }
+        }
+        final ReportChunk last = chunks.get(chunks.size() - 1);
+        assertEquals(MemberStatus.COMPLETE, last.getStatus());
+    }
+
+    /**
+     * Sections with repeated content, one without a section, and one large enough to outgrow the 16 KB buffers of
+     * both the sender and the decoder even when compressed.
+     */
+    private static List<SnapshotSection> sections() {
+        final Random random = new Random(7);
+        final List<SnapshotSection> sections = new ArrayList<>();
+        for (int s = 0; s < 3; s++) {
+            final SectionWriter writer = new SectionWriter().heading(2, "Properties " + s).table();
+            for (int i = 0; i < 50; i++) {
+                writer.row("property-" + i, "value-" + i, (long) i, i / 4.0, i % 2 == 0);
+            }
+            sections.add(writer.endTable().toSection("Properties"));
+        }
+        sections.add(null);
+        final SectionWriter large = new SectionWriter().heading(2, "Large").table("Key", "Value");
+        for (int i = 0; i < 2000; i++) {
+            final byte[] noise = new byte[24];
+            random.nextBytes(noise);
+            large.row("key-" + i, Arrays.toString(noise));
+        }
+        sections.add(large.endTable().rule().toSection("Large"));
+        sections.add(new SectionWriter().text("after the large section").toSection("Trailer"));
+        return sections;
+    }
+
+    private static List<ReportChunk> send(List<SnapshotSection> sections, boolean compressed) {
+        final CollectingSender collected = new CollectingSender();
+        final ReportChunkSender sender = new ReportChunkSender(collected, "server1", compressed);
+        sections.forEach(sender);
+        sender.close(MemberStatus.COMPLETE, null);
+        assertTrue(collected.closed);
+        assertFalse(collected.chunks.isEmpty());
+        return collected.chunks;
+    }
+
+    private static class CollectingSender implements ResultSender<Object> {
+
+        private final List<ReportChunk> chunks = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public void lastResult(Object result) {
+            chunks.add((ReportChunk) result);
+            closed = true;
+        }
+
+        @Override
+        public void sendResult(Object result) {
+            chunks.add((ReportChunk) result);
+        }
+
+        @Override
+        public void sendException(Throwable cause) {
+            throw new AssertionError(cause);
+        }
+    }
+}
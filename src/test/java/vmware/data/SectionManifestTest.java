@@ -0,0 +1,125 @@
+package vmware.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SectionManifestTest {
+
+    @Test
+    void sendsAManifestWithoutABaseAsItIs() throws IOException {
+        final SectionManifest manifest = manifest("a", "b", "c");
+        final SectionManifest received = roundTrip(manifest);
+        assertFalse(received.isDelta());
+        assertNull(received.getBaseDigest());
+        assertEquals(manifest.getDigests(), received.getDigests());
+        assertArrayEquals(manifest.getSizes(), received.getSizes());
+        assertEquals("server1", received.getMemberName());
+        assertEquals(MemberStatus.COMPLETE, received.getStatus());
+        assertEquals(25, received.getElapsedMillis());
+        assertNull(received.getCause());
+    }
+
+    @Test
+    void resolvesAChangedManifestAgainstItsBase() throws IOException {
+        final SectionManifest base = manifest("a", "b", "c", "d", "e");
+        assertResolves(base, manifest("a", "b", "x", "d", "e", "f"));
+    }
+
+    @Test
+    void resolvesMovedAndRepeatedBlocks() throws IOException {
+        final SectionManifest base = manifest("a", "a", "b", "c", "d");
+        assertResolves(base, manifest("d", "a", "b", "a", "y", "c", "d", "a"));
+    }
+
+    @Test
+    void resolvesAManifestThatSharesNothingWithItsBase() throws IOException {
+        assertResolves(manifest("a", "b"), manifest("x", "y", "z"));
+        assertResolves(manifest("a", "b"), manifest());
+    }
+
+    @Test
+    void sendsUnchangedRunsOfBlocksAsCopies() throws IOException {
+        final String[] blocks = new String[200];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = "block-" + i;
+        }
+        final SectionManifest base = manifest(blocks);
+        blocks[100] = "changed";
+        final SectionManifest changed = manifest(blocks);
+        final int full = serialize(changed).length;
+        final int delta = serialize(changed.delta(base)).length;
+        assertTrue(delta * 20 < full, "delta of " + delta + " bytes against " + full + " bytes");
+        assertResolves(base, changed);
+    }
+
+    @Test
+    void keepsTheStatusAndCauseOfADelta() throws IOException {
+        final SectionManifest base = manifest("a", "b");
+        final SectionManifest failed = new SectionManifest("server2", digests("a", "x"), new int[]{1, 2},
+                MemberStatus.TIMED_OUT, 9000, "Capture Deadline Reached");
+        final SectionManifest received = roundTrip(failed.delta(base));
+        assertTrue(received.isDelta());
+        assertEquals("server2", received.getMemberName());
+        assertEquals(MemberStatus.TIMED_OUT, received.getStatus());
+        assertEquals(9000, received.getElapsedMillis());
+        assertEquals("Capture Deadline Reached", received.getCause());
+    }
+
+    /**
+     * Sends the manifest as a delta against the base and checks that the receiver, holding its own copy of the
+     * base, resolves it to the manifest that was sent.
+     */
+    private static void assertResolves(SectionManifest base, SectionManifest manifest) throws IOException {
+        final SectionManifest received = roundTrip(manifest.delta(base));
+        assertTrue(received.isDelta());
+        assertEquals(base.getManifestDigest(), received.getBaseDigest());
+
+        received.resolve(roundTrip(base));
+        assertFalse(received.isDelta());
+        assertEquals(manifest.getDigests(), received.getDigests());
+        assertArrayEquals(manifest.getSizes(), received.getSizes());
+        assertEquals(manifest.getManifestDigest(), received.getManifestDigest());
+    }
+
+    private static SectionManifest manifest(String... blocks) {
+        final int[] sizes = new int[blocks.length];
+        for (int i = 0; i < blocks.length; i++) {
+            sizes[i] = 100 + blocks[i].hashCode() % 100;
+        }
+        return new SectionManifest("server1", digests(blocks), sizes, MemberStatus.COMPLETE, 25, null);
+    }
+
+    private static List<String> digests(String... blocks) {
+        final List<String> digests = new ArrayList<>();
+        for (String block : blocks) {
+            digests.add(SectionStage.digest(block.getBytes(StandardCharsets.UTF_8)));
+        }
+        return digests;
+    }
+
+    private static SectionManifest roundTrip(SectionManifest manifest) throws IOException {
+        final SectionManifest received = new SectionManifest();
+        received.fromData(new DataInputStream(new ByteArrayInputStream(serialize(manifest))));
+        return received;
+    }
+
+    private static byte[] serialize(SectionManifest manifest) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        manifest.toData(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
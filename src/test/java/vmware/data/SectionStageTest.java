@@ -0,0 +1,132 @@
+package vmware.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The build runs the tests with small blocks, see capture.stage.block-rows in the pom, so that the sections below
+ * cross many block boundaries.
+ */
+class SectionStageTest {
+
+    private static final int BLOCK_ROWS = Integer.getInteger("capture.stage.block-rows", 16);
+
+    @Test
+    void blocksPutTogetherAreTheSection() throws IOException {
+        final SnapshotSection section = regions(300, -1);
+        final List<SnapshotElement> joined = new ArrayList<>();
+        blocks(stage(section)).forEach(block -> {
+            assertEquals(section.getName(), block.getName());
+            joined.addAll(block.getElements());
+        });
+        assertElementsEqual(section.getElements(), joined);
+    }
+
+    @Test
+    void blocksStartAtHeadingsAndEndAtRowsWhoseHashSaysSo() throws IOException {
+        final List<SnapshotSection> blocks = blocks(stage(regions(300, -1)));
+        assertTrue(blocks.size() > 3);
+        for (int b = 0; b < blocks.size(); b++) {
+            final List<SnapshotElement> elements = blocks.get(b).getElements();
+            for (int i = 0; i < elements.size(); i++) {
+                final SnapshotElement element = elements.get(i);
+                if (element.getKind() == SnapshotElement.Kind.HEADING) {
+                    assertEquals(0, i, "a heading starts a block");
+                }
+                if (element.getKind() == SnapshotElement.Kind.ROW && endsBlock(element)) {
+                    assertEquals(elements.size() - 1, i, "the row ends its block");
+                }
+            }
+            final SnapshotElement last = elements.get(elements.size() - 1);
+            if (b < blocks.size() - 1 && !(last.getKind() == SnapshotElement.Kind.ROW && endsBlock(last))) {
+                assertEquals(SnapshotElement.Kind.HEADING, blocks.get(b + 1).getElements().get(0).getKind());
+            }
+        }
+    }
+
+    @Test
+    void blocksHoldAboutBlockRowsRows() throws IOException {
+        final List<SnapshotSection> blocks = blocks(stage(regions(4000, -1)));
+        final double rowsPerBlock = 4000.0 / blocks.size();
+        assertTrue(rowsPerBlock > BLOCK_ROWS / 2.0 && rowsPerBlock < BLOCK_ROWS * 2.0, "rows per block " + rowsPerBlock);
+    }
+
+    @Test
+    void anAddedRowChangesOnlyTheBlockItIsAddedTo() {
+        final List<String> before = stage(regions(300, -1)).toManifest("server1", MemberStatus.COMPLETE, null).getDigests();
+        final List<String> after = stage(regions(300, 150)).toManifest("server1", MemberStatus.COMPLETE, null).getDigests();
+        assertNotEquals(before, after);
+        final Set<String> changed = new HashSet<>(before);
+        changed.removeAll(after);
+        assertEquals(1, changed.size());
+    }
+
+    @Test
+    void anEmptySectionIsOneBlock() throws IOException {
+        final SectionStage stage = stage(new SectionWriter().toSection("Empty"));
+        final List<SnapshotSection> blocks = blocks(stage);
+        assertEquals(1, blocks.size());
+        assertTrue(blocks.get(0).isEmpty());
+        assertEquals(1, stage.toManifest("server1", MemberStatus.COMPLETE, null).getSizes().length);
+    }
+
+    /**
+     * A region table; when added is not negative, an extra row is inserted before the row of that index.
+     */
+    private static SnapshotSection regions(int rows, int added) {
+        final SectionWriter writer = new SectionWriter()
+                .heading(2, "Regions")
+                .text("Captured regions")
+                .table("Name", "Entries", "Persistent");
+        for (int i = 0; i < rows; i++) {
+            if (i == added) {
+                writer.row("/added", 1L, false);
+            }
+            writer.row("/region-" + i, (long) i * 10, i % 3 == 0);
+        }
+        return writer.endTable()
+                .heading(3, "Totals")
+                .text(rows + " regions")
+                .toSection("Regions");
+    }
+
+    private static SectionStage stage(SnapshotSection section) {
+        final SectionStage stage = new SectionStage();
+        stage.accept(section);
+        return stage;
+    }
+
+    private static List<SnapshotSection> blocks(SectionStage stage) throws IOException {
+        final List<SnapshotSection> blocks = new ArrayList<>();
+        byte[] block;
+        for (int i = 0; (block = stage.get(i)) != null; i++) {
+            blocks.add(SnapshotSection.fromByteArray(block));
+        }
+        return blocks;
+    }
+
+    private static boolean endsBlock(SnapshotElement row) {
+        final int hash = Arrays.hashCode(row.getValues());
+        return ((hash ^ (hash >>> 16)) & (BLOCK_ROWS - 1)) == 0;
+    }
+
+    static void assertElementsEqual(List<SnapshotElement> expected, List<SnapshotElement> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getKind(), actual.get(i).getKind());
+            assertEquals(expected.get(i).getLevel(), actual.get(i).getLevel());
+            assertArrayEquals(expected.get(i).getValues(), actual.get(i).getValues());
+        }
+    }
+}